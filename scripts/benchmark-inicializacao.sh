@@ -0,0 +1,76 @@
+#!/usr/bin/env bash
+# Tempo de inicialização e latência da primeira requisição em quatro modos de execução:
+#   padrao        java -jar (sem perfil: templates sem cache)
+#   prod          perfil prod (cache e pré-aquecimento dos templates, DispatcherServlet iniciado no boot)
+#   prod+aot      prod + configuração gerada pelo Spring AOT (-Dspring.aot.enabled=true)
+#   prod+aot+cds  prod + AOT + arquivo CDS/AppCDS treinado (o que a imagem Docker executa)
+#
+# Uso: ./mvnw -Paot package -DskipTests && scripts/benchmark-inicializacao.sh [repeticoes]
+#
+# Para cada execução: "pronto" é o tempo do lançamento da JVM até /actuator/health responder 200;
+# "1a /login" e "2a /login" são as latências (curl) das duas primeiras renderizações da página de login.
+# O backend não é usado (GET /login não chama a API).
+set -euo pipefail
+
+REPETICOES="${1:-5}"
+RAIZ="$(cd "$(dirname "$0")/.." && pwd)"
+JAR="$RAIZ/target/com.tarefasonline-0.0.1-SNAPSHOT.jar"
+DIR="$RAIZ/target/benchmark-inicializacao"
+PORTA="${PORTA:-18081}"
+PORTA_GERENCIA="${PORTA_GERENCIA:-19081}" # Actuator, na porta de gerência (management.server.port)
+
+if [[ ! -f "$JAR" ]] || ! unzip -l "$JAR" | grep '__BeanDefinitions' > /dev/null; then
+    echo "Jar sem processamento AOT; gere com: ./mvnw -Paot package -DskipTests" >&2
+    exit 1
+fi
+
+# Mesmo layout da imagem Docker: jar extraído (bibliotecas em lib/), exigido pelo CDS
+rm -rf "$DIR" && mkdir -p "$DIR"
+java -Djarmode=tools -jar "$JAR" extract --destination "$DIR/application" > /dev/null
+APP="$DIR/application/$(basename "$JAR")"
+
+echo "Treinando o arquivo CDS..."
+(cd "$DIR/application" && java -XX:ArchiveClassesAtExit=application.jsa -Dspring.aot.enabled=true \
+    -Dspring.profiles.active=prod -Dspring.context.exit=onRefresh -jar "$APP" > "$DIR/treino.log" 2>&1)
+
+declare -A OPCOES=(
+    [padrao]=""
+    [prod]="-Dspring.profiles.active=prod"
+    [prod+aot]="-Dspring.profiles.active=prod -Dspring.aot.enabled=true"
+    [prod+aot+cds]="-Dspring.profiles.active=prod -Dspring.aot.enabled=true -XX:SharedArchiveFile=$DIR/application/application.jsa"
+)
+MODOS=(padrao prod prod+aot prod+aot+cds)
+
+milissegundos() {
+    echo $(( $(date +%s%N) / 1000000 ))
+}
+
+# Imprime: pronto(ms) primeira(ms) segunda(ms)
+executar() {
+    local opcoes="$1" log="$2" inicio pid pronto primeira segunda
+    inicio=$(milissegundos)
+    # shellcheck disable=SC2086
+    java $opcoes -jar "$APP" --server.port="$PORTA" --management.server.port="$PORTA_GERENCIA" --api.base.url=http://127.0.0.1:9 > "$log" 2>&1 &
+    pid=$!
+    until curl -sf -o /dev/null "http://127.0.0.1:$PORTA_GERENCIA/actuator/health"; do
+        if ! kill -0 "$pid" 2> /dev/null; then
+            echo "A aplicação terminou antes de responder; ver $log" >&2
+            exit 1
+        fi
+        sleep 0.02
+    done
+    pronto=$(( $(milissegundos) - inicio ))
+    primeira=$(curl -s -o /dev/null -w '%{time_total}' "http://127.0.0.1:$PORTA/login")
+    segunda=$(curl -s -o /dev/null -w '%{time_total}' "http://127.0.0.1:$PORTA/login")
+    kill "$pid" && wait "$pid" 2> /dev/null || true
+    echo "$pronto $(awk -v s="$primeira" 'BEGIN { printf "%.1f", s * 1000 }') $(awk -v s="$segunda" 'BEGIN { printf "%.1f", s * 1000 }')"
+}
+
+printf '\n%-14s %12s %12s %12s   (média de %s execuções)\n' modo "pronto (ms)" "1a /login" "2a /login" "$REPETICOES"
+for modo in "${MODOS[@]}"; do
+    for ((i = 1; i <= REPETICOES; i++)); do
+        executar "${OPCOES[$modo]}" "$DIR/$modo-$i.log"
+    done | awk -v modo="$modo" '
+        { pronto += $1; primeira += $2; segunda += $3; n++ }
+        END { printf "%-14s %12.0f %12.1f %12.1f\n", modo, pronto / n, primeira / n, segunda / n }'
+done
@@ -0,0 +1,73 @@
+package com.wasc.frontend.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.wasc.frontend.model.Tarefa;
+import com.wasc.frontend.model.Usuario;
+import com.wasc.frontend.service.TarefaJsonReader;
+import com.wasc.frontend.support.StubBackend;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * (De)serialização JSON de Tarefa/Usuario: binding do array inteiro (Tarefa[]) contra
+ * a leitura incremental do TarefaJsonReader. Rode com -Djmh.args="JsonBenchmark -prof gc"
+ * para ver a alocação por operação.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonBenchmark {
+
+    @Param({"1000", "50000"})
+    public int tarefas;
+
+    private ObjectMapper objectMapper;
+    private TarefaJsonReader reader;
+    private List<Tarefa> lista;
+    private byte[] json;
+
+    @Setup
+    public void setup() {
+        objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        reader = new TarefaJsonReader(objectMapper);
+        List<Usuario> usuarios = StubBackend.gerarUsuarios(10);
+        lista = StubBackend.gerarTarefas(tarefas, usuarios);
+        json = StubBackend.toJson(lista);
+    }
+
+    @Benchmark
+    public Tarefa[] desserializarArray() throws IOException {
+        return objectMapper.readValue(json, Tarefa[].class);
+    }
+
+    @Benchmark
+    public List<Tarefa> desserializarStreaming() throws IOException {
+        return reader.lerTarefas(new ByteArrayInputStream(json));
+    }
+
+    @Benchmark
+    public byte[] serializar() throws IOException {
+        return objectMapper.writeValueAsBytes(lista);
+    }
+}
@@ -0,0 +1,79 @@
+package com.wasc.frontend.benchmark;
+
+import com.wasc.frontend.model.FiltroTarefas;
+import com.wasc.frontend.model.ListaTarefas;
+import com.wasc.frontend.model.PaginaTarefas;
+import com.wasc.frontend.model.Tarefa;
+import com.wasc.frontend.support.StubBackend;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Operações sobre a lista em cache: busca da tarefa a editar (varredura linear x índice por id)
+ * e montagem de uma página ordenada/filtrada.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ListaTarefasBenchmark {
+
+    @Param({"100", "1000", "10000"}) // Os mesmos tamanhos do TasksPageBenchmark
+    public int tarefas;
+
+    private ListaTarefas lista;
+    private Long idProcurado;
+    private FiltroTarefas ordenadaPorTitulo;
+    private FiltroTarefas filtradaPendentes;
+
+    @Setup
+    public void setup() {
+        lista = new ListaTarefas(StubBackend.gerarTarefas(tarefas, StubBackend.gerarUsuarios(10)));
+        idProcurado = (long) tarefas; // Ids de 1 a N na ordem da lista: a última tarefa, pior caso da varredura
+
+        ordenadaPorTitulo = new FiltroTarefas();
+        ordenadaPorTitulo.setSort("titulo");
+        ordenadaPorTitulo.setPage(1);
+
+        filtradaPendentes = new FiltroTarefas();
+        filtradaPendentes.setStatus("pendente");
+        filtradaPendentes.setSort("data");
+        filtradaPendentes.setDir("desc");
+    }
+
+    @Benchmark
+    public Optional<Tarefa> buscaLinear() {
+        List<Tarefa> itens = lista.getItens();
+        return itens.stream().filter(t -> t.getId().equals(idProcurado)).findFirst();
+    }
+
+    @Benchmark
+    public Tarefa buscaPorIndice() {
+        return lista.porId(idProcurado);
+    }
+
+    @Benchmark
+    public PaginaTarefas paginaOrdenada() {
+        return lista.paginar(ordenadaPorTitulo);
+    }
+
+    @Benchmark
+    public PaginaTarefas paginaFiltrada() {
+        return lista.paginar(filtradaPendentes);
+    }
+}
@@ -0,0 +1,56 @@
+package com.wasc.frontend.benchmark;
+
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.profile.InternalProfiler;
+import org.openjdk.jmh.results.AggregationPolicy;
+import org.openjdk.jmh.results.IterationResult;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.ScalarResult;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Pico de threads vivas e de heap em cada iteração, publicado nos resultados do JMH (e no jmh-result.json)
+ * com agregação pelo máximo. Com o parâmetro "usuarios" do benchmark, também o heap por requisição em voo.
+ * Uso: -Djmh.args="ThreadingBenchmark -prof com.wasc.frontend.benchmark.PicosProfiler"
+ */
+public class PicosProfiler implements InternalProfiler {
+
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+    @Override
+    public String getDescription() {
+        return "Pico de threads vivas e de heap por iteração";
+    }
+
+    @Override
+    public void beforeIteration(BenchmarkParams benchmarkParams, IterationParams iterationParams) {
+        threads.resetPeakThreadCount();
+        ManagementFactory.getMemoryPoolMXBeans().forEach(MemoryPoolMXBean::resetPeakUsage);
+    }
+
+    @Override
+    public Collection<? extends Result> afterIteration(BenchmarkParams benchmarkParams, IterationParams iterationParams,
+                                                       IterationResult result) {
+        long heapPico = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .mapToLong(pool -> pool.getPeakUsage().getUsed())
+                .sum();
+        List<Result> picos = new ArrayList<>();
+        picos.add(new ScalarResult("threads.pico", threads.getPeakThreadCount(), "threads", AggregationPolicy.MAX));
+        picos.add(new ScalarResult("heap.pico", heapPico >> 20, "MB", AggregationPolicy.MAX));
+        String usuarios = benchmarkParams.getParam("usuarios");
+        if (usuarios != null) {
+            picos.add(new ScalarResult("heap.por-requisicao", (double) (heapPico >> 10) / Integer.parseInt(usuarios),
+                    "KB", AggregationPolicy.MAX));
+        }
+        return picos;
+    }
+}
@@ -0,0 +1,125 @@
+package com.wasc.frontend.benchmark;
+
+import com.wasc.frontend.com.tarefasonline.Application;
+import com.wasc.frontend.model.FiltroTarefas;
+import com.wasc.frontend.model.PaginaTarefas;
+import com.wasc.frontend.model.Tarefa;
+import com.wasc.frontend.support.StubBackend;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.servlet.DispatcherServlet;
+import org.springframework.web.servlet.View;
+import org.thymeleaf.spring6.view.ThymeleafViewResolver;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Página de tarefas com a aplicação completa rodando contra o StubBackend:
+ * GET /tasks de ponta a ponta (com e sem o cache de listas) e a renderização
+ * isolada de tasks.html para quantidades diferentes de linhas.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TasksPageBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int tarefas;
+
+    @Param({"60s", "0s"})
+    public String cacheTtl;
+
+    private StubBackend backend;
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private URI tasksUri;
+    private String cookieSessao;
+    private View tasksView;
+    private Map<String, Object> modelo;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        backend = new StubBackend(tarefas);
+        // Argumentos de linha de comando têm precedência sobre o application.properties
+        context = new SpringApplicationBuilder(Application.class).run(
+                "--server.port=0",
+                "--api.base.url=" + backend.getUrl(),
+                "--api.cache.ttl=" + cacheTtl,
+                "--spring.thymeleaf.cache=true",
+                "--logging.level.root=WARN");
+        int porta = ((WebServerApplicationContext) context).getWebServer().getPort();
+
+        // Login uma vez; o cookie de sessão é reaproveitado em todas as chamadas
+        httpClient = HttpClient.newHttpClient();
+        HttpResponse<Void> login = httpClient.send(HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + porta + "/login"))
+                        .header("Content-Type", "application/x-www-form-urlencoded")
+                        .POST(HttpRequest.BodyPublishers.ofString("username=usuario1&password=x"))
+                        .build(),
+                HttpResponse.BodyHandlers.discarding());
+        cookieSessao = login.headers().firstValue("Set-Cookie").orElseThrow().split(";")[0];
+        tasksUri = URI.create("http://127.0.0.1:" + porta + "/tasks?size=" + FiltroTarefas.TAMANHO_MAXIMO);
+
+        tasksView = context.getBean(ThymeleafViewResolver.class).resolveViewName("tasks", Locale.ROOT);
+        List<Tarefa> lista = backend.getTarefas();
+        modelo = new HashMap<>();
+        modelo.put("pagina", new PaginaTarefas(lista, 0, lista.size(), lista.size()));
+        modelo.put("filtro", new FiltroTarefas());
+        modelo.put("usuarios", StubBackend.gerarUsuarios(10));
+        modelo.put("tarefa", new Tarefa());
+        modelo.put("loggedInUser", "usuario1");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        backend.close();
+    }
+
+    @Benchmark
+    public String listTasks() throws Exception {
+        HttpResponse<String> response = httpClient.send(HttpRequest.newBuilder(tasksUri).header("Cookie", cookieSessao).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("GET /tasks retornou " + response.statusCode());
+        }
+        return response.body();
+    }
+
+    // Só a renderização de tasks.html com todas as linhas; independe do TTL do cache
+    @Benchmark
+    public int renderTasks() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(((WebApplicationContext) context).getServletContext());
+        request.setAttribute(DispatcherServlet.WEB_APPLICATION_CONTEXT_ATTRIBUTE, context);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        tasksView.render(new HashMap<>(modelo), request, response);
+        return response.getContentAsByteArray().length;
+    }
+}
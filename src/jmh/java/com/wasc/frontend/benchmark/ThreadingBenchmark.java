@@ -0,0 +1,121 @@
+package com.wasc.frontend.benchmark;
+
+import com.wasc.frontend.com.tarefasonline.Application;
+import com.wasc.frontend.support.StubBackend;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Capacidade com muitos usuários simultâneos: cada operação dispara {@code usuarios} GET /tasks
+ * ao mesmo tempo contra um backend com 100 ms de latência (sem cache) e espera todos terminarem,
+ * em três pilhas: MVC com o pool de threads do Tomcat (máx. 200), MVC com virtual threads e
+ * WebFlux/Netty (perfil "reactive").
+ * O pico de threads vivas e o de heap por requisição em voo vêm do {@link PicosProfiler}, nos resultados do JMH.
+ * A pilha "virtual" exige Java 21: JAVA_HOME=... mvn -Pjmh verify -DskipTests
+ * -Djmh.args="ThreadingBenchmark -prof com.wasc.frontend.benchmark.PicosProfiler"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgs = {"-Xmx1g"})
+public class ThreadingBenchmark {
+
+    @Param({"plataforma", "virtual", "reativo"})
+    public String pilha;
+
+    @Param({"100", "1000"})
+    public int usuarios;
+
+    private StubBackend backend;
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private HttpRequest tasksRequest;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        if ("virtual".equals(pilha) && Runtime.version().feature() < 21) {
+            throw new IllegalStateException("pilha=virtual exige Java 21 (rodando em " + Runtime.version() + ")");
+        }
+        backend = new StubBackend(200);
+        backend.setAtraso(Duration.ofMillis(100));
+        context = new SpringApplicationBuilder(Application.class).run(
+                "--server.port=0",
+                "--api.base.url=" + backend.getUrl(),
+                "--spring.profiles.active=" + ("reativo".equals(pilha) ? "reactive" : "default"),
+                "--spring.threads.virtual.enabled=" + "virtual".equals(pilha),
+                "--api.cache.ttl=0s",
+                // O gargalo medido deve ser o modelo de threads, não os limites de conexões/bulkhead
+                "--api.http.max-connections=" + usuarios * 2,
+                "--api.http.max-connections-per-route=" + usuarios * 2,
+                "--api.resiliencia.max-concorrentes=" + usuarios * 2,
+                "--api.resiliencia.espera-bulkhead=60s",
+                "--api.async.pool-size=" + usuarios / 5, // Fila = 10x o pool: cabe a rajada inteira
+                "--api.fanout.timeout=60s",
+                "--spring.thymeleaf.cache=true",
+                "--logging.level.root=WARN");
+        int porta = ((WebServerApplicationContext) context).getWebServer().getPort();
+
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        HttpResponse<Void> login = httpClient.send(HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + porta + "/login"))
+                        .header("Content-Type", "application/x-www-form-urlencoded")
+                        .POST(HttpRequest.BodyPublishers.ofString("username=usuario1&password=x"))
+                        .build(),
+                HttpResponse.BodyHandlers.discarding());
+        String cookieSessao = login.headers().firstValue("Set-Cookie").orElseThrow().split(";")[0];
+        tasksRequest = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + porta + "/tasks"))
+                .header("Cookie", cookieSessao)
+                .timeout(Duration.ofSeconds(60))
+                .GET()
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        backend.close();
+    }
+
+    @Benchmark
+    public int rajadaDeUsuarios() {
+        List<CompletableFuture<HttpResponse<Void>>> respostas = new ArrayList<>(usuarios);
+        for (int i = 0; i < usuarios; i++) {
+            respostas.add(httpClient.sendAsync(tasksRequest, HttpResponse.BodyHandlers.discarding()));
+        }
+        int ok = 0;
+        for (CompletableFuture<HttpResponse<Void>> resposta : respostas) {
+            if (resposta.join().statusCode() == 200) {
+                ok++;
+            }
+        }
+        if (ok != usuarios) {
+            throw new IllegalStateException((usuarios - ok) + " de " + usuarios + " requisições falharam");
+        }
+        return ok;
+    }
+}
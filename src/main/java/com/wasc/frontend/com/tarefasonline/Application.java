@@ -2,19 +2,13 @@ package com.wasc.frontend.com.tarefasonline;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
-import org.springframework.context.annotation.Bean;
-import org.springframework.web.client.RestTemplate;
 
-@SpringBootApplication
+// Os controllers, serviços e configurações ficam em com.wasc.frontend.*, fora do pacote desta classe
+@SpringBootApplication(scanBasePackages = "com.wasc.frontend")
 public class Application {
 
 	public static void main(String[] args) {
 		SpringApplication.run(Application.class, args);
 	}
-		
-	@Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
-    }
 
 }
@@ -0,0 +1,91 @@
+package com.wasc.frontend.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.boot.logging.LoggerConfiguration;
+import org.springframework.boot.logging.LoggingSystem;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.cache.ICache;
+import org.thymeleaf.cache.ICacheManager;
+import org.thymeleaf.cache.TemplateCacheKey;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.engine.TemplateModel;
+import org.thymeleaf.exceptions.TemplateProcessingException;
+
+import java.io.Writer;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Pré-aquecimento dos templates (tarefas.templates.pre-aquecer, ligado no perfil prod): lê e faz o parse
+ * de cada template durante a inicialização, antes de o servidor aceitar conexões, para que a primeira
+ * requisição de cada página já encontre o template no cache do Thymeleaf (spring.thymeleaf.cache=true)
+ * e as classes do parser carregadas.
+ * <p>
+ * Fora de uma requisição não há como montar os links (@{...}), então o processamento para no primeiro
+ * deles; o parse já foi para o cache antes disso (o log de erro do TemplateEngine fica desligado enquanto isso).
+ * Um template que não chegou ao cache tem erro de sintaxe ou não existe, e a aplicação não sobe.
+ */
+@Component
+public class AquecimentoTemplates implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(AquecimentoTemplates.class);
+    private static final String LOGGER_THYMELEAF = TemplateEngine.class.getName();
+
+    private final TemplateEngine templateEngine;
+    private final LoggingSystem loggingSystem;
+    private final List<String> templates;
+    private final boolean cache;
+
+    public AquecimentoTemplates(TemplateEngine templateEngine, LoggingSystem loggingSystem,
+                                @Value("${tarefas.templates.pre-aquecer:}") List<String> templates,
+                                @Value("${spring.thymeleaf.cache:true}") boolean cache) {
+        this.templateEngine = templateEngine;
+        this.loggingSystem = loggingSystem;
+        this.templates = templates;
+        this.cache = cache;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (templates.isEmpty()) {
+            return;
+        }
+        if (!cache) {
+            log.info("Pré-aquecimento de {} ignorado: spring.thymeleaf.cache=false", templates);
+            return;
+        }
+        long inicio = System.nanoTime();
+        LoggerConfiguration anterior = loggingSystem.getLoggerConfiguration(LOGGER_THYMELEAF);
+        loggingSystem.setLogLevel(LOGGER_THYMELEAF, LogLevel.OFF);
+        try {
+            for (String template : templates) {
+                aquecer(template);
+            }
+        } finally {
+            loggingSystem.setLogLevel(LOGGER_THYMELEAF, anterior != null ? anterior.getConfiguredLevel() : null);
+        }
+        log.info("Templates pré-aquecidos {} em {} ms", templates, (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    private void aquecer(String template) {
+        try {
+            templateEngine.process(template, new Context(Locale.getDefault()), Writer.nullWriter());
+        } catch (TemplateProcessingException e) {
+            if (!emCache(template)) {
+                throw e;
+            }
+        }
+    }
+
+    public boolean emCache(String template) {
+        ICacheManager cacheManager = templateEngine.getCacheManager();
+        ICache<TemplateCacheKey, TemplateModel> parseados = cacheManager != null ? cacheManager.getTemplateCache() : null;
+        return parseados != null && parseados.keySet().stream()
+                .anyMatch(chave -> chave.getOwnerTemplate() == null && chave.getTemplate().equals(template));
+    }
+}
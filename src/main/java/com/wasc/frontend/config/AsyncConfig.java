@@ -0,0 +1,109 @@
+package com.wasc.frontend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.SimpleAsyncTaskScheduler;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+@Configuration
+public class AsyncConfig {
+
+    @Value("${api.async.pool-size:16}")
+    private int poolSize;
+
+    @Value("${tarefas.ao-vivo.threads:4}")
+    private int aoVivoThreads;
+
+    @Value("${tarefas.ao-vivo.envio-threads:16}")
+    private int aoVivoEnvioThreads;
+
+    @Value("${tarefas.escrita.concorrencia:4}")
+    private int escritaConcorrencia;
+
+    // Executor usado pelo ApiService para disparar chamadas ao backend em paralelo
+    @Bean
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ThreadPoolTaskExecutor apiExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(poolSize * 10);
+        executor.setThreadNamePrefix("api-");
+        return executor;
+    }
+
+    // Com spring.threads.virtual.enabled=true (Java 21+): uma virtual thread por chamada, sem pool.
+    // A concorrência com o backend continua limitada pelo bulkhead e pelo pool de conexões.
+    @Bean(name = "apiExecutor")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public SimpleAsyncTaskExecutor apiVirtualExecutor() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("api-");
+        executor.setVirtualThreads(true);
+        return executor;
+    }
+
+    // Pollers das atualizações ao vivo (um por usuário com /tasks aberta, MonitorTarefas)
+    @Bean
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ThreadPoolTaskScheduler aoVivoScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(aoVivoThreads);
+        scheduler.setThreadNamePrefix("ao-vivo-");
+        scheduler.setRemoveOnCancelPolicy(true);
+        return scheduler;
+    }
+
+    @Bean(name = "aoVivoScheduler")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public SimpleAsyncTaskScheduler aoVivoVirtualScheduler() {
+        SimpleAsyncTaskScheduler scheduler = new SimpleAsyncTaskScheduler();
+        scheduler.setThreadNamePrefix("ao-vivo-");
+        scheduler.setVirtualThreads(true);
+        return scheduler;
+    }
+
+    // Envios de eventos às abas (MonitorTarefas). Cada aba tem no máximo um envio na fila, então ela não tem limite;
+    // um envio bloqueado numa aba lenta ocupa uma thread daqui, sem atrasar os pollers
+    @Bean
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ThreadPoolTaskExecutor aoVivoEnvio() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(aoVivoEnvioThreads);
+        executor.setMaxPoolSize(aoVivoEnvioThreads);
+        executor.setThreadNamePrefix("ao-vivo-envio-");
+        return executor;
+    }
+
+    @Bean(name = "aoVivoEnvio")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public SimpleAsyncTaskExecutor aoVivoEnvioVirtual() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("ao-vivo-envio-");
+        executor.setVirtualThreads(true);
+        return executor;
+    }
+
+    // Envio das escritas adiadas ao backend (EscritaAdiada): tarefas diferentes em paralelo, com os retries agendados
+    @Bean
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ThreadPoolTaskScheduler escritaScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(escritaConcorrencia);
+        scheduler.setThreadNamePrefix("escrita-");
+        return scheduler;
+    }
+
+    @Bean(name = "escritaScheduler")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public SimpleAsyncTaskScheduler escritaVirtualScheduler() {
+        SimpleAsyncTaskScheduler scheduler = new SimpleAsyncTaskScheduler();
+        scheduler.setThreadNamePrefix("escrita-");
+        scheduler.setVirtualThreads(true);
+        scheduler.setConcurrencyLimit(escritaConcorrencia);
+        return scheduler;
+    }
+}
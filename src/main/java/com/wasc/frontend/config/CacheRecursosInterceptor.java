@@ -0,0 +1,36 @@
+package com.wasc.frontend.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.resource.ResourceHttpRequestHandler;
+
+import java.time.Duration;
+import java.util.regex.Pattern;
+
+// Cache-Control dos recursos estáticos: URL com o hash do conteúdo (style-<md5>.css) nunca muda, então
+// pode ficar um ano no navegador sem revalidar; a URL sem hash é revalidada (Last-Modified) a cada uso
+public class CacheRecursosInterceptor implements HandlerInterceptor {
+
+    private static final Pattern COM_HASH = Pattern.compile("-[0-9a-f]{32}\\.[^/.]+$");
+    private static final String IMUTAVEL = CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable().getHeaderValue();
+    private static final String REVALIDAR = CacheControl.noCache().getHeaderValue();
+
+    static boolean temHash(String caminho) {
+        return COM_HASH.matcher(caminho).find();
+    }
+
+    static String politica(String caminho) {
+        return temHash(caminho) ? IMUTAVEL : REVALIDAR;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof ResourceHttpRequestHandler) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, politica(request.getRequestURI()));
+        }
+        return true;
+    }
+}
@@ -0,0 +1,160 @@
+package com.wasc.frontend.config;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import jakarta.annotation.PostConstruct;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.DefaultHttpRequestRetryStrategy;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.http.HttpResponse;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Cliente HTTP usado pelo ApiService para falar com o backend de tarefas.
+ * O motor é escolhido por {@code api.http.engine}:
+ * "apache" (padrão) usa um pool HTTP/1.1 keep-alive do HttpClient 5;
+ * "jdk" usa o java.net.http.HttpClient com HTTP/2.
+ * O Apache executa a chamada na própria thread da requisição (virtual, se habilitadas);
+ * o do JDK recebe um executor de virtual threads para suas tarefas internas.
+ * <p>
+ * Os limites do pool (max-connections, max-connections-per-route, pool-acquire-timeout, idle-eviction) valem só
+ * para o Apache. O HttpClient do JDK não tem limite por rota nem espera por conexão livre; o pool dele é
+ * configurado por propriedades de sistema, lidas uma vez por processo, e por isso vão na linha de comando:
+ * -Djdk.httpclient.connectionPoolSize=100 -Djdk.httpclient.keepalive.timeout=30
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class HttpClientConfig {
+
+    private static final Set<String> MOTORES = Set.of("apache", "jdk");
+
+    @Value("${api.http.engine:apache}")
+    private String engine;
+
+    @Value("${api.http.max-connections:100}")
+    private int maxConnections;
+
+    @Value("${api.http.max-connections-per-route:50}")
+    private int maxConnectionsPerRoute;
+
+    @Value("${api.http.connect-timeout:5s}")
+    private Duration connectTimeout;
+
+    @Value("${api.http.read-timeout:30s}")
+    private Duration readTimeout;
+
+    @Value("${api.http.pool-acquire-timeout:2s}")
+    private Duration poolAcquireTimeout;
+
+    @Value("${api.http.idle-eviction:30s}")
+    private Duration idleEviction;
+
+    // Um motor desconhecido não criaria nenhuma ClientHttpRequestFactory e a falha seria a de um bean ausente
+    @PostConstruct
+    void validarMotor() {
+        if (!MOTORES.contains(engine)) {
+            throw new IllegalStateException("api.http.engine=" + engine + " não é um motor conhecido; use apache (padrão) ou jdk");
+        }
+    }
+
+    @Bean
+    public RestTemplate restTemplate(RestTemplateBuilder builder, ClientHttpRequestFactory apiRequestFactory) {
+        return builder.requestFactory(() -> apiRequestFactory).build();
+    }
+
+    // --- Motor Apache (pool HTTP/1.1 keep-alive) ---
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "api.http.engine", havingValue = "apache", matchIfMissing = true)
+    public PoolingHttpClientConnectionManager apiConnectionManager() {
+        ConnectionConfig connectionConfig = ConnectionConfig.custom()
+                .setConnectTimeout(Timeout.of(connectTimeout))
+                .setSocketTimeout(Timeout.of(readTimeout))
+                // Revalida conexões paradas antes de reutilizá-las (o backend pode fechar do lado dele)
+                .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                .build();
+
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnectionsPerRoute)
+                .setDefaultConnectionConfig(connectionConfig)
+                .build();
+    }
+
+    // Métricas do pool (httpcomponents.httpclient.pool.*): conexões livres, em uso e requisições aguardando
+    @Bean
+    @ConditionalOnProperty(name = "api.http.engine", havingValue = "apache", matchIfMissing = true)
+    public MeterBinder apiConnectionPoolMetrics(PoolingHttpClientConnectionManager apiConnectionManager) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(apiConnectionManager, "api");
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "api.http.engine", havingValue = "apache", matchIfMissing = true)
+    public ClientHttpRequestFactory apacheRequestFactory(PoolingHttpClientConnectionManager apiConnectionManager) {
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectionRequestTimeout(Timeout.of(poolAcquireTimeout)) // Espera máxima por uma conexão livre no pool
+                .setResponseTimeout(Timeout.of(readTimeout))
+                .build();
+
+        CloseableHttpClient httpClient = HttpClients.custom()
+                .setConnectionManager(apiConnectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.of(idleEviction))
+                .setRetryStrategy(new SemRepeticaoPorStatus())
+                .build();
+
+        return new HttpComponentsClientHttpRequestFactory(httpClient);
+    }
+
+    // Por padrão o HttpClient repete sozinho respostas 503/429, o que multiplicaria as tentativas do Retry
+    // da ResilienciaBackend (e escaparia do orçamento). Continua repetindo só falhas de I/O em métodos
+    // idempotentes, como uma conexão do pool que o servidor já tinha fechado.
+    private static class SemRepeticaoPorStatus extends DefaultHttpRequestRetryStrategy {
+        @Override
+        public boolean retryRequest(HttpResponse response, int execCount, HttpContext context) {
+            return false;
+        }
+    }
+
+    // --- Motor JDK (java.net.http, HTTP/2 com fallback para HTTP/1.1) ---
+
+    @Bean
+    @ConditionalOnProperty(name = "api.http.engine", havingValue = "jdk")
+    public ClientHttpRequestFactory jdkRequestFactory(Environment environment) {
+        HttpClient.Builder builder = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(connectTimeout);
+        if (Threading.VIRTUAL.isActive(environment)) {
+            builder.executor(new VirtualThreadTaskExecutor("api-http-"));
+        }
+        HttpClient httpClient = builder.build();
+
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(readTimeout);
+        return requestFactory;
+    }
+}
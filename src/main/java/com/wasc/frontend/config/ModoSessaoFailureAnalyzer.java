@@ -0,0 +1,33 @@
+package com.wasc.frontend.config;
+
+import org.springframework.boot.diagnostics.AbstractFailureAnalyzer;
+import org.springframework.boot.diagnostics.FailureAnalysis;
+
+/**
+ * Erro de inicialização legível quando tarefas.sessao.modo não vale para a pilha web em uso
+ * (registrado em META-INF/spring.factories).
+ */
+public class ModoSessaoFailureAnalyzer extends AbstractFailureAnalyzer<ModoSessaoFailureAnalyzer.ModoNaoSuportado> {
+
+    @Override
+    protected FailureAnalysis analyze(Throwable rootFailure, ModoNaoSuportado cause) {
+        return new FailureAnalysis(
+                "tarefas.sessao.modo=" + cause.modo + " não é suportado na pilha " + cause.pilha + ".",
+                "Use tarefas.sessao.modo=" + cause.alternativa + " ou rode sem o perfil reactive.",
+                cause);
+    }
+
+    static class ModoNaoSuportado extends RuntimeException {
+
+        private final String modo;
+        private final String pilha;
+        private final String alternativa;
+
+        ModoNaoSuportado(String modo, String pilha, String alternativa) {
+            super("tarefas.sessao.modo=" + modo + " não é suportado na pilha " + pilha + "; use " + alternativa);
+            this.modo = modo;
+            this.pilha = pilha;
+            this.alternativa = alternativa;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.wasc.frontend.config;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+/**
+ * Pilha reativa, ativada pelo perfil "reactive" (spring.main.web-application-type=reactive):
+ * servidor Netty e um WebClient com pool de conexões para o backend, usando as mesmas
+ * propriedades api.http.* do cliente bloqueante.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveConfig {
+
+    @Value("${api.base.url}")
+    private String apiBaseUrl;
+
+    @Value("${api.http.max-connections:100}")
+    private int maxConnections;
+
+    @Value("${api.http.connect-timeout:5s}")
+    private Duration connectTimeout;
+
+    @Value("${api.http.read-timeout:30s}")
+    private Duration readTimeout;
+
+    @Value("${api.http.pool-acquire-timeout:2s}")
+    private Duration poolAcquireTimeout;
+
+    @Value("${api.http.idle-eviction:30s}")
+    private Duration idleEviction;
+
+    // O Tomcat também está no classpath (pilha MVC); com esta fábrica o servidor reativo é o Netty
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    // Links com o hash do conteúdo e Cache-Control dos estáticos (no MVC: ResourceUrlEncodingFilter e CacheRecursosInterceptor)
+    @Bean
+    public RecursosVersionadosWebFilter recursosVersionadosWebFilter(ResourcePatternResolver resourcePatternResolver) {
+        return new RecursosVersionadosWebFilter(resourcePatternResolver);
+    }
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider apiConnectionProvider() {
+        return ConnectionProvider.builder("api")
+                .maxConnections(maxConnections)
+                .pendingAcquireTimeout(poolAcquireTimeout) // Espera máxima por uma conexão livre no pool
+                .maxIdleTime(idleEviction)
+                .evictInBackground(idleEviction)
+                .metrics(true) // reactor.netty.connection.provider.*
+                .build();
+    }
+
+    // Builder do Spring Boot: já vem com os codecs Jackson da aplicação e a observação http.client.requests
+    @Bean
+    public WebClient apiWebClient(WebClient.Builder builder, ConnectionProvider apiConnectionProvider) {
+        HttpClient httpClient = HttpClient.create(apiConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .responseTimeout(readTimeout);
+        return builder
+                .baseUrl(apiBaseUrl)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+    }
+}
@@ -0,0 +1,54 @@
+package com.wasc.frontend.config;
+
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.reactive.resource.ContentVersionStrategy;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Pilha reativa: o WebFlux não tem o ResourceUrlEncodingFilter que, no MVC, troca os links
+ * th:href="@{/style.css}" pela URL com o hash do conteúdo. Este filtro calcula essas URLs uma vez,
+ * com a mesma ContentVersionStrategy do resource chain (que as resolve ao servir), e aplica a
+ * política de Cache-Control do CacheRecursosInterceptor aos recursos estáticos.
+ */
+public class RecursosVersionadosWebFilter implements WebFilter {
+
+    private static final String RAIZ = "/static/";
+
+    private final Map<String, String> versionadas = new HashMap<>(); // "/style.css" -> "/style-<md5>.css"
+
+    public RecursosVersionadosWebFilter(ResourcePatternResolver resourceResolver) {
+        ContentVersionStrategy estrategia = new ContentVersionStrategy();
+        try {
+            for (Resource recurso : resourceResolver.getResources("classpath:" + RAIZ + "**/*.*")) {
+                String url = recurso.getURL().toString();
+                if (url.endsWith(".gz") || url.endsWith(".br")) {
+                    continue; // Variantes pré-comprimidas: escolhidas pelo Accept-Encoding, não linkadas
+                }
+                String caminho = url.substring(url.lastIndexOf(RAIZ) + RAIZ.length() - 1);
+                versionadas.put(caminho, estrategia.addVersion(caminho, estrategia.getResourceVersion(recurso).block()));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível ler os recursos estáticos", e);
+        }
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String caminho = exchange.getRequest().getPath().value();
+        if (versionadas.containsKey(caminho) || CacheRecursosInterceptor.temHash(caminho)) {
+            exchange.getResponse().getHeaders().set(HttpHeaders.CACHE_CONTROL, CacheRecursosInterceptor.politica(caminho));
+        }
+        exchange.addUrlTransformer(url -> versionadas.getOrDefault(url, url));
+        return chain.filter(exchange);
+    }
+}
@@ -0,0 +1,48 @@
+package com.wasc.frontend.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+
+import java.util.concurrent.TimeUnit;
+
+// Mede o tempo de renderização de cada view Thymeleaf (do fim do controller ao fim da resposta)
+public class RenderMetricsInterceptor implements HandlerInterceptor {
+
+    private static final String ATRIBUTO_INICIO = RenderMetricsInterceptor.class.getName() + ".inicio";
+    private static final String ATRIBUTO_VIEW = RenderMetricsInterceptor.class.getName() + ".view";
+
+    private final MeterRegistry registry;
+
+    public RenderMetricsInterceptor(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler, ModelAndView modelAndView) {
+        if (modelAndView == null || modelAndView.getViewName() == null || modelAndView.getViewName().startsWith("redirect:")) {
+            return;
+        }
+        request.setAttribute(ATRIBUTO_VIEW, modelAndView.getViewName());
+        request.setAttribute(ATRIBUTO_INICIO, System.nanoTime());
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Object inicio = request.getAttribute(ATRIBUTO_INICIO);
+        if (!(inicio instanceof Long inicioNanos)) {
+            return;
+        }
+        Timer.builder("tarefas.view.render")
+                .description("Tempo de renderização das views Thymeleaf")
+                .tag("view", (String) request.getAttribute(ATRIBUTO_VIEW))
+                .tag("outcome", ex == null ? "SUCCESS" : "ERROR")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(System.nanoTime() - inicioNanos, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,101 @@
+package com.wasc.frontend.config;
+
+import com.wasc.frontend.service.ArmazemSessoes;
+import com.wasc.frontend.service.ArmazemSessoesLocal;
+import com.wasc.frontend.service.CodecSessao;
+import com.wasc.frontend.service.ReactiveSessaoRepository;
+import com.wasc.frontend.service.SessaoCompartilhadaRepository;
+import com.wasc.frontend.service.SessaoCookieRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.session.DefaultCookieSerializerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.session.config.annotation.web.http.EnableSpringHttpSession;
+import org.springframework.session.config.annotation.web.server.EnableSpringWebSession;
+
+import java.time.Duration;
+
+/**
+ * Onde ficam jwtToken e loggedInUser (tarefas.sessao.modo):
+ * <ul>
+ *   <li>memoria (padrão): HttpSession do Tomcat / WebSession em memória; exige afinidade no balanceador
+ *   e perde os logins a cada reinício;</li>
+ *   <li>cookie: sessão inteira num cookie cifrado e assinado, nada no servidor (só pilha servlet);</li>
+ *   <li>compartilhada: sessão num ArmazemSessoes comum às réplicas.</li>
+ * </ul>
+ * Nos dois últimos o Spring Session troca a sessão do contêiner, sem mudanças nos controllers.
+ */
+@Configuration
+public class SessaoConfig {
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    @ConditionalOnProperty(name = "tarefas.sessao.modo", havingValue = "cookie")
+    @EnableSpringHttpSession
+    static class SessaoCookie {
+
+        @Bean
+        public SessaoCookieRepository sessionRepository(CodecSessao codec,
+                                                        @Value("${tarefas.sessao.segredo:}") String segredo,
+                                                        @Value("${tarefas.sessao.inatividade:30m}") Duration inatividade) {
+            return new SessaoCookieRepository(codec, segredo, inatividade);
+        }
+
+        // O valor selado já é Base64 URL-safe; dispensa a segunda codificação do DefaultCookieSerializer
+        @Bean
+        public DefaultCookieSerializerCustomizer cookieSemBase64() {
+            return serializer -> serializer.setUseBase64Encoding(false);
+        }
+    }
+
+    // Na pilha reativa o id da sessão vai para o cookie antes de gravar, o que impede o id selado.
+    // A inicialização para aqui; o ModoSessaoFailureAnalyzer explica o motivo e a alternativa.
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    @ConditionalOnProperty(name = "tarefas.sessao.modo", havingValue = "cookie")
+    static class SessaoCookieReativa {
+
+        SessaoCookieReativa() {
+            throw new ModoSessaoFailureAnalyzer.ModoNaoSuportado("cookie", "reativa", "compartilhada");
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnProperty(name = "tarefas.sessao.modo", havingValue = "compartilhada")
+    static class SessaoCompartilhada {
+
+        @Bean
+        @ConditionalOnMissingBean
+        public ArmazemSessoes armazemSessoes() {
+            return new ArmazemSessoesLocal();
+        }
+
+        @Bean
+        public SessaoCompartilhadaRepository sessionRepository(ArmazemSessoes armazemSessoes, CodecSessao codec,
+                                                               @Value("${tarefas.sessao.inatividade:30m}") Duration inatividade) {
+            return new SessaoCompartilhadaRepository(armazemSessoes, codec, inatividade);
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    @ConditionalOnProperty(name = "tarefas.sessao.modo", havingValue = "compartilhada")
+    @EnableSpringHttpSession
+    static class SessaoCompartilhadaServlet {
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    @ConditionalOnProperty(name = "tarefas.sessao.modo", havingValue = "compartilhada")
+    @EnableSpringWebSession
+    static class SessaoCompartilhadaReativa {
+
+        @Bean
+        public ReactiveSessaoRepository reactiveSessionRepository(SessaoCompartilhadaRepository sessionRepository) {
+            return new ReactiveSessaoRepository(sessionRepository);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.wasc.frontend.config;
+
+import com.wasc.frontend.model.DadosToken;
+import com.wasc.frontend.service.JwtInspector;
+import com.wasc.frontend.service.RenovacaoToken;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.io.IOException;
+
+// Token da sessão já vencido: volta ao login sem chamar o backend (o 401 seria certo); perto do vencimento, renova
+public class TokenInterceptor implements HandlerInterceptor {
+
+    private final JwtInspector jwtInspector;
+    private final RenovacaoToken renovacaoToken;
+    private final MeterRegistry registry;
+
+    public TokenInterceptor(JwtInspector jwtInspector, RenovacaoToken renovacaoToken, MeterRegistry registry) {
+        this.jwtInspector = jwtInspector;
+        this.renovacaoToken = renovacaoToken;
+        this.registry = registry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
+        HttpSession session = request.getSession(false);
+        String jwtToken = session != null ? (String) session.getAttribute("jwtToken") : null;
+        if (jwtToken == null) {
+            return true; // O controller já redireciona para o login
+        }
+
+        DadosToken dados = (DadosToken) session.getAttribute("jwtDados");
+        if (dados == null) {
+            dados = jwtInspector.ler(jwtToken);
+        }
+        if (jwtInspector.isExpirado(dados)) {
+            session.invalidate();
+            registry.counter("tarefas.backend.evitadas", "motivo", "token-expirado").increment();
+            response.sendRedirect(request.getContextPath() + "/login?expirado");
+            return false;
+        }
+
+        renovacaoToken.renovarSeNecessario(session, jwtToken, dados);
+        return true;
+    }
+}
@@ -0,0 +1,49 @@
+package com.wasc.frontend.config;
+
+import com.wasc.frontend.model.DadosToken;
+import com.wasc.frontend.service.JwtInspector;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+
+// Equivalente reativo do TokenInterceptor: token vencido volta ao login sem chamar o backend
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class TokenWebFilter implements WebFilter {
+
+    @Autowired
+    private JwtInspector jwtInspector;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        if (!exchange.getRequest().getPath().value().startsWith("/tasks")) {
+            return chain.filter(exchange);
+        }
+        return exchange.getSession().flatMap(session -> {
+            String jwtToken = session.getAttribute("jwtToken");
+            if (jwtToken == null) {
+                return chain.filter(exchange);
+            }
+            DadosToken dados = session.getAttribute("jwtDados");
+            if (!jwtInspector.isExpirado(dados != null ? dados : jwtInspector.ler(jwtToken))) {
+                return chain.filter(exchange);
+            }
+            meterRegistry.counter("tarefas.backend.evitadas", "motivo", "token-expirado").increment();
+            return session.invalidate().then(Mono.fromRunnable(() -> {
+                exchange.getResponse().setStatusCode(HttpStatus.SEE_OTHER);
+                exchange.getResponse().getHeaders().setLocation(URI.create("/login?expirado"));
+            }));
+        });
+    }
+}
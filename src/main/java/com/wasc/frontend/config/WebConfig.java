@@ -1,15 +1,42 @@
 package com.wasc.frontend.config;
 
+import com.wasc.frontend.service.JwtInspector;
+import com.wasc.frontend.service.RenovacaoToken;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.ViewControllerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class WebConfig implements WebMvcConfigurer {
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private JwtInspector jwtInspector;
+
+    @Autowired
+    private RenovacaoToken renovacaoToken;
+
     @Override
     public void addViewControllers(ViewControllerRegistry registry) {
         // Mapeia a URL raiz "/" para a página de login
     	registry.addViewController("/").setViewName("redirect:/login");
     }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // Tempo de renderização por view (tarefas.view.render)
+        registry.addInterceptor(new RenderMetricsInterceptor(meterRegistry));
+        // Cache-Control dos arquivos estáticos (só atua no handler de recursos)
+        registry.addInterceptor(new CacheRecursosInterceptor());
+        // Checagem local do vencimento do JWT antes de qualquer chamada ao backend
+        registry.addInterceptor(new TokenInterceptor(jwtInspector, renovacaoToken, meterRegistry))
+                .addPathPatterns("/tasks", "/tasks/**");
+    }
 }
@@ -0,0 +1,26 @@
+package com.wasc.frontend.controller;
+
+import com.wasc.frontend.model.RespostaParcial;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+// Encerra uma ação de /tasks/fragmentos com uma resposta JSON no lugar do fragmento HTML
+class AcaoParcialException extends RuntimeException {
+
+    private final HttpStatus status;
+    private final String destino;
+
+    AcaoParcialException(HttpStatus status, String mensagem) {
+        this(status, mensagem, null);
+    }
+
+    AcaoParcialException(HttpStatus status, String mensagem, String destino) {
+        super(mensagem);
+        this.status = status;
+        this.destino = destino;
+    }
+
+    ResponseEntity<RespostaParcial> toResponseEntity() {
+        return ResponseEntity.status(status).body(new RespostaParcial(getMessage(), destino));
+    }
+}
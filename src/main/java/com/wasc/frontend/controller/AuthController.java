@@ -3,27 +3,41 @@ package com.wasc.frontend.controller;
 import com.wasc.frontend.model.LoginResponse;
 import com.wasc.frontend.model.Usuario;
 import com.wasc.frontend.service.ApiService;
+import com.wasc.frontend.service.JwtInspector;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.http.HttpSession;
 
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.client.HttpClientErrorException;
 
 @Controller
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class AuthController {
 
     @Autowired
     private ApiService apiService;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private JwtInspector jwtInspector;
+
     // Exibe a página de login
     @GetMapping("/login")
-    public String showLoginForm() {
+    public String showLoginForm(@RequestParam(required = false) String expirado, Model model) {
+        if (expirado != null) { // Redirecionado pelo TokenInterceptor
+            model.addAttribute("error", "Sessão expirada. Faça login novamente.");
+        }
         return "login"; // Nome do arquivo HTML (login.html)
     }
 
@@ -32,8 +46,10 @@ public class AuthController {
     public String login(String username, String password, HttpSession session, Model model) {
         Optional<LoginResponse> loginResponse = apiService.login(username, password);
 
+        meterRegistry.counter("tarefas.login", "resultado", loginResponse.isPresent() ? "sucesso" : "falha").increment();
         if (loginResponse.isPresent()) {
             session.setAttribute("jwtToken", loginResponse.get().getJwt()); // Armazena o token na sessão HTTP do servidor
+            session.setAttribute("jwtDados", jwtInspector.ler(loginResponse.get().getJwt())); // Claims lidas uma única vez (exp, sub, roles)
             session.setAttribute("loggedInUser", username); // Armazena o username para exibição ou uso futuro
             return "redirect:/tasks"; // Redireciona para a página de tarefas
         } else {
@@ -0,0 +1,90 @@
+package com.wasc.frontend.controller;
+
+import com.wasc.frontend.model.ListaTarefas;
+import com.wasc.frontend.model.Usuario;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * ETag da página /tasks, calculado a partir do que ela exibe: a versão da lista de tarefas
+ * (resumo do conteúdo, guardado na própria ListaTarefas), a lista de usuários, o usuário logado,
+ * a URL (filtros, página e ordenação), o template e os recursos estáticos (cujas URLs com hash
+ * estão no HTML). Com as listas vindas do cache o cálculo custa um hash curto, e um navegador
+ * que já tem a página recebe 304 sem renderização nem corpo.
+ * <p>
+ * É forte, a não ser com server.compression.enabled: o Tomcat não comprime respostas com ETag forte
+ * (o mesmo validador valeria para dois corpos diferentes), então ele passa a ser fraco (W/).
+ */
+@Component
+public class EtagTarefas {
+
+    private final byte[] versaoAplicacao;
+    private final boolean fraco;
+
+    public EtagTarefas(ResourcePatternResolver resourceResolver,
+                       @Value("${spring.thymeleaf.prefix:classpath:/templates/}") String prefixo,
+                       @Value("${spring.thymeleaf.suffix:.html}") String sufixo,
+                       @Value("${server.compression.enabled:false}") boolean compressao) {
+        // Uma nova versão do template ou do CSS muda o HTML com os mesmos dados; entra no ETag para não gerar 304 falso
+        MessageDigest digest = sha256();
+        try {
+            atualizar(digest, resourceResolver.getResource(prefixo + "tasks" + sufixo));
+            Resource[] estaticos = resourceResolver.getResources("classpath:/static/**/*.*");
+            Arrays.sort(estaticos, Comparator.comparing(Resource::getDescription));
+            for (Resource estatico : estaticos) {
+                atualizar(digest, estatico);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível ler o template tasks e os recursos estáticos", e);
+        }
+        this.versaoAplicacao = digest.digest();
+        this.fraco = compressao;
+    }
+
+    public String calcular(ListaTarefas tarefas, List<Usuario> usuarios, Object loggedInUser, String consulta) {
+        MessageDigest digest = sha256();
+        digest.update(versaoAplicacao);
+        atualizar(digest, tarefas.getVersao());
+        // A cópia desatualizada exibe o aviso com a data em que foi carregada
+        atualizar(digest, tarefas.isDesatualizada() ? tarefas.getCarregadaEm().toString() : "");
+        for (Usuario usuario : usuarios) {
+            atualizar(digest, usuario.toString());
+        }
+        atualizar(digest, String.valueOf(loggedInUser));
+        atualizar(digest, consulta != null ? consulta : "");
+        byte[] resumo = Arrays.copyOf(digest.digest(), 18);
+        return (fraco ? "W/\"" : "\"") + Base64.getUrlEncoder().withoutPadding().encodeToString(resumo) + "\"";
+    }
+
+    private static void atualizar(MessageDigest digest, Resource recurso) throws IOException {
+        try (InputStream conteudo = recurso.getInputStream()) {
+            digest.update(conteudo.readAllBytes());
+        }
+    }
+
+    private static void atualizar(MessageDigest digest, String valor) {
+        digest.update(valor.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) '\n');
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.wasc.frontend.controller;
+
+import com.wasc.frontend.model.LoginRequest;
+import com.wasc.frontend.model.Usuario;
+import com.wasc.frontend.service.JwtInspector;
+import com.wasc.frontend.service.ReactiveApiService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.server.WebSession;
+import reactor.core.publisher.Mono;
+
+// Login, registro e logout na pilha reativa; mesmas rotas e templates do AuthController
+@Controller
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveAuthController {
+
+    @Autowired
+    private ReactiveApiService apiService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private JwtInspector jwtInspector;
+
+    @GetMapping("/login")
+    public String showLoginForm(@RequestParam(required = false) String expirado, Model model) {
+        if (expirado != null) { // Redirecionado pelo TokenWebFilter
+            model.addAttribute("error", "Sessão expirada. Faça login novamente.");
+        }
+        return "login";
+    }
+
+    // No WebFlux os campos do formulário chegam pelo @ModelAttribute (não por parâmetros soltos)
+    @PostMapping("/login")
+    public Mono<String> login(@ModelAttribute LoginRequest credenciais, WebSession session, Model model) {
+        return apiService.login(credenciais)
+                .map(resposta -> {
+                    meterRegistry.counter("tarefas.login", "resultado", "sucesso").increment();
+                    session.getAttributes().put("jwtToken", resposta.getJwt());
+                    session.getAttributes().put("jwtDados", jwtInspector.ler(resposta.getJwt()));
+                    session.getAttributes().put("loggedInUser", credenciais.getUsername());
+                    return "redirect:/tasks";
+                })
+                .switchIfEmpty(Mono.fromSupplier(() -> {
+                    meterRegistry.counter("tarefas.login", "resultado", "falha").increment();
+                    model.addAttribute("error", "Nome de usuário ou senha inválidos.");
+                    return "login";
+                }));
+    }
+
+    @GetMapping("/register")
+    public String showRegisterForm(Model model) {
+        model.addAttribute("usuario", new Usuario());
+        return "register";
+    }
+
+    @PostMapping("/register")
+    public Mono<String> register(@ModelAttribute Usuario usuario, Model model) {
+        return apiService.registerUser(usuario)
+                .map(success -> {
+                    if (success) {
+                        model.addAttribute("message", "Usuário registrado com sucesso! Faça login.");
+                        return "login";
+                    }
+                    model.addAttribute("error", "Erro ao registrar usuário. O nome de usuário pode já existir.");
+                    return "register";
+                });
+    }
+
+    @GetMapping("/logout")
+    public Mono<String> logout(WebSession session) {
+        return session.invalidate().thenReturn("redirect:/login");
+    }
+}
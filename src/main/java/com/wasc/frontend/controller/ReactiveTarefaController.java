@@ -0,0 +1,241 @@
+package com.wasc.frontend.controller;
+
+import com.wasc.frontend.model.AcaoLote;
+import com.wasc.frontend.model.FiltroTarefas;
+import com.wasc.frontend.model.ListaTarefas;
+import com.wasc.frontend.model.Tarefa;
+import com.wasc.frontend.model.Usuario;
+import com.wasc.frontend.service.ReactiveApiService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebSession;
+import org.thymeleaf.spring6.context.webflux.ReactiveDataDriverContextVariable;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * Página de tarefas na pilha reativa; mesmas rotas, modelos e template do TarefaWebController.
+ * Com tarefas.render.streaming=true e sem parâmetros na URL, tasks.html é renderizado em modo
+ * data-driven: as linhas saem em blocos de tarefas.render.chunk-size conforme o Flux do backend emite.
+ */
+@Controller
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveTarefaController {
+
+    @Autowired
+    private ReactiveApiService apiService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${tarefas.render.streaming:false}")
+    private boolean renderStreaming;
+
+    @Value("${tarefas.render.chunk-size:100}")
+    private int renderChunkSize;
+
+    @GetMapping("/")
+    public String redirectToTasks() {
+        return "redirect:/tasks";
+    }
+
+    @GetMapping("/tasks")
+    public Mono<String> listTasks(@ModelAttribute("filtro") FiltroTarefas filtro, Model model, WebSession session,
+                                  ServerWebExchange exchange) {
+        String jwtToken = session.getAttribute("jwtToken");
+        if (jwtToken == null) {
+            return Mono.just("redirect:/login");
+        }
+        model.addAttribute("tarefa", new Tarefa());
+        model.addAttribute("loggedInUser", session.getAttribute("loggedInUser"));
+
+        Mono<String> paginada = apiService.getPainelTarefas(jwtToken).map(painel -> {
+            adicionarPagina(model, painel.getTarefas(), filtro);
+            model.addAttribute("usuarios", painel.getUsuarios());
+            return "tasks";
+        });
+        Mono<String> view = paginada;
+        if (renderStreaming && exchange.getRequest().getQueryParams().isEmpty() && !apiService.temTarefasEmCache(jwtToken)) {
+            // Se o backend falhar antes da primeira linha, serve a última lista boa sem uma segunda chamada a ele
+            view = listTasksStreaming(jwtToken, model)
+                    .onErrorResume(e -> !ReactiveApiService.isNaoAutorizado(e), e -> ultimaListaBoa(jwtToken, model, filtro, e));
+        }
+
+        return view
+                .onErrorResume(ReactiveApiService::isNaoAutorizado, e -> sessaoExpirada("listar", session, model))
+                .onErrorResume(e -> {
+                    model.addAttribute("error", "Erro ao carregar tarefas: " + e.getMessage());
+                    return Mono.just("tasks");
+                });
+    }
+
+    private Mono<String> ultimaListaBoa(String jwtToken, Model model, FiltroTarefas filtro, Throwable erro) {
+        ListaTarefas ultima = apiService.getTarefasDesatualizadas(jwtToken);
+        if (ultima == null) {
+            return Mono.error(erro);
+        }
+        return apiService.getUsuarios(jwtToken).map(usuarios -> {
+            adicionarPagina(model, ultima, filtro);
+            model.addAttribute("usuarios", usuarios);
+            return "tasks";
+        });
+    }
+
+    private Mono<String> listTasksStreaming(String jwtToken, Model model) {
+        return Mono.zip(apiService.streamTarefas(jwtToken), apiService.getUsuarios(jwtToken))
+                .map(t -> {
+                    model.addAttribute("tarefasStream", new ReactiveDataDriverContextVariable(t.getT1(), renderChunkSize));
+                    model.addAttribute("usuarios", t.getT2());
+                    return "tasks";
+                });
+    }
+
+    @PostMapping("/tasks")
+    public Mono<String> saveTask(@ModelAttribute Tarefa tarefa, ServerWebExchange exchange, WebSession session, Model model) {
+        String jwtToken = session.getAttribute("jwtToken");
+        if (jwtToken == null) {
+            return Mono.just("redirect:/login");
+        }
+
+        return exchange.getFormData()
+                .flatMap(form -> {
+                    // Garante que o objeto Usuario na Tarefa tenha apenas o ID
+                    Long usuarioId = numero(form.getFirst("usuarioId"), "usuarioId");
+                    if (usuarioId == null) {
+                        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "usuarioId é obrigatório");
+                    }
+                    Usuario usuarioAssociado = new Usuario();
+                    usuarioAssociado.setId(usuarioId);
+                    tarefa.setUsuario(usuarioAssociado);
+                    return apiService.saveTarefa(tarefa, jwtToken);
+                })
+                .thenReturn("redirect:/tasks")
+                .onErrorResume(ReactiveApiService::isNaoAutorizado, e -> sessaoExpirada("salvar", session, model));
+    }
+
+    // Ação sobre as tarefas marcadas; a lista é renderizada em seguida com o resultado de cada item
+    @PostMapping("/tasks/lote")
+    public Mono<String> bulkTasks(@ModelAttribute("filtro") FiltroTarefas filtro, Model model, WebSession session,
+                                  ServerWebExchange exchange) {
+        String jwtToken = session.getAttribute("jwtToken");
+        if (jwtToken == null) {
+            return Mono.just("redirect:/login");
+        }
+
+        return exchange.getFormData().flatMap(form -> {
+            AcaoLote acao = acao(form.getFirst("acao"));
+            List<Long> ids = form.getOrDefault("ids", List.of()).stream().map(id -> numero(id, "ids")).toList();
+            Long novoUsuarioId = numero(form.getFirst("novoUsuarioId"), "novoUsuarioId");
+
+            Mono<Void> lote;
+            if (ids.isEmpty()) {
+                model.addAttribute("error", "Selecione ao menos uma tarefa.");
+                lote = Mono.empty();
+            } else if (acao == AcaoLote.REATRIBUIR && novoUsuarioId == null) {
+                model.addAttribute("error", "Escolha o usuário para reatribuir as tarefas.");
+                lote = Mono.empty();
+            } else {
+                lote = apiService.executarLote(acao, ids, novoUsuarioId, jwtToken)
+                        .doOnNext(resultado -> {
+                            meterRegistry.counter("tarefas.lote.itens", "acao", acao.name(), "resultado", "sucesso").increment(resultado.getSucessos());
+                            meterRegistry.counter("tarefas.lote.itens", "acao", acao.name(), "resultado", "falha").increment(resultado.getFalhas().size());
+                            model.addAttribute("resultadoLote", resultado);
+                        })
+                        .then();
+            }
+            // A página segue pelo caminho paginado (a URL do POST não tem parâmetros, mas o filtro veio no formulário)
+            return lote.then(apiService.getPainelTarefas(jwtToken)).map(painel -> {
+                model.addAttribute("tarefa", new Tarefa());
+                model.addAttribute("loggedInUser", session.getAttribute("loggedInUser"));
+                adicionarPagina(model, painel.getTarefas(), filtro);
+                model.addAttribute("usuarios", painel.getUsuarios());
+                return "tasks";
+            });
+        }).onErrorResume(ReactiveApiService::isNaoAutorizado, e -> sessaoExpirada("lote", session, model));
+    }
+
+    @GetMapping("/tasks/edit/{id}")
+    public Mono<String> editTask(@PathVariable Long id, @ModelAttribute("filtro") FiltroTarefas filtro, Model model, WebSession session) {
+        String jwtToken = session.getAttribute("jwtToken");
+        if (jwtToken == null) {
+            return Mono.just("redirect:/login");
+        }
+
+        // Primeiro só a tarefa: um id inexistente não busca mais nada; usuários e lista normalmente vêm do cache
+        return apiService.getTarefa(id, jwtToken)
+                .flatMap(tarefa -> Mono.zip(apiService.getUsuarios(jwtToken), apiService.getListaTarefas(jwtToken))
+                        .map(t -> {
+                            model.addAttribute("tarefa", tarefa);
+                            model.addAttribute("usuarios", t.getT1());
+                            adicionarPagina(model, t.getT2(), filtro);
+                            model.addAttribute("loggedInUser", session.getAttribute("loggedInUser"));
+                            return "tasks";
+                        }))
+                .defaultIfEmpty("redirect:/tasks")
+                .onErrorResume(ReactiveApiService::isNaoAutorizado, e -> sessaoExpirada("editar", session, model))
+                .onErrorReturn("redirect:/tasks");
+    }
+
+    @GetMapping("/tasks/delete/{id}")
+    public Mono<String> deleteTask(@PathVariable Long id, WebSession session, Model model) {
+        String jwtToken = session.getAttribute("jwtToken");
+        if (jwtToken == null) {
+            return Mono.just("redirect:/login");
+        }
+
+        return apiService.deleteTarefa(id, jwtToken)
+                .thenReturn("redirect:/tasks")
+                .onErrorResume(ReactiveApiService::isNaoAutorizado, e -> sessaoExpirada("excluir", session, model));
+    }
+
+    // Campos lidos à mão do formulário: valor inválido vira 400, como no binding de @RequestParam do MVC
+    private static Long numero(String valor, String campo) {
+        if (valor == null || valor.isEmpty()) {
+            return null;
+        }
+        try {
+            return Long.valueOf(valor);
+        } catch (NumberFormatException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Valor inválido para " + campo + ": " + valor);
+        }
+    }
+
+    private static AcaoLote acao(String valor) {
+        if (valor == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "acao é obrigatória");
+        }
+        try {
+            return AcaoLote.valueOf(valor);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Ação inválida: " + valor);
+        }
+    }
+
+    private static void adicionarPagina(Model model, ListaTarefas lista, FiltroTarefas filtro) {
+        model.addAttribute("pagina", lista.paginar(filtro));
+        if (lista.isDesatualizada()) {
+            model.addAttribute("atualizadaEm", LocalDateTime.ofInstant(lista.getCarregadaEm(), ZoneId.systemDefault()));
+        }
+    }
+
+    // Token recusado pelo backend: conta, encerra a sessão e volta ao login
+    private Mono<String> sessaoExpirada(String operacao, WebSession session, Model model) {
+        meterRegistry.counter("tarefas.sessao.expirada", "operacao", operacao).increment();
+        model.addAttribute("error", "Sessão expirada ou não autorizada. Faça login novamente.");
+        return session.invalidate().thenReturn("login");
+    }
+}
@@ -0,0 +1,69 @@
+package com.wasc.frontend.controller;
+
+import com.wasc.frontend.service.AssinanteTarefas;
+import com.wasc.frontend.service.MonitorTarefas;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.WebSession;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
+
+import java.time.Duration;
+
+// Mesmas atualizações ao vivo do TarefaEventosController, na pilha reativa
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveTarefaEventosController {
+
+    // Eventos aguardando a rede por aba; cheio, o MonitorTarefas segura e mescla os seguintes
+    private static final int BUFFER = 4;
+
+    @Value("${tarefas.ao-vivo.duracao-maxima:30m}")
+    private Duration duracaoMaxima;
+
+    @Autowired
+    private MonitorTarefas monitorTarefas;
+
+    @GetMapping("/tasks/eventos")
+    public ResponseEntity<Flux<ServerSentEvent<Object>>> eventos(WebSession session) {
+        String jwtToken = session.getAttribute("jwtToken");
+        if (jwtToken == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        Sinks.Many<ServerSentEvent<Object>> sink = Sinks.many().unicast()
+                .onBackpressureBuffer(Queues.<ServerSentEvent<Object>>get(BUFFER).get());
+        MonitorTarefas.Conexao conexao = monitorTarefas.assinar(jwtToken, new AssinanteTarefas() {
+            @Override
+            public boolean enviar(String evento, Object dados) {
+                ServerSentEvent<Object> sse = evento == null ? ServerSentEvent.builder().comment("keep-alive").build()
+                        : ServerSentEvent.builder(dados).event(evento).build();
+                Sinks.EmitResult resultado = sink.tryEmitNext(sse);
+                if (resultado == Sinks.EmitResult.FAIL_OVERFLOW) {
+                    return false;
+                }
+                if (resultado.isFailure()) {
+                    throw new IllegalStateException("Conexão encerrada: " + resultado);
+                }
+                return true;
+            }
+
+            @Override
+            public void encerrar() {
+                sink.tryEmitComplete();
+            }
+        });
+        Flux<ServerSentEvent<Object>> eventos = sink.asFlux()
+                .take(duracaoMaxima)
+                .doFinally(sinal -> monitorTarefas.cancelar(conexao));
+        return ResponseEntity.ok().contentType(MediaType.TEXT_EVENT_STREAM).header("X-Accel-Buffering", "no").body(eventos);
+    }
+}
@@ -0,0 +1,172 @@
+package com.wasc.frontend.controller;
+
+import com.wasc.frontend.model.AcaoLote;
+import com.wasc.frontend.model.RespostaParcial;
+import com.wasc.frontend.model.Tarefa;
+import com.wasc.frontend.model.Usuario;
+import com.wasc.frontend.service.ReactiveApiService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebSession;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+// Mesmas ações sem recarregar a página do TarefaFragmentoController, na pilha reativa
+@Controller
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping("/tasks/fragmentos")
+public class ReactiveTarefaFragmentoController {
+
+    @Autowired
+    private ReactiveApiService apiService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @GetMapping({"/formulario", "/formulario/{id}"})
+    public Mono<String> formulario(@PathVariable(required = false) Long id, Model model, WebSession session) {
+        String jwtToken = jwtToken(session);
+        Mono<Tarefa> tarefa = id == null ? Mono.just(new Tarefa()) : apiService.getTarefa(id, jwtToken)
+                .switchIfEmpty(Mono.error(() -> new AcaoParcialException(HttpStatus.NOT_FOUND, "Tarefa não encontrada.")));
+        return Mono.zip(tarefa, apiService.getUsuarios(jwtToken))
+                .map(t -> {
+                    model.addAttribute("tarefa", t.getT1());
+                    model.addAttribute("usuarios", t.getT2());
+                    return "tasks :: formulario";
+                })
+                .onErrorResume(ReactiveApiService::isNaoAutorizado, e -> sessaoExpirada("editar", session));
+    }
+
+    @GetMapping("/linha/{id}")
+    public Mono<String> linha(@PathVariable Long id, Model model, WebSession session) {
+        String jwtToken = jwtToken(session);
+        return apiService.getTarefa(id, jwtToken)
+                .switchIfEmpty(Mono.error(() -> new AcaoParcialException(HttpStatus.NOT_FOUND, "Tarefa não encontrada.")))
+                .map(tarefa -> {
+                    model.addAttribute("linhas", List.of(tarefa));
+                    return "tasks :: linha";
+                })
+                .onErrorResume(ReactiveApiService::isNaoAutorizado, e -> sessaoExpirada("linha", session));
+    }
+
+    @PostMapping("/linha")
+    public Mono<String> salvar(@ModelAttribute Tarefa tarefa, ServerWebExchange exchange, Model model, WebSession session) {
+        String jwtToken = jwtToken(session);
+        return exchange.getFormData()
+                .flatMap(form -> {
+                    Long usuarioId = numero(form.getFirst("usuarioId"));
+                    if (usuarioId == null) {
+                        return Mono.error(new AcaoParcialException(HttpStatus.BAD_REQUEST, "Escolha o usuário da tarefa."));
+                    }
+                    Usuario usuarioAssociado = new Usuario();
+                    usuarioAssociado.setId(usuarioId);
+                    tarefa.setUsuario(usuarioAssociado);
+                    return apiService.salvarTarefa(tarefa, jwtToken);
+                })
+                .switchIfEmpty(Mono.error(() -> new AcaoParcialException(HttpStatus.BAD_GATEWAY, "Erro ao salvar tarefa.")))
+                .map(salva -> {
+                    if (salva.getId() == null) {
+                        // O backend não devolveu a tarefa criada: sem id não há linha para inserir. Aqui a resposta JSON
+                        // sai pelo @ExceptionHandler, pois o WebFlux não aceita nome de view e corpo no mesmo método
+                        throw new AcaoParcialException(HttpStatus.OK, "Tarefa salva com sucesso!", "/tasks");
+                    }
+                    model.addAttribute("linhas", List.of(salva));
+                    return "tasks :: linha";
+                })
+                .onErrorResume(ReactiveApiService::isNaoAutorizado, e -> sessaoExpirada("salvar", session));
+    }
+
+    // Só a tarefa e um PUT, como no TarefaFragmentoController
+    @PostMapping("/linha/{id}/acao")
+    public Mono<String> aplicarAcao(@PathVariable Long id, ServerWebExchange exchange, Model model, WebSession session) {
+        String jwtToken = jwtToken(session);
+        return exchange.getFormData()
+                .flatMap(form -> {
+                    AcaoLote acao = acao(form.getFirst("acao"));
+                    Long novoUsuarioId = numero(form.getFirst("novoUsuarioId"));
+                    if (acao == AcaoLote.EXCLUIR || (acao == AcaoLote.REATRIBUIR && novoUsuarioId == null)) {
+                        return Mono.error(new AcaoParcialException(HttpStatus.BAD_REQUEST, "Ação inválida para uma linha."));
+                    }
+                    return apiService.getTarefa(id, jwtToken)
+                            .switchIfEmpty(Mono.error(() -> new AcaoParcialException(HttpStatus.NOT_FOUND, "Tarefa não encontrada.")))
+                            .flatMap(atual -> apiService.salvarTarefa(acao.aplicar(atual, novoUsuarioId), jwtToken))
+                            .switchIfEmpty(Mono.error(() -> new AcaoParcialException(HttpStatus.BAD_GATEWAY, "Erro ao salvar tarefa " + id + ".")));
+                })
+                .map(tarefa -> {
+                    model.addAttribute("linhas", List.of(tarefa));
+                    return "tasks :: linha";
+                })
+                .onErrorResume(ReactiveApiService::isNaoAutorizado, e -> sessaoExpirada("lote", session));
+    }
+
+    @DeleteMapping("/linha/{id}")
+    @ResponseBody
+    public Mono<RespostaParcial> excluir(@PathVariable Long id, WebSession session) {
+        String jwtToken = jwtToken(session);
+        return apiService.deleteTarefa(id, jwtToken)
+                .map(excluida -> {
+                    if (!excluida) {
+                        throw new AcaoParcialException(HttpStatus.BAD_GATEWAY, "Erro ao excluir tarefa.");
+                    }
+                    return new RespostaParcial("Tarefa excluída com sucesso!", null);
+                })
+                .onErrorResume(ReactiveApiService::isNaoAutorizado, e -> sessaoExpirada("excluir", session));
+    }
+
+    @ExceptionHandler
+    public ResponseEntity<RespostaParcial> acaoParcial(AcaoParcialException e) {
+        return e.toResponseEntity();
+    }
+
+    // Campos lidos à mão do formulário: valor inválido vira 400 com a mensagem em JSON
+    private static Long numero(String valor) {
+        if (valor == null || valor.isEmpty()) {
+            return null;
+        }
+        try {
+            return Long.valueOf(valor);
+        } catch (NumberFormatException e) {
+            throw new AcaoParcialException(HttpStatus.BAD_REQUEST, "Valor inválido: " + valor);
+        }
+    }
+
+    private static AcaoLote acao(String valor) {
+        if (valor == null) {
+            throw new AcaoParcialException(HttpStatus.BAD_REQUEST, "Ação inválida para uma linha.");
+        }
+        try {
+            return AcaoLote.valueOf(valor);
+        } catch (IllegalArgumentException e) {
+            throw new AcaoParcialException(HttpStatus.BAD_REQUEST, "Ação inválida para uma linha.");
+        }
+    }
+
+    private static String jwtToken(WebSession session) {
+        String jwtToken = session.getAttribute("jwtToken");
+        if (jwtToken == null) {
+            throw new AcaoParcialException(HttpStatus.UNAUTHORIZED, "Faça login para continuar.", "/login");
+        }
+        return jwtToken;
+    }
+
+    private <T> Mono<T> sessaoExpirada(String operacao, WebSession session) {
+        meterRegistry.counter("tarefas.sessao.expirada", "operacao", operacao).increment();
+        return session.invalidate().then(Mono.error(new AcaoParcialException(HttpStatus.UNAUTHORIZED,
+                "Sessão expirada. Faça login novamente.", "/login")));
+    }
+}
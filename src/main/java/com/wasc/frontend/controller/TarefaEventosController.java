@@ -0,0 +1,67 @@
+package com.wasc.frontend.controller;
+
+import com.wasc.frontend.service.AssinanteTarefas;
+import com.wasc.frontend.service.MonitorTarefas;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Atualizações ao vivo da página de tarefas (Server-Sent Events, usado pelo tarefas.js). Eventos: "tarefas" com a
+ * diferença da lista (novas, alteradas, removidas), "ressincronizar" quando a aba ficou para trás e "sessao" quando
+ * o token deixou de valer. A leitura do backend é do MonitorTarefas, uma por usuário, não por aba.
+ * Passado tarefas.ao-vivo.duracao-maxima a conexão é fechada e o navegador reconecta, passando de novo pelo
+ * TokenInterceptor.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class TarefaEventosController {
+
+    @Value("${tarefas.ao-vivo.duracao-maxima:30m}")
+    private Duration duracaoMaxima;
+
+    @Autowired
+    private MonitorTarefas monitorTarefas;
+
+    @GetMapping("/tasks/eventos")
+    public ResponseEntity<SseEmitter> eventos(HttpSession session) {
+        String jwtToken = (String) session.getAttribute("jwtToken");
+        if (jwtToken == null) {
+            // O EventSource não segue para o login nem tenta de novo; a página trata a sessão nas ações
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        SseEmitter emitter = new SseEmitter(duracaoMaxima.toMillis());
+        MonitorTarefas.Conexao conexao = monitorTarefas.assinar(jwtToken, new AssinanteTarefas() {
+            @Override
+            public boolean enviar(String evento, Object dados) throws IOException {
+                // Escrita bloqueante: o MonitorTarefas só manda o próximo evento desta aba depois dela
+                emitter.send(evento == null ? SseEmitter.event().comment("keep-alive")
+                        : SseEmitter.event().name(evento).data(dados, MediaType.APPLICATION_JSON));
+                return true;
+            }
+
+            @Override
+            public void encerrar() {
+                emitter.complete();
+            }
+        });
+        emitter.onCompletion(() -> monitorTarefas.cancelar(conexao));
+        emitter.onTimeout(() -> monitorTarefas.cancelar(conexao));
+        emitter.onError(e -> monitorTarefas.cancelar(conexao));
+        return ResponseEntity.ok()
+                .contentType(MediaType.TEXT_EVENT_STREAM)
+                .header("X-Accel-Buffering", "no") // Proxies (nginx) não devem segurar os eventos
+                .body(emitter);
+    }
+}
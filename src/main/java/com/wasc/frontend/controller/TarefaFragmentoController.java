@@ -0,0 +1,190 @@
+package com.wasc.frontend.controller;
+
+import com.wasc.frontend.model.AcaoLote;
+import com.wasc.frontend.model.RespostaParcial;
+import com.wasc.frontend.model.ResultadoLote;
+import com.wasc.frontend.model.Tarefa;
+import com.wasc.frontend.model.Usuario;
+import com.wasc.frontend.service.ApiService;
+import com.wasc.frontend.service.EscritaAdiada;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * Ações da página de tarefas sem recarregá-la (usadas pelo tarefas.js; sem JavaScript, os links e formulários
+ * seguem para as rotas do TarefaWebController). Cada ação chama só o endpoint da tarefa afetada no backend e
+ * devolve apenas o trecho da página que mudou: a linha da tabela ou o formulário. A lista em cache é corrigida
+ * pelo ApiService, sem buscar /tarefas e /usuarios de novo. Com escritas adiadas, salvar e excluir respondem
+ * assim que a escrita está no diário.
+ * <p>
+ * Sucesso: o fragmento HTML (ou JSON, na exclusão). Falha: JSON com a mensagem e, se a página inteira precisar
+ * ser trocada (sessão expirada), o destino.
+ */
+@Controller
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/tasks/fragmentos")
+public class TarefaFragmentoController {
+
+    @Autowired
+    private ApiService apiService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Só com tarefas.escrita.modo=adiada: salvar e excluir não esperam o backend
+    @Autowired(required = false)
+    private EscritaAdiada escritaAdiada;
+
+    // Formulário em branco (Cancelar Edição) ou preenchido para edição, com a tarefa vinda do índice em cache
+    @GetMapping({"/formulario", "/formulario/{id}"})
+    public String formulario(@PathVariable(required = false) Long id, Model model, HttpSession session) {
+        String jwtToken = jwtToken(session);
+        try {
+            Tarefa tarefa = id == null ? new Tarefa() : apiService.getTarefa(id, jwtToken)
+                    .orElseThrow(() -> new AcaoParcialException(HttpStatus.NOT_FOUND, "Tarefa não encontrada."));
+            model.addAttribute("tarefa", tarefa);
+            model.addAttribute("usuarios", apiService.getUsuarios(jwtToken));
+            return "tasks :: formulario";
+        } catch (HttpClientErrorException.Unauthorized | HttpClientErrorException.Forbidden e) {
+            throw sessaoExpirada("editar", session);
+        }
+    }
+
+    // Linha atual de uma tarefa, vinda do índice em cache (atualizações ao vivo de /tasks/eventos)
+    @GetMapping("/linha/{id}")
+    public String linha(@PathVariable Long id, Model model, HttpSession session) {
+        String jwtToken = jwtToken(session);
+        try {
+            model.addAttribute("linhas", List.of(apiService.getTarefa(id, jwtToken)
+                    .orElseThrow(() -> new AcaoParcialException(HttpStatus.NOT_FOUND, "Tarefa não encontrada."))));
+            return "tasks :: linha";
+        } catch (HttpClientErrorException.Unauthorized | HttpClientErrorException.Forbidden e) {
+            throw sessaoExpirada("linha", session);
+        }
+    }
+
+    // Cria ou atualiza uma tarefa e devolve a sua linha; a página insere ou substitui a linha pelo data-id.
+    // Se o backend não devolver a tarefa criada, a resposta é JSON (sem id não há linha para inserir).
+    @PostMapping("/linha")
+    public Object salvar(@ModelAttribute Tarefa tarefa, @RequestParam Long usuarioId, Model model, HttpSession session) {
+        String jwtToken = jwtToken(session);
+        Usuario usuarioAssociado = new Usuario();
+        usuarioAssociado.setId(usuarioId);
+        tarefa.setUsuario(usuarioAssociado);
+
+        if (escritaAdiada != null) {
+            // Uma tarefa nova volta com o id provisório (negativo) até o backend devolver o definitivo
+            try {
+                model.addAttribute("linhas", List.of(escritaAdiada.salvar(tarefa, jwtToken)));
+            } catch (IOException | UncheckedIOException e) {
+                throw new AcaoParcialException(HttpStatus.INTERNAL_SERVER_ERROR, "Erro ao registrar a tarefa.");
+            }
+            return "tasks :: linha";
+        }
+
+        try {
+            Tarefa salva = apiService.salvarTarefa(tarefa, jwtToken)
+                    .orElseThrow(() -> new AcaoParcialException(HttpStatus.BAD_GATEWAY, "Erro ao salvar tarefa."));
+            if (salva.getId() == null) {
+                return ResponseEntity.ok(new RespostaParcial("Tarefa salva com sucesso!", "/tasks"));
+            }
+            model.addAttribute("linhas", List.of(salva));
+            return "tasks :: linha";
+        } catch (HttpClientErrorException.Unauthorized | HttpClientErrorException.Forbidden e) {
+            throw sessaoExpirada("salvar", session);
+        }
+    }
+
+    // Ação de uma linha (Concluir/Reabrir): só a tarefa (do índice em cache ou de /tarefas/{id}) e um PUT,
+    // sem carregar a lista inteira como o lote. Com escritas adiadas, entra na fila da tarefa como no lote.
+    @PostMapping("/linha/{id}/acao")
+    public String aplicarAcao(@PathVariable Long id, @RequestParam AcaoLote acao,
+                              @RequestParam(required = false) Long novoUsuarioId, Model model, HttpSession session) {
+        String jwtToken = jwtToken(session);
+        if (acao == AcaoLote.EXCLUIR || (acao == AcaoLote.REATRIBUIR && novoUsuarioId == null)) {
+            throw new AcaoParcialException(HttpStatus.BAD_REQUEST, "Ação inválida para uma linha.");
+        }
+
+        try {
+            Tarefa atualizada;
+            if (escritaAdiada != null) {
+                ResultadoLote.Item item = escritaAdiada.executarLote(acao, List.of(id), novoUsuarioId, jwtToken).getItens().get(0);
+                if (!item.isSucesso()) {
+                    throw new AcaoParcialException(HttpStatus.BAD_GATEWAY, "Tarefa " + id + ": " + item.getMensagem());
+                }
+                atualizada = apiService.getTarefa(id, jwtToken)
+                        .orElseThrow(() -> new AcaoParcialException(HttpStatus.NOT_FOUND, "Tarefa não encontrada."));
+            } else {
+                Tarefa atual = apiService.getTarefa(id, jwtToken)
+                        .orElseThrow(() -> new AcaoParcialException(HttpStatus.NOT_FOUND, "Tarefa não encontrada."));
+                atualizada = apiService.salvarTarefa(acao.aplicar(atual, novoUsuarioId), jwtToken)
+                        .orElseThrow(() -> new AcaoParcialException(HttpStatus.BAD_GATEWAY, "Erro ao salvar tarefa " + id + "."));
+            }
+            model.addAttribute("linhas", List.of(atualizada));
+            return "tasks :: linha";
+        } catch (HttpClientErrorException.Unauthorized | HttpClientErrorException.Forbidden e) {
+            throw sessaoExpirada("lote", session);
+        }
+    }
+
+    @DeleteMapping("/linha/{id}")
+    @ResponseBody
+    public RespostaParcial excluir(@PathVariable Long id, HttpSession session) {
+        String jwtToken = jwtToken(session);
+        if (escritaAdiada != null) {
+            try {
+                escritaAdiada.excluir(id, jwtToken);
+            } catch (IOException | UncheckedIOException e) {
+                throw new AcaoParcialException(HttpStatus.INTERNAL_SERVER_ERROR, "Erro ao registrar a exclusão.");
+            }
+            return new RespostaParcial("Tarefa excluída! O envio ao servidor segue em segundo plano.", null);
+        }
+        try {
+            if (!apiService.deleteTarefa(id, jwtToken)) {
+                throw new AcaoParcialException(HttpStatus.BAD_GATEWAY, "Erro ao excluir tarefa.");
+            }
+            return new RespostaParcial("Tarefa excluída com sucesso!", null);
+        } catch (HttpClientErrorException.Unauthorized | HttpClientErrorException.Forbidden e) {
+            throw sessaoExpirada("excluir", session);
+        }
+    }
+
+    @ExceptionHandler
+    public ResponseEntity<RespostaParcial> acaoParcial(AcaoParcialException e) {
+        return e.toResponseEntity();
+    }
+
+    private static String jwtToken(HttpSession session) {
+        String jwtToken = (String) session.getAttribute("jwtToken");
+        if (jwtToken == null) {
+            throw new AcaoParcialException(HttpStatus.UNAUTHORIZED, "Faça login para continuar.", "/login");
+        }
+        return jwtToken;
+    }
+
+    private AcaoParcialException sessaoExpirada(String operacao, HttpSession session) {
+        meterRegistry.counter("tarefas.sessao.expirada", "operacao", operacao).increment();
+        session.invalidate();
+        return new AcaoParcialException(HttpStatus.UNAUTHORIZED, "Sessão expirada. Faça login novamente.", "/login");
+    }
+}
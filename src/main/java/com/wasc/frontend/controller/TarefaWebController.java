@@ -1,10 +1,23 @@
 package com.wasc.frontend.controller;
 
+import com.wasc.frontend.model.AcaoLote;
+import com.wasc.frontend.model.FiltroTarefas;
+import com.wasc.frontend.model.ListaTarefas;
+import com.wasc.frontend.model.PainelTarefas;
+import com.wasc.frontend.model.ResultadoLote;
 import com.wasc.frontend.model.Tarefa;
 import com.wasc.frontend.model.Usuario;
 import com.wasc.frontend.service.ApiService;
+import com.wasc.frontend.service.EscritaAdiada;
+import com.wasc.frontend.service.TarefaStream;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpSession;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -13,53 +26,184 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.List;
 import java.util.Optional;
 
 @Controller
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class TarefaWebController {
 
     @Autowired
     private ApiService apiService;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private EtagTarefas etagTarefas;
+
+    // Só com tarefas.escrita.modo=adiada: salvar e excluir não esperam o backend
+    @Autowired(required = false)
+    private EscritaAdiada escritaAdiada;
+
+    // Renderização em streaming: as linhas da tabela são enviadas conforme chegam do backend
+    @Value("${tarefas.render.streaming:false}")
+    private boolean renderStreaming;
+
+    @Value("${tarefas.render.chunk-size:100}")
+    private int renderChunkSize;
+
     // Mapeamento da URL raiz para a página de tarefas (após login)
     @GetMapping("/")
     public String redirectToTasks() {
         return "redirect:/tasks";
     }
 
-    // Exibe a lista de tarefas
+    // Exibe a lista de tarefas (paginada, ordenada e filtrada pelos parâmetros da URL)
     @GetMapping("/tasks")
-    public String listTasks(Model model, HttpSession session) {
+    public String listTasks(@ModelAttribute("filtro") FiltroTarefas filtro, Model model, HttpSession session,
+                            HttpServletRequest request, HttpServletResponse response, WebRequest webRequest) {
         String jwtToken = (String) session.getAttribute("jwtToken");
 
         if (jwtToken == null) {
             return "redirect:/login"; // Se não há token, redireciona para login
         }
+        if (escritaAdiada != null) {
+            // Escritas adiadas que o backend recusou desde a última página
+            List<String> conflitos = escritaAdiada.conflitos(jwtToken);
+            if (!conflitos.isEmpty()) {
+                model.addAttribute("error", String.join(" ", conflitos));
+            }
+        }
 
         try {
-            List<Tarefa> tarefas = apiService.getTarefas(jwtToken);
-            List<Usuario> usuarios = apiService.getUsuarios(jwtToken);
+            // Sem parâmetros de paginação/filtro, a lista completa pode ser enviada em streaming; não com escritas
+            // adiadas pendentes, que só a lista em cache traz, nem quando a lista já está em cache
+            boolean semPendentes = escritaAdiada == null || !escritaAdiada.temPendentes(jwtToken);
+            if (renderStreaming && request.getQueryString() == null && semPendentes
+                    && !apiService.temTarefasEmCache(jwtToken)) {
+                String view = listTasksStreaming(jwtToken, model, session, response);
+                if (view != null) {
+                    return view;
+                }
+                // Backend indisponível: a última lista boa, sem uma segunda chamada que falharia do mesmo jeito
+                ListaTarefas ultima = apiService.getTarefasDesatualizadas(jwtToken);
+                if (ultima == null) {
+                    throw new ResourceAccessException("servidor de tarefas indisponível");
+                }
+                adicionarPagina(model, ultima, filtro);
+                model.addAttribute("tarefa", new Tarefa());
+                model.addAttribute("loggedInUser", session.getAttribute("loggedInUser"));
+                return "tasks";
+            }
+
+            PainelTarefas painel = apiService.getPainelTarefas(jwtToken); // Tarefas e usuários buscados em paralelo
+            if (paginaNaoModificada(painel, model, session, request, response, webRequest)) {
+                return null; // 304: o navegador reaproveita a página que já tem
+            }
 
-            model.addAttribute("tarefas", tarefas);
-            model.addAttribute("usuarios", usuarios); // Para o dropdown de usuários
+            adicionarPagina(model, painel.getTarefas(), filtro);
+            model.addAttribute("usuarios", painel.getUsuarios()); // Para o dropdown de usuários
             model.addAttribute("tarefa", new Tarefa()); // Para o formulário de nova tarefa
             model.addAttribute("loggedInUser", session.getAttribute("loggedInUser")); // Para exibir o user logado
             return "tasks"; // Nome do arquivo HTML (tasks.html)
         } catch (HttpClientErrorException.Unauthorized | HttpClientErrorException.Forbidden e) {
+            sessaoExpirada("listar");
             session.invalidate(); // Invalida a sessão se o token não é mais válido
             model.addAttribute("error", "Sessão expirada ou não autorizada. Faça login novamente.");
             return "login";
         } catch (Exception e) {
             model.addAttribute("error", "Erro ao carregar tarefas: " + e.getMessage());
+            model.addAttribute("tarefa", new Tarefa()); // O formulário precisa do objeto mesmo sem a lista
+            model.addAttribute("loggedInUser", session.getAttribute("loggedInUser"));
             return "tasks"; // Permanece na tela de tarefas com erro
         }
     }
 
+    // Só GETs sem mensagens no modelo: aí a página depende apenas das listas, do usuário e da URL.
+    // "no-cache" faz o navegador revalidar sempre com If-None-Match; "private" evita caches compartilhados.
+    private boolean paginaNaoModificada(PainelTarefas painel, Model model, HttpSession session, HttpServletRequest request,
+                                        HttpServletResponse response, WebRequest webRequest) {
+        boolean leitura = "GET".equals(request.getMethod()) || "HEAD".equals(request.getMethod());
+        if (!leitura || model.containsAttribute("error") || model.containsAttribute("message")
+                || model.containsAttribute("resultadoLote")) {
+            return false;
+        }
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        String etag = etagTarefas.calcular(painel.getTarefas(), painel.getUsuarios(),
+                session.getAttribute("loggedInUser"), request.getQueryString());
+        return webRequest.checkNotModified(etag);
+    }
+
+    // Retorna null se a leitura das tarefas falhar antes de começar (exceto 401/403, que são relançados)
+    private String listTasksStreaming(String jwtToken, Model model, HttpSession session, HttpServletResponse response) {
+        long inicio = System.nanoTime();
+        TarefaStream stream = apiService.streamTarefas(jwtToken, renderChunkSize);
+        try {
+            model.addAttribute("usuarios", apiService.getUsuarios(jwtToken)); // Em paralelo com a leitura das tarefas
+            stream.aguardarInicio();
+        } catch (HttpClientErrorException.Unauthorized | HttpClientErrorException.Forbidden e) {
+            stream.cancelar();
+            throw e;
+        } catch (RuntimeException e) {
+            stream.cancelar();
+            return null;
+        }
+        stream.setAoCompletarBloco(descarregarResposta(response, inicio));
+
+        model.addAttribute("tarefasStream", stream);
+        model.addAttribute("leituraTarefas", stream); // Após as linhas, a view confere se a leitura parou no meio
+        model.addAttribute("tarefa", new Tarefa());
+        model.addAttribute("loggedInUser", session.getAttribute("loggedInUser"));
+        return "tasks";
+    }
+
+    // Página da lista; se a lista veio da última cópia boa (backend fora), a view exibe o aviso com a data dela
+    private static void adicionarPagina(Model model, ListaTarefas lista, FiltroTarefas filtro) {
+        model.addAttribute("pagina", lista.paginar(filtro));
+        if (lista.isDesatualizada()) {
+            model.addAttribute("atualizadaEm", LocalDateTime.ofInstant(lista.getCarregadaEm(), ZoneId.systemDefault()));
+        }
+    }
+
+    // Conta as vezes em que o backend recusou o token e o usuário teve de logar de novo
+    private void sessaoExpirada(String operacao) {
+        meterRegistry.counter("tarefas.sessao.expirada", "operacao", operacao).increment();
+    }
+
+    // Descarrega o que já foi renderizado; na primeira vez informa o tempo até o primeiro byte (Server-Timing)
+    private static Runnable descarregarResposta(HttpServletResponse response, long inicio) {
+        return new Runnable() {
+            private boolean primeiro = true;
+
+            @Override
+            public void run() {
+                if (primeiro) {
+                    long ttfbMs = (System.nanoTime() - inicio) / 1_000_000;
+                    response.setHeader("Server-Timing", "ttfb;dur=" + ttfbMs);
+                    primeiro = false;
+                }
+                try {
+                    response.flushBuffer();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+    }
+
     // Adiciona ou atualiza uma tarefa
     @PostMapping("/tasks")
-    public String saveTask(@ModelAttribute Tarefa tarefa, @RequestParam Long usuarioId, HttpSession session, Model model) {
+    public String saveTask(@ModelAttribute Tarefa tarefa, @RequestParam Long usuarioId, HttpSession session, Model model,
+                           RedirectAttributes redirectAttributes) {
         String jwtToken = (String) session.getAttribute("jwtToken");
         if (jwtToken == null) {
             return "redirect:/login";
@@ -70,82 +214,143 @@ public class TarefaWebController {
         usuarioAssociado.setId(usuarioId);
         tarefa.setUsuario(usuarioAssociado);
 
+        if (escritaAdiada != null) {
+            // Já no diário e na lista em cache: a página após o redirect sai do cache, sem esperar o backend
+            try {
+                escritaAdiada.salvar(tarefa, jwtToken);
+                redirectAttributes.addFlashAttribute("message", "Tarefa salva! O envio ao servidor segue em segundo plano.");
+            } catch (IOException | UncheckedIOException e) {
+                redirectAttributes.addFlashAttribute("error", "Erro ao registrar a tarefa: " + e.getMessage());
+            }
+            return "redirect:/tasks";
+        }
+
         try {
             boolean success = apiService.saveTarefa(tarefa, jwtToken);
             if (success) {
-                model.addAttribute("message", "Tarefa salva com sucesso!");
+                redirectAttributes.addFlashAttribute("message", "Tarefa salva com sucesso!");
             } else {
-                model.addAttribute("error", "Erro ao salvar tarefa.");
+                redirectAttributes.addFlashAttribute("error", "Erro ao salvar tarefa.");
             }
         } catch (HttpClientErrorException.Unauthorized | HttpClientErrorException.Forbidden e) {
+            sessaoExpirada("salvar");
             session.invalidate();
             model.addAttribute("error", "Sessão expirada. Faça login novamente.");
             return "login";
         } catch (HttpClientErrorException e) {
-            model.addAttribute("error", "Erro ao salvar tarefa: " + e.getResponseBodyAsString());
+            redirectAttributes.addFlashAttribute("error", "Erro ao salvar tarefa: " + e.getResponseBodyAsString());
         } catch (Exception e) {
-            model.addAttribute("error", "Erro inesperado ao salvar tarefa: " + e.getMessage());
+            redirectAttributes.addFlashAttribute("error", "Erro inesperado ao salvar tarefa: " + e.getMessage());
         }
 
         return "redirect:/tasks"; // Redireciona para atualizar a lista
     }
 
+    // Aplica uma ação às tarefas marcadas na tabela e volta à lista já atualizada, com o resultado de cada item.
+    // A lista em cache foi corrigida no lugar, então o GET após o redirect não vai ao backend.
+    @PostMapping("/tasks/lote")
+    public String bulkTasks(@RequestParam AcaoLote acao, @RequestParam(name = "ids", required = false) List<Long> ids,
+                            @RequestParam(required = false) Long novoUsuarioId,
+                            @ModelAttribute("filtro") FiltroTarefas filtro, Model model, HttpSession session,
+                            RedirectAttributes redirectAttributes) {
+        String jwtToken = (String) session.getAttribute("jwtToken");
+        if (jwtToken == null) {
+            return "redirect:/login";
+        }
+
+        if (ids == null || ids.isEmpty()) {
+            redirectAttributes.addFlashAttribute("error", "Selecione ao menos uma tarefa.");
+        } else if (acao == AcaoLote.REATRIBUIR && novoUsuarioId == null) {
+            redirectAttributes.addFlashAttribute("error", "Escolha o usuário para reatribuir as tarefas.");
+        } else {
+            try {
+                ResultadoLote resultado = escritaAdiada != null
+                        ? escritaAdiada.executarLote(acao, ids, novoUsuarioId, jwtToken) // Na fila de cada tarefa
+                        : apiService.executarLote(acao, ids, novoUsuarioId, jwtToken);
+                meterRegistry.counter("tarefas.lote.itens", "acao", acao.name(), "resultado", "sucesso").increment(resultado.getSucessos());
+                meterRegistry.counter("tarefas.lote.itens", "acao", acao.name(), "resultado", "falha").increment(resultado.getFalhas().size());
+                redirectAttributes.addFlashAttribute("resultadoLote", resultado);
+            } catch (HttpClientErrorException.Unauthorized | HttpClientErrorException.Forbidden e) {
+                sessaoExpirada("lote");
+                session.invalidate();
+                model.addAttribute("error", "Sessão expirada. Faça login novamente.");
+                return "login";
+            }
+        }
+        // O resultado segue como flash; a URL mantém paginação e filtros
+        return "redirect:" + filtro.url(filtro.getPage());
+    }
+
     // Pré-preenche o formulário para edição
     @GetMapping("/tasks/edit/{id}")
-    public String editTask(@PathVariable Long id, Model model, HttpSession session) {
+    public String editTask(@PathVariable Long id, @ModelAttribute("filtro") FiltroTarefas filtro, Model model, HttpSession session,
+                           RedirectAttributes redirectAttributes) {
         String jwtToken = (String) session.getAttribute("jwtToken");
         if (jwtToken == null) {
             return "redirect:/login";
         }
 
         try {
-            List<Tarefa> tarefas = apiService.getTarefas(jwtToken);
-            Optional<Tarefa> tarefaToEdit = tarefas.stream().filter(t -> t.getId().equals(id)).findFirst();
-            List<Usuario> usuarios = apiService.getUsuarios(jwtToken);
-
-            if (tarefaToEdit.isPresent()) {
-                model.addAttribute("tarefa", tarefaToEdit.get());
-                model.addAttribute("usuarios", usuarios);
-                model.addAttribute("tarefas", tarefas); // Para manter a lista visível
-                model.addAttribute("loggedInUser", session.getAttribute("loggedInUser"));
-                return "tasks"; // Retorna para a mesma página, mas com o formulário preenchido
-            } else {
-                model.addAttribute("error", "Tarefa não encontrada.");
+            // Primeiro só a tarefa (do índice em cache ou de /tarefas/{id}): um id inexistente não busca mais nada.
+            // Usuários e lista normalmente vêm do cache, pois a edição parte da página de tarefas.
+            Optional<Tarefa> tarefaToEdit = apiService.getTarefa(id, jwtToken);
+            if (tarefaToEdit.isEmpty()) {
+                redirectAttributes.addFlashAttribute("error", "Tarefa não encontrada.");
                 return "redirect:/tasks";
             }
+
+            model.addAttribute("tarefa", tarefaToEdit.get());
+            model.addAttribute("usuarios", apiService.getUsuarios(jwtToken));
+            adicionarPagina(model, apiService.getListaTarefas(jwtToken), filtro); // Para manter a lista visível
+            model.addAttribute("loggedInUser", session.getAttribute("loggedInUser"));
+            return "tasks"; // Retorna para a mesma página, mas com o formulário preenchido
         } catch (HttpClientErrorException.Unauthorized | HttpClientErrorException.Forbidden e) {
+            sessaoExpirada("editar");
             session.invalidate();
             model.addAttribute("error", "Sessão expirada. Faça login novamente.");
             return "login";
         } catch (Exception e) {
-            model.addAttribute("error", "Erro ao carregar tarefa para edição: " + e.getMessage());
+            redirectAttributes.addFlashAttribute("error", "Erro ao carregar tarefa para edição: " + e.getMessage());
             return "redirect:/tasks";
         }
     }
 
     // Exclui uma tarefa
     @GetMapping("/tasks/delete/{id}")
-    public String deleteTask(@PathVariable Long id, HttpSession session, Model model) {
+    public String deleteTask(@PathVariable Long id, HttpSession session, Model model,
+                             RedirectAttributes redirectAttributes) {
         String jwtToken = (String) session.getAttribute("jwtToken");
         if (jwtToken == null) {
             return "redirect:/login";
         }
 
+        if (escritaAdiada != null) {
+            // A lista após o redirect já vem sem a tarefa (do cache); uma recusa do backend aparece numa próxima página
+            try {
+                escritaAdiada.excluir(id, jwtToken);
+                redirectAttributes.addFlashAttribute("message", "Tarefa excluída! O envio ao servidor segue em segundo plano.");
+            } catch (IOException | UncheckedIOException e) {
+                redirectAttributes.addFlashAttribute("error", "Erro ao registrar a exclusão: " + e.getMessage());
+            }
+            return "redirect:/tasks";
+        }
+
         try {
             boolean success = apiService.deleteTarefa(id, jwtToken);
             if (success) {
-                model.addAttribute("message", "Tarefa excluída com sucesso!");
+                redirectAttributes.addFlashAttribute("message", "Tarefa excluída com sucesso!");
             } else {
-                model.addAttribute("error", "Erro ao excluir tarefa.");
+                redirectAttributes.addFlashAttribute("error", "Erro ao excluir tarefa.");
             }
         } catch (HttpClientErrorException.Unauthorized | HttpClientErrorException.Forbidden e) {
+            sessaoExpirada("excluir");
             session.invalidate();
             model.addAttribute("error", "Sessão expirada. Faça login novamente.");
             return "login";
         } catch (HttpClientErrorException e) {
-            model.addAttribute("error", "Erro ao excluir tarefa: " + e.getResponseBodyAsString());
+            redirectAttributes.addFlashAttribute("error", "Erro ao excluir tarefa: " + e.getResponseBodyAsString());
         } catch (Exception e) {
-            model.addAttribute("error", "Erro inesperado ao excluir tarefa: " + e.getMessage());
+            redirectAttributes.addFlashAttribute("error", "Erro inesperado ao excluir tarefa: " + e.getMessage());
         }
 
         return "redirect:/tasks";
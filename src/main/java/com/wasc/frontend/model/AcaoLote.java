@@ -0,0 +1,36 @@
+package com.wasc.frontend.model;
+
+// Ações aplicáveis às tarefas selecionadas na página (/tasks/lote)
+public enum AcaoLote {
+    CONCLUIR("concluídas"),
+    REABRIR("reabertas"),
+    REATRIBUIR("reatribuídas"),
+    EXCLUIR("excluídas");
+
+    private final String participio;
+
+    AcaoLote(String participio) {
+        this.participio = participio;
+    }
+
+    public String getParticipio() {
+        return participio;
+    }
+
+    // Cópia da tarefa com a ação aplicada (o PUT leva a tarefa inteira); não vale para EXCLUIR
+    public Tarefa aplicar(Tarefa atual, Long usuarioId) {
+        Tarefa alterada = new Tarefa(atual.getId(), atual.getTitulo(), atual.getDescricao(), atual.getData(),
+                atual.isStatus(), atual.getUsuario());
+        switch (this) {
+            case CONCLUIR -> alterada.setStatus(true);
+            case REABRIR -> alterada.setStatus(false);
+            case REATRIBUIR -> {
+                Usuario usuario = new Usuario();
+                usuario.setId(usuarioId);
+                alterada.setUsuario(usuario);
+            }
+            default -> throw new IllegalArgumentException("Ação não suportada: " + this);
+        }
+        return alterada;
+    }
+}
@@ -0,0 +1,20 @@
+package com.wasc.frontend.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.List;
+
+// Claims do JWT lidas localmente (a assinatura é validada só pelo backend)
+@Data
+@AllArgsConstructor
+public class DadosToken implements Serializable {
+
+    public static final DadosToken ILEGIVEL = new DadosToken(null, null, List.of());
+
+    private String subject;
+    private Instant expiraEm; // null se o token não tiver "exp"
+    private List<String> roles;
+}
@@ -0,0 +1,96 @@
+package com.wasc.frontend.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Diferença entre duas leituras da lista de tarefas, comparadas pelo id (evento "tarefas" de /tasks/eventos)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DiffTarefas {
+
+    private List<Tarefa> novas;
+    private List<Tarefa> alteradas;
+    private List<Long> removidas;
+
+    public static DiffTarefas entre(ListaTarefas antes, ListaTarefas depois) {
+        List<Tarefa> novas = new ArrayList<>();
+        List<Tarefa> alteradas = new ArrayList<>();
+        List<Long> removidas = new ArrayList<>();
+        for (Tarefa t : depois.getItens()) {
+            if (t.getId() == null) {
+                continue;
+            }
+            Tarefa anterior = antes.porId(t.getId());
+            if (anterior == null) {
+                novas.add(t);
+            } else if (!anterior.equals(t)) {
+                alteradas.add(t);
+            }
+        }
+        for (Tarefa t : antes.getItens()) {
+            if (t.getId() != null && depois.porId(t.getId()) == null) {
+                removidas.add(t.getId());
+            }
+        }
+        return new DiffTarefas(novas, alteradas, removidas);
+    }
+
+    // Junta esta diferença (ainda não entregue) com a seguinte: fica só a última versão de cada tarefa
+    public DiffTarefas mesclar(DiffTarefas seguinte) {
+        Map<Long, Tarefa> novasPorId = porId(novas);
+        Map<Long, Tarefa> alteradasPorId = porId(alteradas);
+        Set<Long> removidasIds = new LinkedHashSet<>(removidas);
+        for (Tarefa t : seguinte.novas) {
+            // Removida e recriada antes da entrega: para quem recebe, a linha continua lá, só mudou
+            if (removidasIds.remove(t.getId())) {
+                alteradasPorId.put(t.getId(), t);
+            } else {
+                novasPorId.put(t.getId(), t);
+            }
+        }
+        for (Tarefa t : seguinte.alteradas) {
+            if (novasPorId.containsKey(t.getId())) {
+                novasPorId.put(t.getId(), t);
+            } else {
+                alteradasPorId.put(t.getId(), t);
+            }
+        }
+        for (Long id : seguinte.removidas) {
+            // Criada e removida antes da entrega: quem recebe nunca soube dela
+            if (novasPorId.remove(id) == null) {
+                alteradasPorId.remove(id);
+                removidasIds.add(id);
+            }
+        }
+        return new DiffTarefas(new ArrayList<>(novasPorId.values()), new ArrayList<>(alteradasPorId.values()),
+                new ArrayList<>(removidasIds));
+    }
+
+    @JsonIgnore
+    public int getTamanho() {
+        return novas.size() + alteradas.size() + removidas.size();
+    }
+
+    @JsonIgnore
+    public boolean isVazia() {
+        return getTamanho() == 0;
+    }
+
+    private static Map<Long, Tarefa> porId(List<Tarefa> tarefas) {
+        Map<Long, Tarefa> mapa = new LinkedHashMap<>();
+        for (Tarefa t : tarefas) {
+            mapa.put(t.getId(), t);
+        }
+        return mapa;
+    }
+}
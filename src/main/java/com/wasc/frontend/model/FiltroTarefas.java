@@ -0,0 +1,65 @@
+package com.wasc.frontend.model;
+
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.time.LocalDate;
+
+// Parâmetros de paginação, ordenação e filtro da página de tarefas (/tasks?page=&size=&sort=...)
+@Data
+public class FiltroTarefas {
+
+    public static final int TAMANHO_PADRAO = 50;
+    public static final int TAMANHO_MAXIMO = 500;
+
+    private int page = 0;
+    private int size = TAMANHO_PADRAO;
+    private String sort = "id"; // id, titulo, data, status ou usuario
+    private String dir = "asc";
+    private String status; // "concluida", "pendente" ou vazio para todas
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate de;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate ate;
+    private Long usuarioId;
+
+    public int getPage() {
+        return Math.max(page, 0);
+    }
+
+    public int getSize() {
+        return size < 1 ? TAMANHO_PADRAO : Math.min(size, TAMANHO_MAXIMO);
+    }
+
+    public boolean isDescendente() {
+        return "desc".equalsIgnoreCase(dir);
+    }
+
+    public boolean temFiltro() {
+        return (status != null && !status.isEmpty()) || de != null || ate != null || usuarioId != null;
+    }
+
+    // URL da página informada mantendo ordenação e filtros
+    public String url(int pagina) {
+        return builder(sort, dir).queryParam("page", pagina).toUriString();
+    }
+
+    // URL para ordenar pelo campo; clicar de novo na coluna já ordenada inverte a direção
+    public String urlOrdenacao(String campo) {
+        String novaDirecao = campo.equals(sort) && !isDescendente() ? "desc" : "asc";
+        return builder(campo, novaDirecao).queryParam("page", 0).toUriString();
+    }
+
+    private UriComponentsBuilder builder(String campoOrdenacao, String direcao) {
+        UriComponentsBuilder builder = UriComponentsBuilder.fromPath("/tasks")
+                .queryParam("size", getSize())
+                .queryParam("sort", campoOrdenacao)
+                .queryParam("dir", direcao);
+        if (status != null && !status.isEmpty()) builder.queryParam("status", status);
+        if (de != null) builder.queryParam("de", de);
+        if (ate != null) builder.queryParam("ate", ate);
+        if (usuarioId != null) builder.queryParam("usuarioId", usuarioId);
+        return builder;
+    }
+}
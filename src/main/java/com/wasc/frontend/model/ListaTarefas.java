@@ -0,0 +1,152 @@
+package com.wasc.frontend.model;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Lista imutável de tarefas guardada no cache, com um índice id -> tarefa
+ * montado uma única vez para buscas O(1) (ex.: tela de edição) e as ordenações
+ * por coluna calculadas sob demanda e reaproveitadas entre as páginas.
+ * Uma cópia marcada como desatualizada é servida quando o backend falha (stale-if-error).
+ */
+public final class ListaTarefas {
+
+    public static final ListaTarefas VAZIA = new ListaTarefas(Collections.emptyList());
+
+    private static final Map<String, Comparator<Tarefa>> ORDENACOES = Map.of(
+            "id", Comparator.comparing(Tarefa::getId, Comparator.nullsLast(Comparator.naturalOrder())),
+            "titulo", Comparator.comparing(Tarefa::getTitulo, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER)),
+            "data", Comparator.comparing(Tarefa::getData, Comparator.nullsLast(Comparator.naturalOrder())),
+            "status", Comparator.comparing(Tarefa::isStatus),
+            "usuario", Comparator.comparing((Tarefa t) -> t.getUsuario() != null ? t.getUsuario().getNome() : null,
+                    Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER))
+    );
+
+    private final List<Tarefa> itens;
+    private final Map<Long, Tarefa> porId;
+    private final Map<String, List<Tarefa>> ordenadas;
+    private final Instant carregadaEm;
+    private final boolean desatualizada;
+    private volatile String versao;
+
+    public ListaTarefas(List<Tarefa> itens) {
+        this.itens = Collections.unmodifiableList(itens);
+        Map<Long, Tarefa> indice = new HashMap<>(itens.size() * 4 / 3 + 1);
+        for (Tarefa t : itens) {
+            if (t.getId() != null) {
+                indice.put(t.getId(), t);
+            }
+        }
+        this.porId = indice;
+        this.ordenadas = new ConcurrentHashMap<>();
+        this.carregadaEm = Instant.now();
+        this.desatualizada = false;
+    }
+
+    // Mesmos itens, índice e ordenações, apenas marcada como desatualizada
+    private ListaTarefas(ListaTarefas origem) {
+        this.itens = origem.itens;
+        this.porId = origem.porId;
+        this.ordenadas = origem.ordenadas;
+        this.carregadaEm = origem.carregadaEm;
+        this.desatualizada = true;
+        this.versao = origem.versao;
+    }
+
+    public ListaTarefas comoDesatualizada() {
+        return desatualizada ? this : new ListaTarefas(this);
+    }
+
+    public Instant getCarregadaEm() {
+        return carregadaEm;
+    }
+
+    public boolean isDesatualizada() {
+        return desatualizada;
+    }
+
+    public List<Tarefa> getItens() {
+        return itens;
+    }
+
+    // Resumo SHA-256 do conteúdo dos itens, calculado na primeira vez; listas iguais têm a mesma versão
+    public String getVersao() {
+        String atual = versao;
+        if (atual == null) {
+            try {
+                MessageDigest digest = MessageDigest.getInstance("SHA-256");
+                for (Tarefa t : itens) {
+                    digest.update(t.toString().getBytes(StandardCharsets.UTF_8));
+                    digest.update((byte) '\n');
+                }
+                atual = HexFormat.of().formatHex(digest.digest());
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+            versao = atual;
+        }
+        return atual;
+    }
+
+    public Tarefa porId(Long id) {
+        return porId.get(id);
+    }
+
+    // Lista ordenada pelo campo; ordena só na primeira vez que o campo/direção é pedido
+    public List<Tarefa> ordenadaPor(String campo, boolean descendente) {
+        String nome = ORDENACOES.containsKey(campo) ? campo : "id";
+        return ordenadas.computeIfAbsent(nome + (descendente ? ":desc" : ":asc"), c -> {
+            List<Tarefa> copia = new ArrayList<>(itens);
+            Comparator<Tarefa> comparador = ORDENACOES.get(nome);
+            copia.sort(descendente ? comparador.reversed() : comparador);
+            return Collections.unmodifiableList(copia);
+        });
+    }
+
+    // Aplica filtros, ordenação e paginação; só a janela da página é copiada
+    public PaginaTarefas paginar(FiltroTarefas filtro) {
+        List<Tarefa> ordenada = ordenadaPor(filtro.getSort(), filtro.isDescendente());
+        int tamanho = filtro.getSize();
+        // Em long: page vem da URL e page * size passaria de Integer.MAX_VALUE; além do fim, a página sai vazia
+        int inicio = (int) Math.min((long) filtro.getPage() * tamanho, ordenada.size());
+
+        if (!filtro.temFiltro()) {
+            int fim = Math.min(inicio + tamanho, ordenada.size());
+            List<Tarefa> janela = inicio < fim ? ordenada.subList(inicio, fim) : Collections.emptyList();
+            return new PaginaTarefas(janela, filtro.getPage(), tamanho, ordenada.size());
+        }
+
+        List<Tarefa> janela = new ArrayList<>(tamanho);
+        int total = 0;
+        for (Tarefa t : ordenada) {
+            if (!atende(t, filtro)) {
+                continue;
+            }
+            if (total >= inicio && janela.size() < tamanho) {
+                janela.add(t);
+            }
+            total++;
+        }
+        return new PaginaTarefas(janela, filtro.getPage(), tamanho, total);
+    }
+
+    private static boolean atende(Tarefa t, FiltroTarefas filtro) {
+        if ("concluida".equals(filtro.getStatus()) && !t.isStatus()) return false;
+        if ("pendente".equals(filtro.getStatus()) && t.isStatus()) return false;
+        if (filtro.getDe() != null && (t.getData() == null || t.getData().isBefore(filtro.getDe()))) return false;
+        if (filtro.getAte() != null && (t.getData() == null || t.getData().isAfter(filtro.getAte()))) return false;
+        if (filtro.getUsuarioId() != null
+                && (t.getUsuario() == null || !filtro.getUsuarioId().equals(t.getUsuario().getId()))) return false;
+        return true;
+    }
+}
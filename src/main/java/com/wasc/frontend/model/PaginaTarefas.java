@@ -0,0 +1,28 @@
+package com.wasc.frontend.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+// Uma página da lista de tarefas, já filtrada e ordenada
+@Data
+@AllArgsConstructor
+public class PaginaTarefas {
+    private List<Tarefa> itens;
+    private int pagina;
+    private int tamanho;
+    private int totalItens;
+
+    public int getTotalPaginas() {
+        return totalItens == 0 ? 1 : (totalItens + tamanho - 1) / tamanho;
+    }
+
+    public boolean isTemAnterior() {
+        return pagina > 0;
+    }
+
+    public boolean isTemProxima() {
+        return pagina < getTotalPaginas() - 1; // Sem pagina + 1, que estoura com page=Integer.MAX_VALUE
+    }
+}
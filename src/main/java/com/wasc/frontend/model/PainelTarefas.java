@@ -0,0 +1,16 @@
+package com.wasc.frontend.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Dados da página de tarefas: a lista de tarefas e os usuários do dropdown
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PainelTarefas {
+    private ListaTarefas tarefas;
+    private List<Usuario> usuarios;
+}
@@ -0,0 +1,41 @@
+package com.wasc.frontend.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Uma linha do diário de escritas adiadas: a escrita aceita (SALVAR/EXCLUIR) ou o desfecho do seu envio
+// ao backend (ENVIADA/RECUSADA), que repete o seq da escrita
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class RegistroEscrita {
+
+    public enum Tipo { SALVAR, EXCLUIR, ENVIADA, RECUSADA }
+
+    private long seq;
+    private Tipo tipo;
+    private Long tarefaId; // Numa criação ainda não enviada, um id provisório negativo (-seq)
+    private Tarefa tarefa;
+    private String jwtToken;
+    private Long idCriado; // ENVIADA de uma criação: o id dado pelo backend
+    private String mensagem; // RECUSADA: o motivo
+
+    public static RegistroEscrita salvar(long seq, Tarefa tarefa, String jwtToken) {
+        return new RegistroEscrita(seq, Tipo.SALVAR, tarefa.getId(), tarefa, jwtToken, null, null);
+    }
+
+    public static RegistroEscrita excluir(long seq, Long tarefaId, String jwtToken) {
+        return new RegistroEscrita(seq, Tipo.EXCLUIR, tarefaId, null, jwtToken, null, null);
+    }
+
+    public static RegistroEscrita enviada(long seq, Long idCriado) {
+        return new RegistroEscrita(seq, Tipo.ENVIADA, null, null, null, idCriado, null);
+    }
+
+    public static RegistroEscrita recusada(long seq, String mensagem) {
+        return new RegistroEscrita(seq, Tipo.RECUSADA, null, null, null, null, mensagem);
+    }
+}
@@ -0,0 +1,16 @@
+package com.wasc.frontend.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+// Resposta JSON das ações feitas sem recarregar a página (/tasks/fragmentos): a mensagem a exibir e,
+// quando a página precisa ser trocada (sessão expirada, lista a recarregar), para onde ir
+@Data
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class RespostaParcial {
+
+    private String mensagem;
+    private String destino;
+}
@@ -0,0 +1,36 @@
+package com.wasc.frontend.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.List;
+
+// Resultado de uma ação em lote, item a item, na ordem em que as tarefas foram selecionadas
+@Data
+@AllArgsConstructor
+public class ResultadoLote implements Serializable { // Vai para a sessão como atributo flash
+
+    private AcaoLote acao;
+    private List<Item> itens;
+
+    public long getSucessos() {
+        return itens.stream().filter(Item::isSucesso).count();
+    }
+
+    public List<Item> getFalhas() {
+        return itens.stream().filter(item -> !item.isSucesso()).toList();
+    }
+
+    public String getResumo() {
+        return getSucessos() + " de " + itens.size() + " tarefa(s) " + acao.getParticipio() + ".";
+    }
+
+    @Data
+    @AllArgsConstructor
+    public static class Item implements Serializable {
+        private Long id;
+        private boolean sucesso;
+        private String mensagem; // Motivo da falha; null em caso de sucesso
+    }
+}
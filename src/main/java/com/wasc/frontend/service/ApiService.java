@@ -1,11 +1,20 @@
 package com.wasc.frontend.service;
 
+import com.wasc.frontend.model.AcaoLote;
+import com.wasc.frontend.model.ListaTarefas;
 import com.wasc.frontend.model.LoginRequest;
 import com.wasc.frontend.model.LoginResponse;
+import com.wasc.frontend.model.PainelTarefas;
+import com.wasc.frontend.model.ResultadoLote;
 import com.wasc.frontend.model.Tarefa;
 import com.wasc.frontend.model.Usuario;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
@@ -13,22 +22,71 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 
 @Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class ApiService {
 
+    private static final Logger log = LoggerFactory.getLogger(ApiService.class);
+
     @Value("${api.base.url}")
     private String apiBaseUrl;
 
+    @Value("${api.json.streaming:true}")
+    private boolean jsonStreaming;
+
+    @Value("${api.fanout.timeout:10s}")
+    private Duration fanoutTimeout;
+
+    // Escritas simultâneas por ação em lote (ainda sujeitas ao bulkhead global da ResilienciaBackend)
+    @Value("${api.lote.concorrencia:8}")
+    private int loteConcorrencia;
+
+    @Value("${api.auth.renovacao.caminho:/auth/refresh}")
+    private String renovacaoCaminho;
+
     @Autowired
     private RestTemplate restTemplate;
 
+    @Autowired
+    private TarefaCache tarefaCache;
+
+    @Autowired
+    private TarefaJsonReader tarefaJsonReader;
+
+    @Autowired
+    private ResilienciaBackend resiliencia;
+
+    @Autowired
+    @Qualifier("apiExecutor")
+    private AsyncTaskExecutor apiExecutor;
+
     // --- Autenticação ---
 
     public Optional<LoginResponse> login(String username, String password) {
@@ -42,18 +100,18 @@ public class ApiService {
         HttpEntity<LoginRequest> requestEntity = new HttpEntity<>(loginRequest, headers);
 
         try {
-            ResponseEntity<LoginResponse> response = restTemplate.exchange(
+            ResponseEntity<LoginResponse> response = resiliencia.executar("login", false, () -> restTemplate.exchange(
                     apiBaseUrl + "/auth/login",
                     HttpMethod.POST,
                     requestEntity,
                     LoginResponse.class
-            );
+            ));
             return Optional.ofNullable(response.getBody());
         } catch (HttpClientErrorException.Unauthorized | HttpClientErrorException.Forbidden e) {
-            System.err.println("Login falhou: " + e.getResponseBodyAsString());
+            log.info("Login recusado pelo backend: {}", e.getStatusCode());
             return Optional.empty();
         } catch (Exception e) {
-            System.err.println("Erro ao tentar login: " + e.getMessage());
+            log.error("Erro ao tentar login", e);
             return Optional.empty();
         }
     }
@@ -72,22 +130,39 @@ public class ApiService {
         HttpEntity<Usuario> requestEntity = new HttpEntity<>(usuario, headers);
 
         try {
-            ResponseEntity<String> response = restTemplate.exchange(
+            ResponseEntity<String> response = resiliencia.executar("registro", false, () -> restTemplate.exchange(
                     apiBaseUrl + "/auth/register",
                     HttpMethod.POST,
                     requestEntity,
                     String.class
-            );
+            ));
             return response.getStatusCode().is2xxSuccessful();
         } catch (HttpClientErrorException e) {
-            System.err.println("Falha no registro: " + e.getStatusCode() + " - " + e.getResponseBodyAsString());
+            log.warn("Falha no registro: {} - {}", e.getStatusCode(), e.getResponseBodyAsString());
             return false;
         } catch (Exception e) {
-            System.err.println("Erro ao registrar usuário: " + e.getMessage());
+            log.error("Erro ao registrar usuário", e);
             return false;
         }
     }
 
+    // Troca o token por um novo antes do vencimento (endpoint de refresh do backend); vazio se recusado
+    public Optional<LoginResponse> renovarToken(String jwtToken) {
+        HttpEntity<Void> entity = new HttpEntity<>(getAuthHeaders(jwtToken));
+        try {
+            ResponseEntity<LoginResponse> response = resiliencia.executar("renovar", false, () -> restTemplate.exchange(
+                    apiBaseUrl + renovacaoCaminho,
+                    HttpMethod.POST,
+                    entity,
+                    LoginResponse.class
+            ));
+            return Optional.ofNullable(response.getBody());
+        } catch (Exception e) {
+            log.info("Não foi possível renovar o token: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
     // --- Requisições Autenticadas (com JWT) ---
 
     private HttpHeaders getAuthHeaders(String jwtToken) {
@@ -99,99 +174,429 @@ public class ApiService {
     }
 
     public List<Usuario> getUsuarios(String jwtToken) {
-        HttpHeaders headers = getAuthHeaders(jwtToken);
-        HttpEntity<Void> entity = new HttpEntity<>(headers);
         try {
-            ResponseEntity<Usuario[]> response = restTemplate.exchange(
-                    apiBaseUrl + "/usuarios",
-                    HttpMethod.GET,
-                    entity,
-                    Usuario[].class
-            );
-            return Arrays.asList(response.getBody());
+            return tarefaCache.getUsuarios(jwtToken, validadores -> buscarUsuarios(jwtToken, validadores));
         } catch (HttpClientErrorException.Unauthorized | HttpClientErrorException.Forbidden e) {
-            System.err.println("Erro de autenticação/autorização ao buscar usuários: " + e.getResponseBodyAsString());
+            log.info("Erro de autenticação/autorização ao buscar usuários: {}", e.getStatusCode());
             throw e; // Lançar exceção para ser tratada pelo controller
         } catch (Exception e) {
-            System.err.println("Erro ao buscar usuários: " + e.getMessage());
-            return Collections.emptyList();
+            List<Usuario> ultimos = tarefaCache.getUsuariosDesatualizados(jwtToken);
+            log.warn("Erro ao buscar usuários ({})", ultimos != null ? "servindo a última lista" : "sem cópia anterior", e);
+            return ultimos != null ? ultimos : Collections.emptyList();
         }
     }
 
     public List<Tarefa> getTarefas(String jwtToken) {
-        HttpHeaders headers = getAuthHeaders(jwtToken);
-        HttpEntity<Void> entity = new HttpEntity<>(headers);
+        return getListaTarefas(jwtToken).getItens();
+    }
+
+    // Última lista boa (marcada como desatualizada), sem ir ao backend; null se não houver
+    public ListaTarefas getTarefasDesatualizadas(String jwtToken) {
+        return tarefaCache.getTarefasDesatualizadas(jwtToken);
+    }
+
+    // Com a lista já em cache, a página sai dela sem streaming nem ida ao backend
+    public boolean temTarefasEmCache(String jwtToken) {
+        return tarefaCache.getTarefasEmCache(jwtToken) != null;
+    }
+
+    // Lista em cache com índice por id e ordenações, usada pela paginação.
+    // Se o backend falhar, devolve a última lista boa marcada como desatualizada (ou a lista vazia).
+    public ListaTarefas getListaTarefas(String jwtToken) {
         try {
+            return tarefaCache.getTarefas(jwtToken, validadores -> buscarTarefas(jwtToken, validadores));
+        } catch (HttpClientErrorException.Unauthorized | HttpClientErrorException.Forbidden e) {
+            log.info("Erro de autenticação/autorização ao buscar tarefas: {}", e.getStatusCode());
+            throw e; // Lançar exceção para ser tratada pelo controller
+        } catch (Exception e) {
+            ListaTarefas ultima = tarefaCache.getTarefasDesatualizadas(jwtToken);
+            log.warn("Erro ao buscar tarefas ({})", ultima != null ? "servindo a última lista" : "sem cópia anterior", e);
+            return ultima != null ? ultima : ListaTarefas.VAZIA;
+        }
+    }
+
+    // Chamadas diretas ao backend; só são feitas quando a lista não está no cache.
+    // Com validadores da cópia anterior o GET é condicional, e um 304 chega sem corpo para desserializar.
+    private RespostaCondicional<List<Usuario>> buscarUsuarios(String jwtToken, Validadores validadores) {
+        HttpEntity<Void> entity = new HttpEntity<>(getCondicionalHeaders(jwtToken, validadores));
+        ResponseEntity<Usuario[]> response = resiliencia.executar("usuarios", true, () -> restTemplate.exchange(
+                apiBaseUrl + "/usuarios",
+                HttpMethod.GET,
+                entity,
+                Usuario[].class
+        ));
+        if (response.getStatusCode().value() == 304) {
+            return RespostaCondicional.naoModificada();
+        }
+        return new RespostaCondicional<>(Collections.unmodifiableList(Arrays.asList(response.getBody())),
+                Validadores.de(response.getHeaders()));
+    }
+
+    private RespostaCondicional<List<Tarefa>> buscarTarefas(String jwtToken, Validadores validadores) {
+        HttpHeaders headers = getCondicionalHeaders(jwtToken, validadores);
+        return resiliencia.executar("tarefas", true, () -> {
+            if (jsonStreaming) {
+                // Lê o array tarefa a tarefa, compartilhando os usuários aninhados
+                return restTemplate.execute(
+                        apiBaseUrl + "/tarefas",
+                        HttpMethod.GET,
+                        request -> request.getHeaders().putAll(headers),
+                        response -> response.getStatusCode().value() == 304
+                                ? RespostaCondicional.<List<Tarefa>>naoModificada()
+                                : new RespostaCondicional<>(tarefaJsonReader.lerTarefas(response.getBody()),
+                                        Validadores.de(response.getHeaders()))
+                );
+            }
+
             ResponseEntity<Tarefa[]> response = restTemplate.exchange(
                     apiBaseUrl + "/tarefas",
                     HttpMethod.GET,
-                    entity,
+                    new HttpEntity<Void>(headers),
                     Tarefa[].class
             );
-            return Arrays.asList(response.getBody());
+            if (response.getStatusCode().value() == 304) {
+                return RespostaCondicional.naoModificada();
+            }
+            return new RespostaCondicional<>(Arrays.asList(response.getBody()), Validadores.de(response.getHeaders()));
+        });
+    }
+
+    private HttpHeaders getCondicionalHeaders(String jwtToken, Validadores validadores) {
+        HttpHeaders headers = getAuthHeaders(jwtToken);
+        if (validadores != null) {
+            validadores.aplicar(headers);
+        }
+        return headers;
+    }
+
+    // Inicia a leitura de /tarefas em segundo plano; as tarefas vão sendo entregues pelo TarefaStream
+    // enquanto a página é renderizada. Ao final, a lista completa também vai para o cache.
+    // Sem retry: parte das linhas já pode ter sido enviada ao navegador. O bulkhead fica ocupado só até a
+    // resposta chegar: o resto da leitura segue o ritmo do navegador (TarefaStream.publicar espera por ele).
+    public TarefaStream streamTarefas(String jwtToken, int tamanhoBloco) {
+        TarefaStream stream = new TarefaStream(tamanhoBloco, fanoutTimeout);
+        long versao = tarefaCache.getVersaoTarefas(jwtToken);
+        apiExecutor.execute(() -> {
+            List<Tarefa> lidas = new ArrayList<>();
+            try {
+                resiliencia.executarAteResposta("tarefas-stream", respondeu -> restTemplate.execute(
+                        apiBaseUrl + "/tarefas",
+                        HttpMethod.GET,
+                        request -> request.getHeaders().putAll(getAuthHeaders(jwtToken)),
+                        response -> {
+                            respondeu.run();
+                            stream.iniciar();
+                            tarefaJsonReader.lerTarefas(response.getBody(), tarefa -> {
+                                lidas.add(tarefa);
+                                stream.publicar(tarefa);
+                            });
+                            return null;
+                        }
+                ));
+                tarefaCache.guardarTarefas(jwtToken, lidas, versao);
+                stream.terminar(null);
+            } catch (Exception e) {
+                log.warn("Erro ao buscar tarefas (streaming)", e);
+                stream.terminar(e);
+            }
+        });
+        return stream;
+    }
+
+    // Busca uma única tarefa: primeiro no índice da lista em cache, depois em /tarefas/{id}
+    public Optional<Tarefa> getTarefa(Long id, String jwtToken) {
+        Tarefa emCache = tarefaCache.getTarefa(jwtToken, id);
+        if (emCache != null) {
+            return Optional.of(emCache);
+        }
+
+        HttpEntity<Void> entity = new HttpEntity<>(getAuthHeaders(jwtToken));
+        try {
+            ResponseEntity<Tarefa> response = resiliencia.executar("tarefa", true, () -> restTemplate.exchange(
+                    apiBaseUrl + "/tarefas/{id}",
+                    HttpMethod.GET,
+                    entity,
+                    Tarefa.class,
+                    id
+            ));
+            return Optional.ofNullable(response.getBody());
         } catch (HttpClientErrorException.Unauthorized | HttpClientErrorException.Forbidden e) {
-            System.err.println("Erro de autenticação/autorização ao buscar tarefas: " + e.getResponseBodyAsString());
-            throw e; // Lançar exceção para ser tratada pelo controller
-        } catch (Exception e) {
-            System.err.println("Erro ao buscar tarefas: " + e.getMessage());
-            return Collections.emptyList();
+            log.info("Erro de autenticação/autorização ao buscar tarefa {}: {}", id, e.getStatusCode());
+            throw e;
+        } catch (HttpClientErrorException.NotFound e) {
+            return Optional.empty();
         }
     }
 
-    public boolean saveTarefa(Tarefa tarefa, String jwtToken) {
-        HttpHeaders headers = getAuthHeaders(jwtToken);
-        HttpEntity<Tarefa> requestEntity = new HttpEntity<>(tarefa, headers);
-        
+    // --- Carregamento da página de tarefas ---
+
+    // Busca tarefas e usuários em paralelo, com um prazo único para as duas chamadas.
+    // Um 401/403 em qualquer uma cancela a outra; se só a lista de usuários falhar ou atrasar, segue com ela vazia.
+    // Cancelar interrompe a thread da chamada (o cancel de um CompletableFuture não interrompe nada): isso encerra
+    // a espera por conexão do pool, pelo bulkhead ou entre retries. Uma leitura de socket já em andamento só para
+    // assim com virtual threads; nas de plataforma ela termina pelo timeout de leitura, com o resultado descartado.
+    public PainelTarefas getPainelTarefas(String jwtToken) {
+        CompletableFuture<ListaTarefas> tarefasFuture = new CompletableFuture<>();
+        CompletableFuture<List<Usuario>> usuariosFuture = new CompletableFuture<>();
+        Future<?> tarefasExecucao = apiExecutor.submit(() -> completar(tarefasFuture, () -> getListaTarefas(jwtToken)));
+        Future<?> usuariosExecucao = apiExecutor.submit(() -> completar(usuariosFuture, () -> getUsuarios(jwtToken)));
+        tarefasFuture.whenComplete((result, e) -> {
+            if (isNaoAutorizado(e)) cancelar(usuariosFuture, usuariosExecucao);
+        });
+        usuariosFuture.whenComplete((result, e) -> {
+            if (isNaoAutorizado(e)) cancelar(tarefasFuture, tarefasExecucao);
+        });
+
         try {
-            if (tarefa.getId() == null) { // Criar
-                ResponseEntity<Tarefa> response = restTemplate.exchange(
-                    apiBaseUrl + "/tarefas",
-                    HttpMethod.POST,
-                    requestEntity,
-                    Tarefa.class
-                );
-                return response.getStatusCode().is2xxSuccessful();
-            } else { // Atualizar
-                ResponseEntity<Tarefa> response = restTemplate.exchange(
-                    apiBaseUrl + "/tarefas/" + tarefa.getId(),
-                    HttpMethod.PUT,
-                    requestEntity,
-                    Tarefa.class
-                );
-                return response.getStatusCode().is2xxSuccessful();
+            CompletableFuture.allOf(tarefasFuture, usuariosFuture).get(fanoutTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            cancelar(usuariosFuture, usuariosExecucao);
+            if (!tarefasFuture.isDone()) {
+                cancelar(tarefasFuture, tarefasExecucao);
+                throw new ResourceAccessException("Tempo esgotado ao buscar tarefas (" + fanoutTimeout.toMillis() + " ms)");
+            }
+        } catch (ExecutionException e) {
+            // Falhas individuais são tratadas logo abaixo
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancelar(tarefasFuture, tarefasExecucao);
+            cancelar(usuariosFuture, usuariosExecucao);
+            throw new ResourceAccessException("Busca de tarefas interrompida");
+        }
+
+        lancarSeNaoAutorizado(tarefasFuture);
+        lancarSeNaoAutorizado(usuariosFuture);
+        ListaTarefas tarefas = resultado(tarefasFuture);
+        List<Usuario> usuarios = usuariosFuture.isCompletedExceptionally() ? Collections.emptyList() : usuariosFuture.join();
+        return new PainelTarefas(tarefas, usuarios);
+    }
+
+    private static <T> void completar(CompletableFuture<T> future, Supplier<T> chamada) {
+        try {
+            future.complete(chamada.get());
+        } catch (Throwable e) {
+            future.completeExceptionally(e);
+        }
+    }
+
+    // O resultado passa a ser "cancelado" e a thread que ainda executa a chamada é interrompida
+    private static void cancelar(CompletableFuture<?> future, Future<?> execucao) {
+        future.cancel(false);
+        execucao.cancel(true);
+    }
+
+    private static boolean isNaoAutorizado(Throwable e) {
+        Throwable causa = e instanceof CompletionException ? e.getCause() : e;
+        return causa instanceof HttpClientErrorException.Unauthorized || causa instanceof HttpClientErrorException.Forbidden;
+    }
+
+    private static void lancarSeNaoAutorizado(CompletableFuture<?> future) {
+        if (!future.isCompletedExceptionally()) {
+            return;
+        }
+        try {
+            future.join();
+        } catch (CompletionException e) {
+            if (isNaoAutorizado(e)) {
+                throw (HttpClientErrorException) e.getCause();
+            }
+        } catch (CancellationException e) {
+            // Cancelada porque a outra chamada falhou ou estourou o prazo
+        }
+    }
+
+    private static <T> T resultado(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
             }
+            throw e;
+        }
+    }
+
+    public boolean saveTarefa(Tarefa tarefa, String jwtToken) {
+        return salvarTarefa(tarefa, jwtToken).isPresent();
+    }
+
+    // A tarefa como ficou no backend (com o usuário completo, vindo do cache), para atualizar só a sua linha.
+    // Se o backend não devolver o corpo, volta a própria tarefa enviada (sem id, quando criada). Vazio se falhar.
+    public Optional<Tarefa> salvarTarefa(Tarefa tarefa, String jwtToken) {
+        try {
+            Tarefa salva = enviarTarefa(tarefa, jwtToken);
+            tarefaCache.tarefaSalva(jwtToken, salva); // Corrige a lista em cache sem nova busca
+            return Optional.of(salva != null && salva.getId() != null ? salva : tarefa);
         } catch (HttpClientErrorException.Unauthorized | HttpClientErrorException.Forbidden e) {
-            System.err.println("Erro de autenticação/autorização ao salvar tarefa: " + e.getResponseBodyAsString());
+            log.info("Erro de autenticação/autorização ao salvar tarefa: {}", e.getStatusCode());
             throw e;
         } catch (HttpClientErrorException e) {
-            System.err.println("Falha ao salvar tarefa: " + e.getStatusCode() + " - " + e.getResponseBodyAsString());
-            return false;
+            log.warn("Falha ao salvar tarefa: {} - {}", e.getStatusCode(), e.getResponseBodyAsString());
+            return Optional.empty();
         } catch (Exception e) {
-            System.err.println("Erro ao salvar tarefa: " + e.getMessage());
-            return false;
+            log.error("Erro ao salvar tarefa", e);
+            return Optional.empty();
         }
     }
 
+    // POST (sem id) ou PUT da tarefa, sem tratar falhas nem corrigir o cache: quem chama decide o que fazer
+    // com cada erro (a EscritaAdiada repete as falhas transitórias). Devolve o corpo da resposta, ou null.
+    public Tarefa enviarTarefa(Tarefa tarefa, String jwtToken) {
+        HttpEntity<Tarefa> requestEntity = new HttpEntity<>(tarefa, getAuthHeaders(jwtToken));
+        ResponseEntity<Tarefa> response;
+        if (tarefa.getId() == null) { // Criar
+            response = resiliencia.executar("salvar", false, () -> restTemplate.exchange(
+                apiBaseUrl + "/tarefas",
+                HttpMethod.POST,
+                requestEntity,
+                Tarefa.class
+            ));
+        } else { // Atualizar
+            response = resiliencia.executar("salvar", false, () -> restTemplate.exchange(
+                apiBaseUrl + "/tarefas/{id}",
+                HttpMethod.PUT,
+                requestEntity,
+                Tarefa.class,
+                tarefa.getId()
+            ));
+        }
+        if (!response.getStatusCode().is2xxSuccessful()) {
+            throw new RestClientException("Resposta inesperada do backend: " + response.getStatusCode());
+        }
+        return response.getBody();
+    }
+
     public boolean deleteTarefa(Long id, String jwtToken) {
-        HttpHeaders headers = getAuthHeaders(jwtToken);
-        HttpEntity<Void> entity = new HttpEntity<>(headers);
         try {
-            ResponseEntity<Void> response = restTemplate.exchange(
-                apiBaseUrl + "/tarefas/" + id,
-                HttpMethod.DELETE,
-                entity,
-                Void.class
-            );
-            return response.getStatusCode().is2xxSuccessful();
+            enviarExclusao(id, jwtToken);
+            tarefaCache.tarefaExcluida(jwtToken, id);
+            return true;
         } catch (HttpClientErrorException.Unauthorized | HttpClientErrorException.Forbidden e) {
-            System.err.println("Erro de autenticação/autorização ao excluir tarefa: " + e.getResponseBodyAsString());
+            log.info("Erro de autenticação/autorização ao excluir tarefa {}: {}", id, e.getStatusCode());
             throw e;
         } catch (HttpClientErrorException e) {
-            System.err.println("Falha ao excluir tarefa: " + e.getStatusCode() + " - " + e.getResponseBodyAsString());
+            log.warn("Falha ao excluir tarefa {}: {} - {}", id, e.getStatusCode(), e.getResponseBodyAsString());
             return false;
         } catch (Exception e) {
-            System.err.println("Erro ao excluir tarefa: " + e.getMessage());
+            log.error("Erro ao excluir tarefa {}", id, e);
             return false;
         }
     }
-}
\ No newline at end of file
+
+    // DELETE da tarefa, sem tratar falhas nem corrigir o cache
+    public void enviarExclusao(Long id, String jwtToken) {
+        ResponseEntity<Void> response = resiliencia.executar("excluir", false, () -> restTemplate.exchange(
+            apiBaseUrl + "/tarefas/{id}",
+            HttpMethod.DELETE,
+            new HttpEntity<Void>(getAuthHeaders(jwtToken)),
+            Void.class,
+            id
+        ));
+        if (!response.getStatusCode().is2xxSuccessful()) {
+            throw new RestClientException("Resposta inesperada do backend: " + response.getStatusCode());
+        }
+    }
+
+    // --- Operações em lote ---
+
+    // Resultado de uma escrita do lote; "incerta" quando não se sabe se o backend a aplicou (5xx, timeout)
+    private record Escrita(ResultadoLote.Item item, Tarefa salva, boolean incerta) {
+    }
+
+    // Aplica a ação às tarefas selecionadas em requisições individuais, com no máximo api.lote.concorrencia
+    // em andamento: a thread da requisição só envia a próxima quando uma termina (o backend não tem endpoint
+    // de lote). A lista em cache é corrigida uma única vez no final; se alguma escrita terminou em estado
+    // desconhecido, ela é descartada para ser recarregada uma vez só. 401/403 interrompe o lote e é relançado.
+    public ResultadoLote executarLote(AcaoLote acao, List<Long> ids, Long usuarioId, String jwtToken) {
+        ListaTarefas lista = acao == AcaoLote.EXCLUIR ? ListaTarefas.VAZIA : getListaTarefas(jwtToken);
+        Semaphore janela = new Semaphore(loteConcorrencia);
+        AtomicReference<HttpClientErrorException> naoAutorizado = new AtomicReference<>();
+        Map<Long, CompletableFuture<Escrita>> escritas = new LinkedHashMap<>();
+
+        for (Long id : new LinkedHashSet<>(ids)) {
+            janela.acquireUninterruptibly();
+            if (naoAutorizado.get() != null) {
+                janela.release();
+                break;
+            }
+            try {
+                CompletableFuture<Escrita> escrita = CompletableFuture.supplyAsync(
+                        () -> escreverItem(acao, id, usuarioId, lista, jwtToken), apiExecutor);
+                escrita.whenComplete((resultado, e) -> {
+                    if (isNaoAutorizado(e)) {
+                        naoAutorizado.compareAndSet(null, (HttpClientErrorException) e.getCause());
+                    }
+                    janela.release();
+                });
+                escritas.put(id, escrita);
+            } catch (RejectedExecutionException e) {
+                janela.release();
+                escritas.put(id, CompletableFuture.completedFuture(
+                        new Escrita(new ResultadoLote.Item(id, false, "Servidor ocupado; tente novamente"), null, false)));
+            }
+        }
+        CompletableFuture.allOf(escritas.values().toArray(CompletableFuture[]::new)).exceptionally(e -> null).join();
+        if (naoAutorizado.get() != null) {
+            throw naoAutorizado.get();
+        }
+
+        List<ResultadoLote.Item> itens = new ArrayList<>(escritas.size());
+        List<Tarefa> salvas = new ArrayList<>();
+        Set<Long> excluidas = new HashSet<>();
+        boolean incerta = false;
+        for (CompletableFuture<Escrita> future : escritas.values()) {
+            Escrita escrita = future.join();
+            itens.add(escrita.item());
+            incerta |= escrita.incerta();
+            if (escrita.item().isSucesso()) {
+                if (acao == AcaoLote.EXCLUIR) {
+                    excluidas.add(escrita.item().getId());
+                } else if (escrita.salva() != null) {
+                    salvas.add(escrita.salva());
+                }
+            }
+        }
+        if (incerta) {
+            tarefaCache.invalidarTarefas(jwtToken);
+        } else {
+            tarefaCache.loteAplicado(jwtToken, salvas, excluidas);
+        }
+        return new ResultadoLote(acao, itens);
+    }
+
+    private Escrita escreverItem(AcaoLote acao, Long id, Long usuarioId, ListaTarefas lista, String jwtToken) {
+        HttpEntity<Void> semCorpo = new HttpEntity<>(getAuthHeaders(jwtToken));
+        try {
+            if (acao == AcaoLote.EXCLUIR) {
+                resiliencia.executar("excluir", false, () -> restTemplate.exchange(
+                        apiBaseUrl + "/tarefas/{id}", HttpMethod.DELETE, semCorpo, Void.class, id));
+                return new Escrita(new ResultadoLote.Item(id, true, null), null, false);
+            }
+
+            // O PUT leva a tarefa inteira: parte da lista em cache, sem alterar o objeto compartilhado
+            Tarefa atual = lista.porId(id);
+            if (atual == null) {
+                atual = getTarefa(id, jwtToken).orElse(null);
+            }
+            if (atual == null) {
+                return new Escrita(new ResultadoLote.Item(id, false, "Tarefa não encontrada"), null, false);
+            }
+            Tarefa alterada = acao.aplicar(atual, usuarioId);
+
+            HttpEntity<Tarefa> entity = new HttpEntity<>(alterada, getAuthHeaders(jwtToken));
+            ResponseEntity<Tarefa> response = resiliencia.executar("salvar", false, () -> restTemplate.exchange(
+                    apiBaseUrl + "/tarefas/{id}", HttpMethod.PUT, entity, Tarefa.class, id));
+            Tarefa salva = response.getBody() != null && response.getBody().getId() != null ? response.getBody() : alterada;
+            return new Escrita(new ResultadoLote.Item(id, true, null), salva, false);
+        } catch (HttpClientErrorException.Unauthorized | HttpClientErrorException.Forbidden e) {
+            throw e;
+        } catch (HttpClientErrorException e) {
+            log.warn("Lote {}: falha na tarefa {}: {}", acao, id, e.getStatusCode());
+            String mensagem = e.getStatusCode().value() == 404 ? "Tarefa não encontrada" : "Recusada pelo backend (" + e.getStatusCode().value() + ")";
+            return new Escrita(new ResultadoLote.Item(id, false, mensagem), null, false);
+        } catch (Exception e) {
+            log.warn("Lote {}: erro na tarefa {}", acao, id, e);
+            return new Escrita(new ResultadoLote.Item(id, false, "Backend indisponível"), null, true);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.wasc.frontend.service;
+
+import java.time.Duration;
+
+/**
+ * Armazenamento chave-valor compartilhado entre as réplicas do frontend para o modo
+ * tarefas.sessao.modo=compartilhada (Redis, Memcached, tabela etc.). Basta declarar um bean
+ * desta interface; sem ele é usado o ArmazemSessoesLocal, que só vale para uma instância e testes.
+ */
+public interface ArmazemSessoes {
+
+    // null se não existir ou tiver expirado
+    byte[] ler(String id);
+
+    void gravar(String id, byte[] dados, Duration validade);
+
+    void remover(String id);
+}
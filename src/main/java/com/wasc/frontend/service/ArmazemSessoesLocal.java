@@ -0,0 +1,53 @@
+package com.wasc.frontend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import java.time.Duration;
+
+// ArmazemSessoes em memória, com validade por entrada; compartilhado apenas por quem tiver a mesma instância
+public class ArmazemSessoesLocal implements ArmazemSessoes {
+
+    private record Entrada(byte[] dados, Duration validade) {
+    }
+
+    private final Cache<String, Entrada> entradas = Caffeine.newBuilder()
+            .expireAfter(new Expiry<String, Entrada>() {
+                @Override
+                public long expireAfterCreate(String id, Entrada entrada, long agora) {
+                    return entrada.validade().toNanos();
+                }
+
+                @Override
+                public long expireAfterUpdate(String id, Entrada entrada, long agora, long restante) {
+                    return entrada.validade().toNanos();
+                }
+
+                @Override
+                public long expireAfterRead(String id, Entrada entrada, long agora, long restante) {
+                    return restante;
+                }
+            })
+            .build();
+
+    @Override
+    public byte[] ler(String id) {
+        Entrada entrada = entradas.getIfPresent(id);
+        return entrada != null ? entrada.dados() : null;
+    }
+
+    @Override
+    public void gravar(String id, byte[] dados, Duration validade) {
+        entradas.put(id, new Entrada(dados, validade));
+    }
+
+    @Override
+    public void remover(String id) {
+        entradas.invalidate(id);
+    }
+
+    public long getQuantidade() {
+        return entradas.estimatedSize();
+    }
+}
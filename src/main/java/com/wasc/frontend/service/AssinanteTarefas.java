@@ -0,0 +1,13 @@
+package com.wasc.frontend.service;
+
+import java.io.IOException;
+
+// Canal de uma aba aberta em /tasks/eventos (SseEmitter na pilha servlet, Flux de ServerSentEvent na reativa)
+public interface AssinanteTarefas {
+
+    // Envia um evento; sem nome (null), só um comentário de keep-alive. Devolve false se o canal ainda não
+    // aceita mais nada: o evento volta a ficar pendente e é reenviado no próximo ciclo do poller.
+    boolean enviar(String evento, Object dados) throws IOException;
+
+    void encerrar();
+}
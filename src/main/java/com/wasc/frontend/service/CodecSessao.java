@@ -0,0 +1,114 @@
+package com.wasc.frontend.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Serialização compacta da SessaoPortatil: datas em segundos e atributos String gravados direto
+ * (jwtToken, loggedInUser), sem o cabeçalho de classes da serialização Java. "jwtDados" não é
+ * gravado; é refeito a partir do token na leitura (o JwtInspector guarda as claims por token).
+ * Outros atributos, se aparecerem, caem na serialização Java.
+ */
+@Component
+public class CodecSessao {
+
+    private static final byte VERSAO = 1;
+    private static final byte TIPO_TEXTO = 1;
+    private static final byte TIPO_SERIALIZADO = 2;
+
+    @Autowired
+    private JwtInspector jwtInspector;
+
+    public byte[] codificar(SessaoPortatil sessao) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(512);
+            DataOutputStream saida = new DataOutputStream(bytes);
+            saida.writeByte(VERSAO);
+            saida.writeLong(sessao.getCreationTime().getEpochSecond());
+            saida.writeLong(sessao.getLastAccessedTime().getEpochSecond());
+            saida.writeLong(sessao.getMaxInactiveInterval().toSeconds());
+
+            Map<String, Object> atributos = new HashMap<>(sessao.getAtributos());
+            atributos.remove("jwtDados");
+            saida.writeShort(atributos.size());
+            for (Map.Entry<String, Object> atributo : atributos.entrySet()) {
+                saida.writeUTF(atributo.getKey());
+                if (atributo.getValue() instanceof String texto) {
+                    saida.writeByte(TIPO_TEXTO);
+                    saida.writeUTF(texto);
+                } else {
+                    byte[] serializado = serializar(atributo.getValue());
+                    saida.writeByte(TIPO_SERIALIZADO);
+                    saida.writeInt(serializado.length);
+                    saida.write(serializado);
+                }
+            }
+            saida.flush();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Lança IllegalArgumentException se os bytes não forem de uma sessão desta versão
+    public SessaoPortatil decodificar(String id, byte[] dados) {
+        try {
+            DataInputStream entrada = new DataInputStream(new ByteArrayInputStream(dados));
+            if (entrada.readByte() != VERSAO) {
+                throw new IllegalArgumentException("Versão de sessão desconhecida");
+            }
+            Instant criadaEm = Instant.ofEpochSecond(entrada.readLong());
+            Instant acessadaEm = Instant.ofEpochSecond(entrada.readLong());
+            Duration inatividadeMaxima = Duration.ofSeconds(entrada.readLong());
+
+            int quantidade = entrada.readShort();
+            Map<String, Object> atributos = new HashMap<>(quantidade + 1);
+            for (int i = 0; i < quantidade; i++) {
+                String nome = entrada.readUTF();
+                byte tipo = entrada.readByte();
+                if (tipo == TIPO_TEXTO) {
+                    atributos.put(nome, entrada.readUTF());
+                } else if (tipo == TIPO_SERIALIZADO) {
+                    byte[] serializado = new byte[entrada.readInt()];
+                    entrada.readFully(serializado);
+                    atributos.put(nome, desserializar(serializado));
+                } else {
+                    throw new IllegalArgumentException("Tipo de atributo desconhecido: " + tipo);
+                }
+            }
+            if (atributos.get("jwtToken") instanceof String jwtToken) {
+                atributos.put("jwtDados", jwtInspector.ler(jwtToken));
+            }
+            return new SessaoPortatil(id, atributos, criadaEm, acessadaEm, inatividadeMaxima);
+        } catch (IOException | ClassNotFoundException e) {
+            throw new IllegalArgumentException("Sessão ilegível", e);
+        }
+    }
+
+    private static byte[] serializar(Object valor) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream saida = new ObjectOutputStream(bytes)) {
+            saida.writeObject(valor);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Object desserializar(byte[] serializado) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream entrada = new ObjectInputStream(new ByteArrayInputStream(serializado))) {
+            return entrada.readObject();
+        }
+    }
+}
@@ -0,0 +1,310 @@
+package com.wasc.frontend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wasc.frontend.model.RegistroEscrita;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Diário em disco das escritas adiadas: um arquivo só de acréscimos, com um RegistroEscrita em JSON por linha.
+ * A escrita aceita só é confirmada ao usuário depois do fsync, feito em grupo: quem grava enquanto um force()
+ * está em andamento espera o próximo, que cobre todas as linhas acumuladas de uma vez. Os desfechos
+ * (ENVIADA/RECUSADA) não esperam o disco: perdidos numa queda, a escrita é só reenviada.
+ * <p>
+ * Passado o limite de tamanho, o arquivo é reescrito só com as escritas ainda em aberto (e o id criado das
+ * criações que elas ainda referenciam), mesmo com envios em andamento. Locks em vez de monitores: com virtual
+ * threads, esperar o fsync dentro de um synchronized prenderia a thread de plataforma.
+ * <p>
+ * Na leitura, uma última linha incompleta (queda no meio da gravação) é descartada: aquela escrita nunca foi
+ * confirmada. O arquivo guarda os tokens das escritas; é criado legível só pelo dono, onde o sistema permite.
+ */
+public class DiarioEscritas implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(DiarioEscritas.class);
+
+    private final Path arquivo;
+    private final ObjectMapper json;
+    private final LongAdder sincronizacoes = new LongAdder();
+
+    // Guarda o canal, as escritas em aberto e os contadores de bytes gravados
+    private final ReentrantLock gravacao = new ReentrantLock();
+    // Guarda o estado do commit em grupo; sincronizado avisa o fim de cada force()
+    private final ReentrantLock disco = new ReentrantLock();
+    private final Condition sincronizado = disco.newCondition();
+
+    private FileChannel canal;
+    // Escritas (SALVAR/EXCLUIR) ainda sem desfecho e ENVIADA das criações, por seq, na ordem do arquivo
+    private final Map<Long, RegistroEscrita> abertas = new LinkedHashMap<>();
+    private final Map<Long, RegistroEscrita> criacoes = new LinkedHashMap<>();
+    private long tamanhoCompactado;
+
+    // Bytes gravados e já no disco, contados desde a abertura (não são posições: o arquivo pode ser reescrito)
+    private long gravados;
+    private long sincronizados;
+    private boolean sincronizando;
+
+    public DiarioEscritas(Path arquivo, ObjectMapper json) throws IOException {
+        this.arquivo = arquivo;
+        this.json = json;
+        Files.createDirectories(arquivo.toAbsolutePath().getParent());
+        if (Files.notExists(arquivo)) {
+            criar(arquivo);
+        }
+        this.canal = FileChannel.open(arquivo, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    private static void criar(Path arquivo) throws IOException {
+        try {
+            Files.createFile(arquivo, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+        } catch (UnsupportedOperationException e) {
+            Files.createFile(arquivo);
+        }
+    }
+
+    // Registros gravados até aqui, na ordem; corta uma linha final incompleta para os próximos acréscimos
+    public List<RegistroEscrita> ler() throws IOException {
+        gravacao.lock();
+        try {
+            byte[] conteudo = Files.readAllBytes(arquivo);
+            List<RegistroEscrita> registros = new ArrayList<>();
+            int inicio = 0;
+            for (int i = 0; i < conteudo.length; i++) {
+                if (conteudo[i] != '\n') {
+                    continue;
+                }
+                if (i > inicio) {
+                    try {
+                        RegistroEscrita registro = json.readValue(conteudo, inicio, i - inicio, RegistroEscrita.class);
+                        registros.add(registro);
+                        acompanhar(registro);
+                    } catch (JsonProcessingException e) {
+                        log.warn("Linha ilegível no diário de escritas (byte {}), ignorada: {}", inicio, e.getOriginalMessage());
+                    }
+                }
+                inicio = i + 1;
+            }
+            if (inicio < conteudo.length) {
+                log.warn("Diário de escritas terminava numa linha incompleta ({} bytes), descartada", conteudo.length - inicio);
+            }
+            canal.truncate(inicio);
+            canal.position(inicio);
+            return registros;
+        } finally {
+            gravacao.unlock();
+        }
+    }
+
+    // Grava e só volta quando o registro está no disco
+    public void gravar(RegistroEscrita registro) throws IOException {
+        sincronizar(acrescentar(registro));
+    }
+
+    // Grava sem esperar o disco (vai junto com o próximo fsync)
+    public void anotar(RegistroEscrita registro) throws IOException {
+        acrescentar(registro);
+    }
+
+    // Passado o limite, reescreve o arquivo só com o que ainda
+    // está em aberto. Toma a vez do commit em grupo: o que já foi gravado sai no disco junto com o arquivo novo.
+    public boolean compactarSe(long acimaDe) throws IOException {
+        gravacao.lock();
+        try {
+            if (!deveCompactar(acimaDe)) {
+                return false;
+            }
+        } finally {
+            gravacao.unlock();
+        }
+
+        aguardarVez();
+        boolean reescrito = false;
+        try {
+            gravacao.lock();
+            try {
+                if (!deveCompactar(acimaDe)) {
+                    return false;
+                }
+                reescrever();
+                reescrito = true;
+                return true;
+            } finally {
+                gravacao.unlock();
+            }
+        } finally {
+            liberarVez(reescrito ? gravados : -1);
+        }
+    }
+
+    // Com o lock de gravação. Sem nada em aberto a reescrita é só um truncate; com escritas em aberto, espera o
+    // arquivo dobrar desde a última, para não reescrever as mesmas a cada desfecho
+    private boolean deveCompactar(long acimaDe) throws IOException {
+        long tamanho = canal.size();
+        return tamanho > acimaDe && (abertas.isEmpty() || tamanho > 2 * tamanhoCompactado);
+    }
+
+    public long getSincronizacoes() {
+        return sincronizacoes.sum();
+    }
+
+    private long acrescentar(RegistroEscrita registro) throws IOException {
+        byte[] linha = json.writeValueAsBytes(registro);
+        ByteBuffer buffer = ByteBuffer.allocate(linha.length + 1).put(linha).put((byte) '\n').flip();
+        gravacao.lock();
+        try {
+            while (buffer.hasRemaining()) {
+                canal.write(buffer);
+            }
+            acompanhar(registro);
+            gravados += linha.length + 1;
+            return gravados;
+        } finally {
+            gravacao.unlock();
+        }
+    }
+
+    // Mantém o que a compactação precisa guardar: as escritas sem desfecho e os ids dados às criações
+    private void acompanhar(RegistroEscrita registro) {
+        switch (registro.getTipo()) {
+            case SALVAR, EXCLUIR -> abertas.put(registro.getSeq(), registro);
+            case ENVIADA -> {
+                abertas.remove(registro.getSeq());
+                if (registro.getIdCriado() != null) {
+                    criacoes.put(registro.getSeq(), registro);
+                }
+            }
+            case RECUSADA -> abertas.remove(registro.getSeq());
+        }
+    }
+
+    // Com o lock de gravação: grava o arquivo novo ao lado, no disco, e troca pelo atual
+    private void reescrever() throws IOException {
+        // Uma criação só interessa enquanto houver escrita em aberto com o id provisório dela (-seq)
+        criacoes.keySet().removeIf(seq -> abertas.values().stream().noneMatch(a -> Long.valueOf(-seq).equals(a.getTarefaId())));
+        Path novo = arquivo.resolveSibling(arquivo.getFileName() + ".novo");
+        Files.deleteIfExists(novo);
+        criar(novo);
+        long tamanho = 0;
+        try (FileChannel saida = FileChannel.open(novo, StandardOpenOption.WRITE)) {
+            List<RegistroEscrita> mantidos = new ArrayList<>(criacoes.values());
+            mantidos.addAll(abertas.values());
+            for (RegistroEscrita registro : mantidos) {
+                byte[] linha = json.writeValueAsBytes(registro);
+                ByteBuffer buffer = ByteBuffer.allocate(linha.length + 1).put(linha).put((byte) '\n').flip();
+                while (buffer.hasRemaining()) {
+                    tamanho += saida.write(buffer);
+                }
+            }
+            saida.force(true);
+        }
+        Files.move(novo, arquivo, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        canal.close();
+        canal = FileChannel.open(arquivo, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        canal.position(tamanho);
+        tamanhoCompactado = tamanho;
+    }
+
+    // Commit em grupo: uma thread faz o force() por todas que chegaram até ali; as outras esperam por ele
+    private void sincronizar(long ate) throws IOException {
+        disco.lock();
+        try {
+            while (sincronizados < ate && sincronizando) {
+                aguardar();
+            }
+            if (sincronizados >= ate) {
+                return;
+            }
+            sincronizando = true;
+        } finally {
+            disco.unlock();
+        }
+
+        long alvo = -1;
+        try {
+            FileChannel atual;
+            gravacao.lock();
+            try {
+                alvo = gravados;
+                atual = canal;
+            } finally {
+                gravacao.unlock();
+            }
+            // A compactação espera a vez do commit em grupo: o canal não é trocado durante o force()
+            atual.force(false);
+            sincronizacoes.increment();
+        } catch (IOException | RuntimeException e) {
+            alvo = -1;
+            throw e;
+        } finally {
+            liberarVez(alvo); // Se falhou, a próxima thread tenta o force() de novo
+        }
+    }
+
+    private void aguardarVez() throws IOException {
+        disco.lock();
+        try {
+            while (sincronizando) {
+                aguardar();
+            }
+            sincronizando = true;
+        } finally {
+            disco.unlock();
+        }
+    }
+
+    // Devolve a vez; alvo, se não negativo, são os bytes que ficaram no disco
+    private void liberarVez(long alvo) {
+        disco.lock();
+        try {
+            sincronizando = false;
+            sincronizados = Math.max(sincronizados, alvo);
+            sincronizado.signalAll();
+        } finally {
+            disco.unlock();
+        }
+    }
+
+    // Com o lock do disco
+    private void aguardar() throws InterruptedIOException {
+        try {
+            sincronizado.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrompido esperando o fsync do diário");
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        gravacao.lock();
+        try {
+            canal.force(false);
+            canal.close();
+        } finally {
+            gravacao.unlock();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return arquivo.toString();
+    }
+}
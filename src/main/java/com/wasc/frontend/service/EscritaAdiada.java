@@ -0,0 +1,488 @@
+package com.wasc.frontend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.wasc.frontend.model.AcaoLote;
+import com.wasc.frontend.model.RegistroEscrita;
+import com.wasc.frontend.model.ResultadoLote;
+import com.wasc.frontend.model.Tarefa;
+import com.wasc.frontend.model.Usuario;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Escritas adiadas (tarefas.escrita.modo=adiada): salvar e excluir não esperam o backend. A escrita vai para o
+ * DiarioEscritas (no disco, antes da resposta) e para a lista em cache, e a página já volta com ela; o envio ao
+ * backend segue em segundo plano. As escritas de uma mesma tarefa saem em ordem, uma por vez, e tarefas diferentes
+ * em paralelo (tarefas.escrita.concorrencia).
+ * <p>
+ * Falhas transitórias (5xx, timeout, circuito aberto, 408/429) são repetidas com espera exponencial, até
+ * tarefas.escrita.tentativas. Uma recusa do backend (outros 4xx, como 404 ou 409), um 401/403 ou as tentativas
+ * esgotadas viram um conflito: a lista volta a ser a do backend e a mensagem aparece na próxima página do usuário.
+ * <p>
+ * Uma tarefa criada recebe um id provisório negativo até o backend devolver o definitivo. Ao iniciar, as escritas
+ * do diário ainda sem desfecho são reenviadas, na mesma ordem. A entrega é "pelo menos uma vez": uma queda entre
+ * o envio e o registro do desfecho faz a escrita ser repetida (numa criação, a tarefa pode sair duplicada).
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "tarefas.escrita.modo", havingValue = "adiada")
+public class EscritaAdiada implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(EscritaAdiada.class);
+
+    // Criação enviada, mas o backend não devolveu o id: as escritas seguintes não têm como apontar para a tarefa
+    private static final long SEM_ID = 0L;
+
+    @Value("${tarefas.escrita.diretorio:./dados}")
+    private Path diretorio;
+
+    @Value("${tarefas.escrita.tentativas:20}")
+    private int tentativas;
+
+    @Value("${tarefas.escrita.espera-retry:1s}")
+    private Duration esperaRetry;
+
+    @Value("${tarefas.escrita.espera-maxima:2m}")
+    private Duration esperaMaxima;
+
+    // Passando disso, o diário é reescrito só com as escritas ainda sem desfecho
+    @Value("${tarefas.escrita.compactar-acima:1MB}")
+    private DataSize compactarAcima;
+
+    @Autowired
+    private ApiService apiService;
+
+    @Autowired
+    private TarefaCache tarefaCache;
+
+    @Autowired
+    private JwtInspector jwtInspector;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    @Qualifier("escritaScheduler")
+    private TaskScheduler scheduler;
+
+    // O mesmo scheduler, para os envios sem espera
+    @Autowired
+    @Qualifier("escritaScheduler")
+    private Executor executor;
+
+    private DiarioEscritas diario;
+    private volatile boolean encerrando;
+    private final AtomicLong sequencia = new AtomicLong();
+    private final AtomicInteger pendentes = new AtomicInteger(); // Aceitas e ainda sem desfecho
+    private final Map<Long, Fila> filas = new HashMap<>(); // Por tarefa; guardado pelo próprio mapa
+    // Id definitivo -> provisório de uma tarefa criada: enquanto a fila do provisório tiver escritas, as que chegam
+    // pelo definitivo entram nela, para a tarefa seguir com uma fila só. Guardado por filas.
+    private final Map<Long, Long> apelidos = new HashMap<>();
+    private final Map<String, String> ultimosTokens = new ConcurrentHashMap<>(); // Usuário -> token mais recente
+
+    // Id provisório -> definitivo, para as escritas (e páginas) que ainda usam o provisório
+    private final Cache<Long, Long> idsCriados = Caffeine.newBuilder()
+            .expireAfterWrite(Duration.ofDays(1))
+            .build();
+
+    // Mensagens das escritas recusadas, por usuário, até a próxima página
+    private final Cache<String, Queue<String>> conflitos = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterWrite(Duration.ofHours(1))
+            .build();
+
+    private final LongAdder enviadas = new LongAdder();
+    private final LongAdder recusadas = new LongAdder();
+    private final LongAdder repetidas = new LongAdder();
+
+    // Escritas em espera de uma tarefa; só uma é enviada por vez. Os ids são os das escritas (o provisório e,
+    // depois da criação, o definitivo), por usuário que escreveu: cada um tem a sua entrada na lista em cache dele.
+    private static final class Fila {
+        private final Deque<RegistroEscrita> escritas = new ArrayDeque<>();
+        private final Map<String, Set<Long>> ids = new HashMap<>();
+        private int tentativas;
+    }
+
+    // Reabre o diário e reenvia, na ordem, o que ficou sem desfecho (queda ou reinício com o backend fora)
+    @PostConstruct
+    void recuperar() throws IOException {
+        diario = new DiarioEscritas(diretorio.resolve("escritas.jsonl"), objectMapper);
+        Map<Long, RegistroEscrita> abertas = new LinkedHashMap<>();
+        long maior = 0;
+        for (RegistroEscrita registro : diario.ler()) {
+            maior = Math.max(maior, registro.getSeq());
+            switch (registro.getTipo()) {
+                case SALVAR, EXCLUIR -> abertas.put(registro.getSeq(), registro);
+                case ENVIADA -> {
+                    abertas.remove(registro.getSeq());
+                    if (registro.getIdCriado() != null) {
+                        // Depois de compactado, o diário guarda só o desfecho da criação, sem a escrita
+                        criada(-registro.getSeq(), registro.getIdCriado());
+                    }
+                }
+                case RECUSADA -> abertas.remove(registro.getSeq());
+            }
+        }
+        sequencia.set(maior);
+
+        for (RegistroEscrita escrita : abertas.values()) {
+            pendentes.incrementAndGet();
+            ultimosTokens.put(jwtInspector.usuario(escrita.getJwtToken()), escrita.getJwtToken());
+            enfileirar(escrita);
+        }
+        if (!abertas.isEmpty()) {
+            log.info("{} escrita(s) sem desfecho recuperada(s) do diário {}; reenviando", abertas.size(), diario);
+        }
+        compactar();
+    }
+
+    // O que ainda não saiu fica no diário, para a próxima instância
+    @PreDestroy
+    void fechar() throws IOException {
+        encerrando = true;
+        diario.close();
+    }
+
+    // Aceita a tarefa (nova ou alterada): no disco e na lista em cache. Devolve a tarefa como aparece na página
+    // (uma nova, com o id provisório).
+    public Tarefa salvar(Tarefa tarefa, String jwtToken) throws IOException {
+        long seq = sequencia.incrementAndGet();
+        Long id = tarefa.getId() == null ? -seq : definitivo(tarefa.getId());
+        Tarefa aceita = new Tarefa(id, tarefa.getTitulo(), tarefa.getDescricao(), tarefa.getData(), tarefa.isStatus(),
+                tarefa.getUsuario());
+        aceitar(RegistroEscrita.salvar(seq, aceita, jwtToken));
+        return aceita;
+    }
+
+    public void excluir(Long id, String jwtToken) throws IOException {
+        aceitar(RegistroEscrita.excluir(sequencia.incrementAndGet(), definitivo(id), jwtToken));
+    }
+
+    // Ações da página (lote e Concluir/Reabrir de uma linha) também passam pelo diário, na fila de cada tarefa:
+    // escritas diretas ao backend seriam sobrescritas por uma escrita mais antiga ainda na fila. A tarefa sai da
+    // escrita pendente, se houver (é a versão que a página mostra), ou da lista em cache.
+    public ResultadoLote executarLote(AcaoLote acao, List<Long> ids, Long usuarioId, String jwtToken) {
+        List<ResultadoLote.Item> itens = new ArrayList<>(ids.size());
+        for (Long id : new LinkedHashSet<>(ids)) {
+            try {
+                if (acao == AcaoLote.EXCLUIR) {
+                    excluir(id, jwtToken);
+                } else {
+                    Optional<Tarefa> pendente = tarefaCache.getEscritaPendente(jwtToken, id);
+                    Tarefa atual = pendente != null ? pendente.orElse(null) : tarefaCache.getTarefa(jwtToken, id);
+                    if (atual == null && pendente == null && id > 0) {
+                        atual = apiService.getTarefa(id, jwtToken).orElse(null);
+                    }
+                    if (atual == null) {
+                        itens.add(new ResultadoLote.Item(id, false, "Tarefa não encontrada"));
+                        continue;
+                    }
+                    salvar(acao.aplicar(atual, usuarioId), jwtToken);
+                }
+                itens.add(new ResultadoLote.Item(id, true, null));
+            } catch (IOException | UncheckedIOException e) {
+                log.warn("Lote {}: não foi possível registrar a tarefa {}: {}", acao, id, e.getMessage());
+                itens.add(new ResultadoLote.Item(id, false, "Não foi possível registrar a alteração"));
+            }
+        }
+        return new ResultadoLote(acao, itens);
+    }
+
+    // Conflitos ainda não exibidos ao usuário; saem da fila ao serem lidos
+    public List<String> conflitos(String jwtToken) {
+        Queue<String> fila = conflitos.asMap().remove(jwtInspector.usuario(jwtToken));
+        return fila != null ? new ArrayList<>(fila) : List.of();
+    }
+
+    // Escritas do usuário ainda sem desfecho: a lista lida direto do backend (streaming) não as mostraria
+    public boolean temPendentes(String jwtToken) {
+        return tarefaCache.temEscritasPendentes(jwtToken);
+    }
+
+    public int getPendentes() {
+        return pendentes.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("tarefas.escrita.pendentes", pendentes, AtomicInteger::get).register(registry);
+        FunctionCounter.builder("tarefas.escrita.envios", enviadas, LongAdder::sum)
+                .tag("resultado", "enviada").register(registry);
+        FunctionCounter.builder("tarefas.escrita.envios", recusadas, LongAdder::sum)
+                .tag("resultado", "recusada").register(registry);
+        FunctionCounter.builder("tarefas.escrita.envios", repetidas, LongAdder::sum)
+                .tag("resultado", "repetida").register(registry);
+        // Menos fsyncs que escritas aceitas: várias escritas simultâneas dividiram o mesmo
+        FunctionCounter.builder("tarefas.escrita.fsync", this, e -> e.diario != null ? e.diario.getSincronizacoes() : 0)
+                .register(registry);
+    }
+
+    private void aceitar(RegistroEscrita escrita) throws IOException {
+        pendentes.incrementAndGet();
+        try {
+            diario.gravar(escrita);
+        } catch (IOException | RuntimeException e) {
+            pendentes.decrementAndGet();
+            throw e;
+        }
+        ultimosTokens.put(jwtInspector.usuario(escrita.getJwtToken()), escrita.getJwtToken());
+        enfileirar(escrita);
+    }
+
+    // A fila e a lista em cache mudam juntas, para o fim de um envio não apagar uma escrita recém-chegada
+    private void enfileirar(RegistroEscrita escrita) {
+        Long chave;
+        boolean iniciar;
+        synchronized (filas) {
+            Long provisorio = apelidos.get(escrita.getTarefaId());
+            chave = provisorio != null && filas.containsKey(provisorio) ? provisorio : escrita.getTarefaId();
+            Fila fila = filas.computeIfAbsent(chave, k -> new Fila());
+            iniciar = fila.escritas.isEmpty();
+            fila.escritas.add(escrita);
+            fila.ids.computeIfAbsent(jwtInspector.usuario(escrita.getJwtToken()), k -> new HashSet<>())
+                    .add(escrita.getTarefaId());
+            tarefaCache.escritaPendente(escrita.getJwtToken(), escrita.getTarefaId(),
+                    escrita.getTipo() == RegistroEscrita.Tipo.SALVAR ? escrita.getTarefa() : null);
+        }
+        if (iniciar) {
+            agendar(() -> processar(chave), Duration.ZERO);
+        }
+    }
+
+    private void processar(Long chave) {
+        if (encerrando) {
+            return;
+        }
+        RegistroEscrita escrita;
+        int tentativa;
+        synchronized (filas) {
+            Fila fila = filas.get(chave);
+            escrita = fila.escritas.peek();
+            tentativa = ++fila.tentativas;
+        }
+
+        Tarefa salva = null;
+        String recusa = null;
+        try {
+            Long id = escrita.getTarefaId() < 0 ? idsCriados.getIfPresent(escrita.getTarefaId()) : escrita.getTarefaId();
+            if (id == null && !isCriacao(escrita)) {
+                // A criação foi recusada (ou o id se perdeu num reinício): só a própria criação faz POST.
+                // Excluir o que não foi criado não tem efeito; alterar vira conflito.
+                if (escrita.getTipo() == RegistroEscrita.Tipo.SALVAR) {
+                    recusa = "a criação da tarefa não foi aceita pelo backend";
+                }
+            } else if (id != null && id == SEM_ID) {
+                recusa = "o backend não informou o id da tarefa criada";
+            } else {
+                salva = enviar(escrita, id);
+            }
+        } catch (HttpClientErrorException.Unauthorized | HttpClientErrorException.Forbidden e) {
+            recusa = "a sessão expirou antes do envio; entre de novo e refaça a alteração";
+        } catch (RuntimeException e) {
+            int status = e instanceof HttpClientErrorException c ? c.getStatusCode().value() : 0;
+            if (status != 0 && status != 408 && status != 429) {
+                recusa = "recusada pelo backend (" + status + ")";
+            } else if (tentativa < tentativas) {
+                repetidas.increment();
+                Duration espera = espera(tentativa);
+                log.info("Escrita {} da tarefa {} falhou ({}); nova tentativa em {} ms", escrita.getSeq(), chave,
+                        e.getMessage(), espera.toMillis());
+                agendar(() -> processar(chave), espera);
+                return;
+            } else {
+                recusa = "backend indisponível após " + tentativa + " tentativas";
+            }
+        }
+        concluir(chave, escrita, salva, recusa);
+    }
+
+    // Envia com o token mais recente do usuário (o da escrita pode ter vencido enquanto ela esperava).
+    // id null só na criação (POST).
+    private Tarefa enviar(RegistroEscrita escrita, Long id) {
+        String jwtToken = ultimosTokens.getOrDefault(jwtInspector.usuario(escrita.getJwtToken()), escrita.getJwtToken());
+
+        if (escrita.getTipo() == RegistroEscrita.Tipo.EXCLUIR) {
+            apiService.enviarExclusao(id, jwtToken);
+            return null;
+        }
+
+        Tarefa aceita = escrita.getTarefa();
+        Usuario usuario = null;
+        if (aceita.getUsuario() != null) {
+            usuario = new Usuario();
+            usuario.setId(aceita.getUsuario().getId()); // Como no formulário: só o id do usuário
+        }
+        Tarefa envio = new Tarefa(id, aceita.getTitulo(), aceita.getDescricao(), aceita.getData(), aceita.isStatus(), usuario);
+        Tarefa salva = apiService.enviarTarefa(envio, jwtToken); // Sem id: POST (criação)
+        boolean comId = salva != null && salva.getId() != null;
+        if (id == null) {
+            criada(escrita.getTarefaId(), comId ? salva.getId() : null);
+        }
+        return comId ? salva : envio;
+    }
+
+    private void criada(Long provisorio, Long definitivo) {
+        synchronized (filas) {
+            idsCriados.put(provisorio, definitivo != null ? definitivo : SEM_ID);
+            if (definitivo != null) {
+                apelidos.put(definitivo, provisorio);
+            }
+        }
+    }
+
+    private void concluir(Long chave, RegistroEscrita escrita, Tarefa salva, String recusa) {
+        String jwtToken = escrita.getJwtToken();
+        try {
+            diario.anotar(recusa == null
+                    ? RegistroEscrita.enviada(escrita.getSeq(), isCriacao(escrita) ? idsCriados.getIfPresent(chave) : null)
+                    : RegistroEscrita.recusada(escrita.getSeq(), recusa));
+        } catch (IOException e) {
+            log.warn("Não foi possível anotar o desfecho da escrita {} no diário (será reenviada ao reiniciar): {}",
+                    escrita.getSeq(), e.getMessage());
+        }
+
+        if (recusa == null) {
+            enviadas.increment();
+        } else {
+            recusadas.increment();
+            log.warn("Escrita {} da tarefa {} recusada: {}", escrita.getSeq(), chave, recusa);
+            conflitos.get(jwtInspector.usuario(jwtToken), k -> new ConcurrentLinkedQueue<>()).add(mensagem(escrita, recusa));
+        }
+
+        boolean ultima;
+        synchronized (filas) {
+            Fila fila = filas.get(chave);
+            fila.escritas.poll();
+            fila.tentativas = 0;
+            ultima = fila.escritas.isEmpty();
+            if (ultima) {
+                // Só a última escrita da tarefa atualiza a lista: antes dela, a página mostra a mais recente aceita.
+                // Quem mais escreveu na tarefa relê a lista do backend: a dele mostra a própria escrita, já superada.
+                filas.remove(chave);
+                String usuario = jwtInspector.usuario(jwtToken);
+                fila.ids.forEach((dono, ids) -> {
+                    String token = dono.equals(usuario) ? jwtToken : ultimosTokens.getOrDefault(dono, jwtToken);
+                    ids.forEach(id -> tarefaCache.escritaConcluida(token, id));
+                    if (!dono.equals(usuario)) {
+                        tarefaCache.invalidarTarefas(token);
+                    }
+                });
+                if (chave < 0) {
+                    Long criado = idsCriados.getIfPresent(chave);
+                    if (criado != null) {
+                        apelidos.remove(criado); // Daqui em diante a tarefa segue pelo id definitivo
+                    }
+                }
+                if (recusa != null) {
+                    tarefaCache.invalidarTarefas(jwtToken); // A próxima página mostra o que o backend tem
+                } else {
+                    if (chave < 0) {
+                        tarefaCache.tarefaExcluida(jwtToken, chave); // A linha provisória dá lugar à definitiva
+                    }
+                    if (salva != null) {
+                        tarefaCache.tarefaSalva(jwtToken, salva);
+                    }
+                }
+            }
+        }
+
+        pendentes.decrementAndGet();
+        if (!ultima) {
+            agendar(() -> processar(chave), Duration.ZERO);
+        }
+        compactar();
+    }
+
+    private void agendar(Runnable envio, Duration espera) {
+        try {
+            if (espera.isZero()) {
+                executor.execute(envio);
+            } else {
+                scheduler.schedule(envio, Instant.now().plus(espera));
+            }
+        } catch (TaskRejectedException e) {
+            // Só acontece com a aplicação parando (o scheduler para antes deste bean): a escrita segue no diário
+            log.debug("Envio não agendado, aplicação parando: {}", e.getMessage());
+        }
+    }
+
+    private void compactar() {
+        try {
+            if (diario.compactarSe(compactarAcima.toBytes())) {
+                log.debug("Diário de escritas compactado");
+            }
+        } catch (IOException e) {
+            log.warn("Não foi possível compactar o diário de escritas", e);
+        }
+    }
+
+    // O provisório enquanto a fila dele tiver escritas (a tarefa segue numa fila só); depois, o definitivo
+    private Long definitivo(Long id) {
+        if (id >= 0) {
+            return id;
+        }
+        synchronized (filas) {
+            Long criado = idsCriados.getIfPresent(id);
+            return criado != null && criado != SEM_ID && !filas.containsKey(id) ? criado : id;
+        }
+    }
+
+    private Duration espera(int tentativa) {
+        Duration espera = esperaRetry.multipliedBy(1L << Math.min(tentativa - 1, 20));
+        return espera.compareTo(esperaMaxima) > 0 ? esperaMaxima : espera;
+    }
+
+    // A primeira escrita de uma tarefa nova usa o próprio seq como id provisório
+    private static boolean isCriacao(RegistroEscrita escrita) {
+        return escrita.getTipo() == RegistroEscrita.Tipo.SALVAR && escrita.getTarefaId() == -escrita.getSeq();
+    }
+
+    private static String mensagem(RegistroEscrita escrita, String recusa) {
+        if (escrita.getTipo() == RegistroEscrita.Tipo.EXCLUIR) {
+            return "A exclusão da tarefa " + escrita.getTarefaId() + " não foi feita: " + recusa + ".";
+        }
+        return "A tarefa \"" + escrita.getTarefa().getTitulo() + "\" não foi salva: " + recusa + ".";
+    }
+}
@@ -0,0 +1,72 @@
+package com.wasc.frontend.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.wasc.frontend.model.DadosToken;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Lê as claims do JWT (sub, exp, roles) sem validar a assinatura, uma vez por token.
+ * Serve para não gastar uma ida ao backend com um token já vencido (o 401 é certo)
+ * e para saber quando renová-lo antes do vencimento.
+ */
+@Component
+public class JwtInspector {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final Cache<String, DadosToken> lidos = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterAccess(Duration.ofHours(1))
+            .build();
+
+    // Folga para diferenças de relógio com o backend: o token é tratado como vencido um pouco antes do "exp"
+    @Value("${api.auth.margem-expiracao:30s}")
+    private Duration margemExpiracao;
+
+    public DadosToken ler(String jwtToken) {
+        return lidos.get(jwtToken, JwtInspector::decodificar);
+    }
+
+    // Identifica o dono do token (subject); sem subject, o próprio token. Chave das listas, pollers e escritas por usuário
+    public String usuario(String jwtToken) {
+        String subject = ler(jwtToken).getSubject();
+        return subject != null ? subject : jwtToken;
+    }
+
+    public boolean isExpirado(DadosToken dados) {
+        return dados.getExpiraEm() != null && !Instant.now().plus(margemExpiracao).isBefore(dados.getExpiraEm());
+    }
+
+    public boolean venceEm(DadosToken dados, Duration prazo) {
+        return dados.getExpiraEm() != null && !Instant.now().plus(prazo).isBefore(dados.getExpiraEm());
+    }
+
+    static DadosToken decodificar(String jwtToken) {
+        try {
+            String[] partes = jwtToken.split("\\.");
+            JsonNode claims = JSON.readTree(Base64.getUrlDecoder().decode(partes[1]));
+            JsonNode sub = claims.get("sub");
+            JsonNode exp = claims.get("exp");
+            List<String> roles = new ArrayList<>();
+            if (claims.get("roles") != null) {
+                claims.get("roles").forEach(role -> roles.add(role.asText()));
+            }
+            return new DadosToken(
+                    sub != null ? sub.asText() : null,
+                    exp != null && exp.canConvertToLong() ? Instant.ofEpochSecond(exp.asLong()) : null,
+                    List.copyOf(roles));
+        } catch (Exception e) {
+            return DadosToken.ILEGIVEL; // Token opaco ou malformado: o backend decide
+        }
+    }
+}
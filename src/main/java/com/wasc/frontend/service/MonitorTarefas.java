@@ -0,0 +1,346 @@
+package com.wasc.frontend.service;
+
+import com.wasc.frontend.model.DiffTarefas;
+import com.wasc.frontend.model.ListaTarefas;
+import com.wasc.frontend.model.RespostaParcial;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Atualizações ao vivo da página de tarefas (/tasks/eventos). Cada usuário tem um único poller, com quantas
+ * abas tiver abertas: a cada tarefas.ao-vivo.intervalo ele lê a lista pelo ApiService (ou seja, pelo TarefaCache:
+ * no máximo um GET condicional ao backend por api.cache.ttl), compara com a leitura anterior pelo id e entrega a
+ * diferença a todas as abas. O poller para quando a última aba do usuário fecha.
+ * <p>
+ * Uma aba lenta não atrasa as outras: cada conexão envia um evento por vez e, enquanto isso, as diferenças seguintes
+ * são mescladas numa só, com a última versão de cada tarefa. Se a diferença acumulada passar de
+ * tarefas.ao-vivo.max-pendentes tarefas, a aba recebe "ressincronizar" no lugar dela. Conexões sem nenhuma entrega
+ * (nem o keep-alive) há tarefas.ao-vivo.inatividade são encerradas, e a mais antiga também, quando o usuário passa
+ * de tarefas.ao-vivo.max-conexoes abas.
+ */
+@Component
+public class MonitorTarefas implements MeterBinder {
+
+    public static final String EVENTO_TAREFAS = "tarefas";
+    public static final String EVENTO_RESSINCRONIZAR = "ressincronizar";
+    public static final String EVENTO_SESSAO = "sessao";
+
+    private static final Logger log = LoggerFactory.getLogger(MonitorTarefas.class);
+
+    private static final List<String> MOTIVOS = List.of("inatividade", "limite", "erro", "sessao");
+
+    @Value("${tarefas.ao-vivo.intervalo:15s}")
+    private Duration intervalo;
+
+    @Value("${tarefas.ao-vivo.inatividade:2m}")
+    private Duration inatividade;
+
+    @Value("${tarefas.ao-vivo.max-conexoes:10}")
+    private int maxConexoes;
+
+    @Value("${tarefas.ao-vivo.max-pendentes:200}")
+    private int maxPendentes;
+
+    @Value("${api.fanout.timeout:10s}")
+    private Duration prazoCarga;
+
+    // Só um dos dois existe, conforme a pilha web
+    @Autowired
+    private ObjectProvider<ApiService> apiService;
+
+    @Autowired
+    private ObjectProvider<ReactiveApiService> reactiveApiService;
+
+    @Autowired
+    private JwtInspector jwtInspector;
+
+    @Autowired
+    @Qualifier("aoVivoScheduler")
+    private TaskScheduler scheduler;
+
+    // Envios às abas, separados dos pollers: SseEmitter.send bloqueia enquanto a aba não lê
+    @Autowired
+    @Qualifier("aoVivoEnvio")
+    private Executor executor;
+
+    private final ConcurrentMap<String, Poller> pollers = new ConcurrentHashMap<>();
+    private final LongAdder cargas = new LongAdder();
+    private final LongAdder diferencas = new LongAdder();
+    private final LongAdder ressincronizacoes = new LongAdder();
+    private final Map<String, LongAdder> encerradas = new ConcurrentHashMap<>();
+
+    // Registra uma aba do usuário dono do token; o canal deve chamar cancelar() quando fechar
+    public Conexao assinar(String jwtToken, AssinanteTarefas assinante) {
+        String chave = jwtInspector.usuario(jwtToken); // Abas com tokens diferentes do mesmo usuário dividem o poller
+        Conexao conexao = new Conexao(chave, assinante);
+        List<Conexao> excedentes = new ArrayList<>();
+        pollers.compute(chave, (k, poller) -> {
+            if (poller == null) {
+                poller = new Poller();
+                poller.agendamento = scheduler.scheduleWithFixedDelay(poller::verificar, intervalo);
+            }
+            poller.jwtToken = jwtToken; // O mais recente, caso o token tenha sido renovado
+            poller.conexoes.add(conexao);
+            Iterator<Conexao> maisAntigas = poller.conexoes.iterator();
+            while (poller.conexoes.size() - excedentes.size() > maxConexoes) {
+                excedentes.add(maisAntigas.next());
+            }
+            return poller;
+        });
+        excedentes.forEach(c -> encerrar(c, "limite"));
+        return conexao;
+    }
+
+    public void cancelar(Conexao conexao) {
+        remover(conexao);
+    }
+
+    public int getPollersAtivos() {
+        return pollers.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("tarefas.ao-vivo.pollers", pollers, Map::size).register(registry);
+        Gauge.builder("tarefas.ao-vivo.conexoes", pollers, p -> p.values().stream().mapToInt(x -> x.conexoes.size()).sum())
+                .register(registry);
+        FunctionCounter.builder("tarefas.ao-vivo.cargas", cargas, LongAdder::sum).register(registry);
+        FunctionCounter.builder("tarefas.ao-vivo.eventos", diferencas, LongAdder::sum)
+                .tag("tipo", EVENTO_TAREFAS).register(registry);
+        FunctionCounter.builder("tarefas.ao-vivo.eventos", ressincronizacoes, LongAdder::sum)
+                .tag("tipo", EVENTO_RESSINCRONIZAR).register(registry);
+        for (String motivo : MOTIVOS) {
+            FunctionCounter.builder("tarefas.ao-vivo.encerradas", encerrada(motivo), LongAdder::sum)
+                    .tag("motivo", motivo).register(registry);
+        }
+    }
+
+    private LongAdder encerrada(String motivo) {
+        return encerradas.computeIfAbsent(motivo, m -> new LongAdder());
+    }
+
+    private boolean remover(Conexao conexao) {
+        boolean[] removida = {false};
+        pollers.computeIfPresent(conexao.chave, (k, poller) -> {
+            removida[0] = poller.conexoes.remove(conexao);
+            if (poller.conexoes.isEmpty()) {
+                poller.agendamento.cancel(false);
+                return null;
+            }
+            return poller;
+        });
+        return removida[0];
+    }
+
+    private void encerrar(Conexao conexao, String motivo) {
+        if (remover(conexao)) {
+            encerrada(motivo).increment();
+            conexao.assinante.encerrar();
+        }
+    }
+
+    private ListaTarefas carregar(String jwtToken) {
+        ApiService servlet = apiService.getIfAvailable();
+        if (servlet != null) {
+            return servlet.getListaTarefas(jwtToken);
+        }
+        // Fora do event loop (thread do aoVivoScheduler): aqui pode bloquear
+        return reactiveApiService.getObject().getListaTarefas(jwtToken).block(prazoCarga);
+    }
+
+    private static boolean isNaoAutorizado(Throwable e) {
+        return e instanceof HttpClientErrorException.Unauthorized || e instanceof HttpClientErrorException.Forbidden
+                || ReactiveApiService.isNaoAutorizado(e);
+    }
+
+    private final class Poller {
+
+        private final Set<Conexao> conexoes = new CopyOnWriteArraySet<>(); // Em ordem de chegada
+        private volatile String jwtToken;
+        private ScheduledFuture<?> agendamento;
+        private ListaTarefas anterior; // Só lida e escrita pela execução agendada, que nunca se sobrepõe
+
+        void verificar() {
+            ListaTarefas atual;
+            try {
+                atual = carregar(jwtToken);
+                cargas.increment();
+            } catch (RuntimeException e) {
+                if (isNaoAutorizado(e)) {
+                    RespostaParcial expirada = new RespostaParcial("Sessão expirada. Faça login novamente.", "/login");
+                    conexoes.forEach(c -> c.encerrarCom(EVENTO_SESSAO, expirada));
+                } else {
+                    log.warn("Erro ao verificar tarefas ao vivo: {}", e.getMessage());
+                }
+                return;
+            }
+
+            // Lista desatualizada ou vazia por falha do backend: nada mudou de fato, espera a próxima leitura
+            DiffTarefas diff = null;
+            if (atual != anterior && !atual.isDesatualizada() && atual != ListaTarefas.VAZIA) {
+                if (anterior != null) {
+                    diff = DiffTarefas.entre(anterior, atual);
+                }
+                anterior = atual;
+            }
+
+            long agora = System.nanoTime();
+            for (Conexao conexao : conexoes) {
+                if (agora - conexao.ultimaEntrega > inatividade.toNanos()) {
+                    encerrar(conexao, "inatividade");
+                } else if (diff != null && !diff.isVazia()) {
+                    conexao.publicar(diff);
+                } else {
+                    conexao.manterViva();
+                }
+            }
+        }
+    }
+
+    // Uma aba aberta. Envia um evento por vez; o que chega no meio do envio fica pendente, mesclado
+    public final class Conexao {
+
+        private final String chave;
+        private final AssinanteTarefas assinante;
+        private volatile long ultimaEntrega = System.nanoTime();
+
+        // Guardados pelo monitor do objeto
+        private DiffTarefas pendente;
+        private boolean ressincronizar;
+        private boolean keepAlive;
+        private boolean enviando;
+
+        private Conexao(String chave, AssinanteTarefas assinante) {
+            this.chave = chave;
+            this.assinante = assinante;
+        }
+
+        void publicar(DiffTarefas diff) {
+            synchronized (this) {
+                if (ressincronizar) {
+                    return; // A aba já vai recarregar a lista inteira
+                }
+                pendente = pendente == null ? diff : pendente.mesclar(diff);
+                if (pendente.getTamanho() > maxPendentes) {
+                    pendente = null;
+                    ressincronizar = true;
+                }
+                if (!iniciarEnvio()) {
+                    return;
+                }
+            }
+            executor.execute(this::entregar);
+        }
+
+        void manterViva() {
+            synchronized (this) {
+                keepAlive = true;
+                if (!iniciarEnvio()) {
+                    return;
+                }
+            }
+            executor.execute(this::entregar);
+        }
+
+        private boolean iniciarEnvio() {
+            if (enviando) {
+                return false;
+            }
+            enviando = true;
+            return true;
+        }
+
+        private void entregar() {
+            while (true) {
+                String evento;
+                Object dados;
+                synchronized (this) {
+                    if (ressincronizar) {
+                        evento = EVENTO_RESSINCRONIZAR;
+                        dados = new RespostaParcial("A lista de tarefas mudou bastante. Recarregue a página.", "/tasks");
+                        ressincronizar = false;
+                    } else if (pendente != null) {
+                        evento = EVENTO_TAREFAS;
+                        dados = pendente;
+                        pendente = null;
+                    } else if (keepAlive) {
+                        evento = null;
+                        dados = null;
+                    } else {
+                        enviando = false;
+                        return;
+                    }
+                    keepAlive = false; // Qualquer evento também serve de keep-alive
+                }
+
+                try {
+                    if (!assinante.enviar(evento, dados)) {
+                        devolver(evento, dados);
+                        return;
+                    }
+                } catch (IOException | RuntimeException e) {
+                    encerrar(this, "erro"); // Aba fechada sem avisar
+                    return;
+                }
+                ultimaEntrega = System.nanoTime();
+                if (EVENTO_TAREFAS.equals(evento)) {
+                    diferencas.increment();
+                } else if (EVENTO_RESSINCRONIZAR.equals(evento)) {
+                    ressincronizacoes.increment();
+                }
+            }
+        }
+
+        // O canal recusou: o evento volta para a frente da fila (o keep-alive recusado não precisa voltar)
+        private synchronized void devolver(String evento, Object dados) {
+            if (EVENTO_RESSINCRONIZAR.equals(evento)) {
+                ressincronizar = true;
+                pendente = null;
+            } else if (EVENTO_TAREFAS.equals(evento) && !ressincronizar) {
+                pendente = pendente == null ? (DiffTarefas) dados : ((DiffTarefas) dados).mesclar(pendente);
+            }
+            enviando = false;
+        }
+
+        // Último evento da conexão (sessão expirada), fora da fila
+        private void encerrarCom(String evento, Object dados) {
+            if (!remover(this)) {
+                return;
+            }
+            encerrada("sessao").increment();
+            executor.execute(() -> {
+                try {
+                    assinante.enviar(evento, dados);
+                } catch (IOException | RuntimeException e) {
+                    // A aba já fechou
+                }
+                assinante.encerrar();
+            });
+        }
+    }
+}
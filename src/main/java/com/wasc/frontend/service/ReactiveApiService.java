@@ -0,0 +1,389 @@
+package com.wasc.frontend.service;
+
+import com.wasc.frontend.model.AcaoLote;
+import com.wasc.frontend.model.ListaTarefas;
+import com.wasc.frontend.model.LoginRequest;
+import com.wasc.frontend.model.LoginResponse;
+import com.wasc.frontend.model.PainelTarefas;
+import com.wasc.frontend.model.ResultadoLote;
+import com.wasc.frontend.model.Tarefa;
+import com.wasc.frontend.model.Usuario;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Equivalente não bloqueante do ApiService para a pilha reativa (WebClient, Mono/Flux).
+ * Compartilha os modelos, o TarefaCache (inclusive a última lista boa) e a ResilienciaBackend.
+ * 401/403 chegam como WebClientResponseException.Unauthorized/Forbidden para o controller tratar.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveApiService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveApiService.class);
+
+    @Value("${api.fanout.timeout:10s}")
+    private Duration fanoutTimeout;
+
+    @Value("${api.lote.concorrencia:8}")
+    private int loteConcorrencia;
+
+    @Autowired
+    private WebClient apiWebClient;
+
+    @Autowired
+    private TarefaCache tarefaCache;
+
+    @Autowired
+    private ResilienciaBackend resiliencia;
+
+    @Autowired
+    private JwtInspector jwtInspector;
+
+    // Uma carga em andamento por lista e usuário ("tarefas:<sub>"), como o loader do TarefaCache na pilha
+    // bloqueante: quem chega com a carga a caminho assina o mesmo Mono em vez de fazer outro GET
+    private final ConcurrentMap<String, Mono<?>> cargas = new ConcurrentHashMap<>();
+
+    // --- Autenticação ---
+
+    // Vazio se o backend recusar as credenciais ou estiver indisponível
+    public Mono<LoginResponse> login(LoginRequest loginRequest) {
+        return resiliencia.proteger("login", false, apiWebClient.post()
+                        .uri("/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(loginRequest)
+                        .retrieve()
+                        .bodyToMono(LoginResponse.class))
+                .onErrorResume(e -> {
+                    if (isNaoAutorizado(e)) {
+                        log.info("Login recusado pelo backend: {}", ((WebClientResponseException) e).getStatusCode());
+                    } else {
+                        log.error("Erro ao tentar login", e);
+                    }
+                    return Mono.empty();
+                });
+    }
+
+    public Mono<Boolean> registerUser(Usuario usuario) {
+        return resiliencia.proteger("registro", false, apiWebClient.post()
+                        .uri("/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(usuario)
+                        .retrieve()
+                        .toBodilessEntity())
+                .map(response -> response.getStatusCode().is2xxSuccessful())
+                .onErrorResume(e -> {
+                    log.warn("Falha no registro", e);
+                    return Mono.just(false);
+                });
+    }
+
+    // --- Requisições autenticadas (com JWT) ---
+
+    public Mono<List<Usuario>> getUsuarios(String jwtToken) {
+        List<Usuario> emCache = tarefaCache.getUsuariosEmCache(jwtToken);
+        if (emCache != null) {
+            return Mono.just(emCache);
+        }
+        return compartilhar("usuarios:" + jwtInspector.usuario(jwtToken), () -> carregarUsuarios(jwtToken));
+    }
+
+    private Mono<List<Usuario>> carregarUsuarios(String jwtToken) {
+        Validadores validadores = tarefaCache.getValidadoresUsuarios(jwtToken);
+        return resiliencia.proteger("usuarios", true, apiWebClient.get()
+                        .uri("/usuarios")
+                        .headers(h -> condicional(h, jwtToken, validadores))
+                        .exchangeToMono(resposta -> corpoCondicional(resposta, corpo -> corpo.bodyToFlux(Usuario.class)
+                                .collectList()
+                                .map(Collections::unmodifiableList))))
+                .map(resposta -> tarefaCache.usuariosRecebidos(jwtToken, resposta))
+                .onErrorResume(e -> !isNaoAutorizado(e), e -> {
+                    List<Usuario> ultimos = tarefaCache.getUsuariosDesatualizados(jwtToken);
+                    log.warn("Erro ao buscar usuários ({})", ultimos != null ? "servindo a última lista" : "sem cópia anterior", e);
+                    return Mono.just(ultimos != null ? ultimos : Collections.emptyList());
+                });
+    }
+
+    // Última lista boa (marcada como desatualizada), sem ir ao backend; null se não houver
+    public ListaTarefas getTarefasDesatualizadas(String jwtToken) {
+        return tarefaCache.getTarefasDesatualizadas(jwtToken);
+    }
+
+    // Com a lista já em cache, a página sai dela sem streaming nem ida ao backend
+    public boolean temTarefasEmCache(String jwtToken) {
+        return tarefaCache.getTarefasEmCache(jwtToken) != null;
+    }
+
+    // Lista completa (para paginar); em caso de falha, a última lista boa marcada como desatualizada
+    public Mono<ListaTarefas> getListaTarefas(String jwtToken) {
+        ListaTarefas emCache = tarefaCache.getTarefasEmCache(jwtToken);
+        if (emCache != null) {
+            return Mono.just(emCache);
+        }
+        return compartilhar("tarefas:" + jwtInspector.usuario(jwtToken), () -> carregarTarefas(jwtToken));
+    }
+
+    private Mono<ListaTarefas> carregarTarefas(String jwtToken) {
+        Validadores validadores = tarefaCache.getValidadoresTarefas(jwtToken);
+        long versao = tarefaCache.getVersaoTarefas(jwtToken);
+        return resiliencia.proteger("tarefas", true, apiWebClient.get()
+                        .uri("/tarefas")
+                        .headers(h -> condicional(h, jwtToken, validadores))
+                        .exchangeToMono(resposta -> corpoCondicional(resposta, corpo -> corpo.bodyToFlux(Tarefa.class)
+                                .collectList()))) // O decoder entrega o array elemento a elemento
+                .map(resposta -> tarefaCache.tarefasRecebidas(jwtToken, resposta, versao))
+                .onErrorResume(e -> !isNaoAutorizado(e), e -> {
+                    ListaTarefas ultima = tarefaCache.getTarefasDesatualizadas(jwtToken);
+                    log.warn("Erro ao buscar tarefas ({})", ultima != null ? "servindo a última lista" : "sem cópia anterior", e);
+                    return Mono.just(ultima != null ? ultima : ListaTarefas.VAZIA);
+                });
+    }
+
+    // A carga roda uma vez só, mesmo que quem a iniciou cancele, e sai do mapa ao terminar
+    @SuppressWarnings("unchecked")
+    private <T> Mono<T> compartilhar(String idCarga, Supplier<Mono<T>> carga) {
+        return Mono.defer(() -> {
+            Mono<?>[] minha = new Mono<?>[1];
+            minha[0] = carga.get()
+                    .doFinally(sinal -> cargas.remove(idCarga, minha[0]))
+                    .cache();
+            Mono<?> emAndamento = cargas.putIfAbsent(idCarga, minha[0]);
+            return (Mono<T>) (emAndamento != null ? emAndamento : minha[0]);
+        });
+    }
+
+    private static void condicional(HttpHeaders headers, String jwtToken, Validadores validadores) {
+        headers.setBearerAuth(jwtToken);
+        if (validadores != null) {
+            validadores.aplicar(headers);
+        }
+    }
+
+    // 304 vira uma resposta sem corpo; 4xx/5xx, a mesma WebClientResponseException que o retrieve() lançaria
+    private static <T> Mono<RespostaCondicional<T>> corpoCondicional(ClientResponse resposta,
+                                                                     Function<ClientResponse, Mono<T>> leitura) {
+        if (resposta.statusCode().value() == 304) {
+            return resposta.releaseBody().thenReturn(RespostaCondicional.naoModificada());
+        }
+        if (resposta.statusCode().isError()) {
+            return resposta.createError();
+        }
+        Validadores validadores = Validadores.de(resposta.headers().asHttpHeaders());
+        return leitura.apply(resposta).map(corpo -> new RespostaCondicional<>(corpo, validadores));
+    }
+
+    // Completa quando o backend responde o status (erros de 401/403/5xx saem aqui); as tarefas
+    // chegam depois pelo Flux, conforme são lidas. Ao final, a lista completa vai para o cache.
+    public Mono<Flux<Tarefa>> streamTarefas(String jwtToken) {
+        long versao = tarefaCache.getVersaoTarefas(jwtToken);
+        return resiliencia.proteger("tarefas-stream", false, apiWebClient.get()
+                        .uri("/tarefas")
+                        .headers(h -> h.setBearerAuth(jwtToken))
+                        .retrieve()
+                        .toEntityFlux(Tarefa.class))
+                .map(response -> Flux.defer(() -> {
+                    List<Tarefa> lidas = new ArrayList<>();
+                    return response.getBody()
+                            .doOnNext(lidas::add)
+                            .doOnComplete(() -> tarefaCache.guardarTarefas(jwtToken, lidas, versao))
+                            .doOnError(e -> log.warn("Erro ao buscar tarefas (streaming)", e));
+                }));
+    }
+
+    // Busca uma única tarefa: primeiro no índice da lista em cache, depois em /tarefas/{id}; vazio se não existir
+    public Mono<Tarefa> getTarefa(Long id, String jwtToken) {
+        Tarefa emCache = tarefaCache.getTarefa(jwtToken, id);
+        if (emCache != null) {
+            return Mono.just(emCache);
+        }
+        return resiliencia.proteger("tarefa", true, apiWebClient.get()
+                        .uri("/tarefas/{id}", id)
+                        .headers(h -> h.setBearerAuth(jwtToken))
+                        .retrieve()
+                        .bodyToMono(Tarefa.class))
+                .onErrorResume(WebClientResponseException.NotFound.class, e -> Mono.empty());
+    }
+
+    // --- Carregamento da página de tarefas ---
+
+    // Tarefas e usuários em paralelo; 401/403 em qualquer uma cancela a outra (zip). O prazo vale para cada
+    // chamada: a que estourar cai na última cópia boa (usuários: lista vazia) sem derrubar a outra
+    public Mono<PainelTarefas> getPainelTarefas(String jwtToken) {
+        Mono<ListaTarefas> tarefas = getListaTarefas(jwtToken).timeout(fanoutTimeout, Mono.defer(() -> {
+            ListaTarefas ultima = tarefaCache.getTarefasDesatualizadas(jwtToken);
+            log.warn("Tempo esgotado ao buscar tarefas ({})", ultima != null ? "servindo a última lista" : "sem cópia anterior");
+            return ultima != null ? Mono.just(ultima) : Mono.error(new TimeoutException(
+                    "Tempo esgotado ao buscar tarefas (" + fanoutTimeout.toMillis() + " ms)"));
+        }));
+        Mono<List<Usuario>> usuarios = getUsuarios(jwtToken).timeout(fanoutTimeout, Mono.fromSupplier(() -> {
+            List<Usuario> ultimos = tarefaCache.getUsuariosDesatualizados(jwtToken);
+            log.warn("Tempo esgotado ao buscar usuários ({})", ultimos != null ? "servindo a última lista" : "sem cópia anterior");
+            return ultimos != null ? ultimos : Collections.<Usuario>emptyList();
+        }));
+        return Mono.zip(tarefas, usuarios, PainelTarefas::new);
+    }
+
+    public Mono<Boolean> saveTarefa(Tarefa tarefa, String jwtToken) {
+        return salvarTarefa(tarefa, jwtToken)
+                .map(salva -> true)
+                .defaultIfEmpty(false);
+    }
+
+    // Mesmo contrato do ApiService.salvarTarefa: a tarefa salva (ou a enviada, sem corpo na resposta); vazio se falhar
+    public Mono<Tarefa> salvarTarefa(Tarefa tarefa, String jwtToken) {
+        WebClient.RequestBodySpec requisicao = tarefa.getId() == null
+                ? apiWebClient.post().uri("/tarefas") // Criar
+                : apiWebClient.put().uri("/tarefas/{id}", tarefa.getId()); // Atualizar
+        return resiliencia.proteger("salvar", false, requisicao
+                        .headers(h -> h.setBearerAuth(jwtToken))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(tarefa)
+                        .retrieve()
+                        .toEntity(Tarefa.class))
+                .map(response -> {
+                    Tarefa salva = response.getBody();
+                    tarefaCache.tarefaSalva(jwtToken, salva); // Corrige a lista em cache sem nova busca
+                    return salva != null && salva.getId() != null ? salva : tarefa;
+                })
+                .onErrorResume(e -> !isNaoAutorizado(e), e -> {
+                    log.warn("Falha ao salvar tarefa", e);
+                    return Mono.empty();
+                });
+    }
+
+    public Mono<Boolean> deleteTarefa(Long id, String jwtToken) {
+        return resiliencia.proteger("excluir", false, apiWebClient.delete()
+                        .uri("/tarefas/{id}", id)
+                        .headers(h -> h.setBearerAuth(jwtToken))
+                        .retrieve()
+                        .toBodilessEntity())
+                .map(response -> {
+                    tarefaCache.tarefaExcluida(jwtToken, id);
+                    return true;
+                })
+                .onErrorResume(e -> !isNaoAutorizado(e), e -> {
+                    log.warn("Falha ao excluir tarefa {}", id, e);
+                    return Mono.just(false);
+                });
+    }
+
+    // --- Operações em lote ---
+
+    // Resultado de uma escrita do lote; "incerta" quando não se sabe se o backend a aplicou (5xx, timeout)
+    private record Escrita(ResultadoLote.Item item, Tarefa salva, boolean incerta) {
+    }
+
+    // Mesmo contrato do ApiService.executarLote: até api.lote.concorrencia escritas em andamento (flatMapSequential
+    // mantém a ordem da seleção), uma única correção do cache no final e 401/403 cancelando o restante do lote
+    public Mono<ResultadoLote> executarLote(AcaoLote acao, List<Long> ids, Long usuarioId, String jwtToken) {
+        Mono<ListaTarefas> lista = acao == AcaoLote.EXCLUIR ? Mono.just(ListaTarefas.VAZIA) : getListaTarefas(jwtToken);
+        return lista
+                .flatMap(atual -> Flux.fromIterable(new LinkedHashSet<>(ids))
+                        .flatMapSequential(id -> escreverItem(acao, id, usuarioId, atual, jwtToken), loteConcorrencia)
+                        .collectList())
+                .map(escritas -> {
+                    List<ResultadoLote.Item> itens = new ArrayList<>(escritas.size());
+                    List<Tarefa> salvas = new ArrayList<>();
+                    Set<Long> excluidas = new HashSet<>();
+                    boolean incerta = false;
+                    for (Escrita escrita : escritas) {
+                        itens.add(escrita.item());
+                        incerta |= escrita.incerta();
+                        if (escrita.item().isSucesso()) {
+                            if (acao == AcaoLote.EXCLUIR) {
+                                excluidas.add(escrita.item().getId());
+                            } else if (escrita.salva() != null) {
+                                salvas.add(escrita.salva());
+                            }
+                        }
+                    }
+                    if (incerta) {
+                        tarefaCache.invalidarTarefas(jwtToken);
+                    } else {
+                        tarefaCache.loteAplicado(jwtToken, salvas, excluidas);
+                    }
+                    return new ResultadoLote(acao, itens);
+                });
+    }
+
+    private Mono<Escrita> escreverItem(AcaoLote acao, Long id, Long usuarioId, ListaTarefas lista, String jwtToken) {
+        Mono<Escrita> escrita;
+        if (acao == AcaoLote.EXCLUIR) {
+            escrita = resiliencia.proteger("excluir", false, apiWebClient.delete()
+                            .uri("/tarefas/{id}", id)
+                            .headers(h -> h.setBearerAuth(jwtToken))
+                            .retrieve()
+                            .toBodilessEntity())
+                    .map(response -> new Escrita(new ResultadoLote.Item(id, true, null), null, false));
+        } else {
+            Tarefa emCache = lista.porId(id);
+            escrita = (emCache != null ? Mono.just(emCache) : getTarefa(id, jwtToken))
+                    .flatMap(atual -> {
+                        // O PUT leva a tarefa inteira; cópia para não alterar o objeto da lista em cache
+                        Tarefa alterada = new Tarefa(atual.getId(), atual.getTitulo(), atual.getDescricao(), atual.getData(),
+                                atual.isStatus(), atual.getUsuario());
+                        switch (acao) {
+                            case CONCLUIR -> alterada.setStatus(true);
+                            case REABRIR -> alterada.setStatus(false);
+                            case REATRIBUIR -> {
+                                Usuario usuario = new Usuario();
+                                usuario.setId(usuarioId);
+                                alterada.setUsuario(usuario);
+                            }
+                            default -> throw new IllegalArgumentException("Ação não suportada: " + acao);
+                        }
+                        return resiliencia.proteger("salvar", false, apiWebClient.put()
+                                        .uri("/tarefas/{id}", id)
+                                        .headers(h -> h.setBearerAuth(jwtToken))
+                                        .contentType(MediaType.APPLICATION_JSON)
+                                        .bodyValue(alterada)
+                                        .retrieve()
+                                        .toEntity(Tarefa.class))
+                                .map(response -> {
+                                    Tarefa salva = response.getBody() != null && response.getBody().getId() != null ? response.getBody() : alterada;
+                                    return new Escrita(new ResultadoLote.Item(id, true, null), salva, false);
+                                });
+                    })
+                    .defaultIfEmpty(new Escrita(new ResultadoLote.Item(id, false, "Tarefa não encontrada"), null, false));
+        }
+        return escrita
+                .onErrorResume(e -> e instanceof WebClientResponseException r && r.getStatusCode().is4xxClientError() && !isNaoAutorizado(e), e -> {
+                    int status = ((WebClientResponseException) e).getStatusCode().value();
+                    log.warn("Lote {}: falha na tarefa {}: {}", acao, id, status);
+                    String mensagem = status == 404 ? "Tarefa não encontrada" : "Recusada pelo backend (" + status + ")";
+                    return Mono.just(new Escrita(new ResultadoLote.Item(id, false, mensagem), null, false));
+                })
+                .onErrorResume(e -> !isNaoAutorizado(e), e -> {
+                    log.warn("Lote {}: erro na tarefa {}", acao, id, e);
+                    return Mono.just(new Escrita(new ResultadoLote.Item(id, false, "Backend indisponível"), null, true));
+                });
+    }
+
+    public static boolean isNaoAutorizado(Throwable e) {
+        return e instanceof WebClientResponseException.Unauthorized || e instanceof WebClientResponseException.Forbidden;
+    }
+}
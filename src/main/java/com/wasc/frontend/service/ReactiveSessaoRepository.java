@@ -0,0 +1,42 @@
+package com.wasc.frontend.service;
+
+import org.springframework.session.ReactiveSessionRepository;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * SessaoCompartilhadaRepository na pilha reativa; o acesso ao armazenamento sai do event loop do Netty.
+ * O resultado volta por publishOn: se o restante da requisição rodasse na thread do boundedElastic,
+ * um cancelamento a jusante interromperia essa mesma thread (e, por exemplo, a espera no bulkhead).
+ */
+public class ReactiveSessaoRepository implements ReactiveSessionRepository<SessaoPortatil> {
+
+    private final SessaoCompartilhadaRepository repositorio;
+
+    public ReactiveSessaoRepository(SessaoCompartilhadaRepository repositorio) {
+        this.repositorio = repositorio;
+    }
+
+    @Override
+    public Mono<SessaoPortatil> createSession() {
+        return Mono.fromSupplier(repositorio::createSession);
+    }
+
+    @Override
+    public Mono<Void> save(SessaoPortatil sessao) {
+        return Mono.fromRunnable(() -> repositorio.save(sessao)).subscribeOn(Schedulers.boundedElastic())
+                .publishOn(Schedulers.parallel()).then();
+    }
+
+    @Override
+    public Mono<SessaoPortatil> findById(String id) {
+        return Mono.fromSupplier(() -> repositorio.findById(id)).subscribeOn(Schedulers.boundedElastic())
+                .publishOn(Schedulers.parallel());
+    }
+
+    @Override
+    public Mono<Void> deleteById(String id) {
+        return Mono.fromRunnable(() -> repositorio.deleteById(id)).subscribeOn(Schedulers.boundedElastic())
+                .publishOn(Schedulers.parallel()).then();
+    }
+}
@@ -0,0 +1,93 @@
+package com.wasc.frontend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.wasc.frontend.model.DadosToken;
+import com.wasc.frontend.model.LoginResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * Renovação antecipada do JWT (api.auth.renovacao.habilitada): quando o token da sessão vence
+ * dentro de api.auth.renovacao.antecedencia, um novo é pedido ao backend em segundo plano,
+ * sem atrasar a requisição atual. No máximo uma renovação em andamento por token.
+ * Com a sessão fora do Tomcat (tarefas.sessao.modo), o que a thread de fundo escreve depois da
+ * resposta não é gravado; por isso o token novo fica guardado pelo id da sessão que o pediu e é aplicado
+ * (uma vez) na próxima requisição dela, se a sessão ainda estiver com o token antigo.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class RenovacaoToken {
+
+    @Value("${api.auth.renovacao.habilitada:false}")
+    private boolean habilitada;
+
+    @Value("${api.auth.renovacao.antecedencia:5m}")
+    private Duration antecedencia;
+
+    @Autowired
+    private ApiService apiService;
+
+    @Autowired
+    private JwtInspector jwtInspector;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    @Qualifier("apiExecutor")
+    private Executor apiExecutor;
+
+    private final Set<String> emAndamento = ConcurrentHashMap.newKeySet();
+
+    // Id da sessão -> renovação ainda não aplicada a ela
+    private final Cache<String, Renovacao> renovados = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterWrite(Duration.ofMinutes(10))
+            .build();
+
+    public void renovarSeNecessario(HttpSession session, String jwtToken, DadosToken dados) {
+        String sessaoId = session.getId();
+        Renovacao pendente = renovados.asMap().remove(sessaoId);
+        if (pendente != null && pendente.anterior().equals(jwtToken)) {
+            aplicar(session, pendente.novo());
+            return;
+        }
+        if (!habilitada || !jwtInspector.venceEm(dados, antecedencia) || !emAndamento.add(jwtToken)) {
+            return;
+        }
+        apiExecutor.execute(() -> {
+            try {
+                Optional<LoginResponse> renovado = apiService.renovarToken(jwtToken);
+                renovado.ifPresent(resposta -> {
+                    renovados.put(sessaoId, new Renovacao(jwtToken, resposta.getJwt()));
+                    aplicar(session, resposta.getJwt());
+                });
+                meterRegistry.counter("tarefas.token.renovacao", "resultado", renovado.isPresent() ? "sucesso" : "falha").increment();
+            } catch (IllegalStateException e) {
+                // Sessão invalidada (logout) enquanto o token era renovado
+            } finally {
+                emAndamento.remove(jwtToken);
+            }
+        });
+    }
+
+    private void aplicar(HttpSession session, String jwtToken) {
+        session.setAttribute("jwtToken", jwtToken);
+        session.setAttribute("jwtDados", jwtInspector.ler(jwtToken));
+    }
+
+    private record Renovacao(String anterior, String novo) {
+    }
+}
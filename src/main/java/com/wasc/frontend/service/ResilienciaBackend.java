@@ -0,0 +1,250 @@
+package com.wasc.frontend.service;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.core.IntervalFunction;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedRetryMetrics;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.github.resilience4j.reactor.retry.RetryOperator;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Proteções em volta de cada chamada ao backend (Resilience4j):
+ * um circuit breaker por endpoint, um bulkhead que limita as chamadas simultâneas
+ * (para o backend lento não prender todas as threads do Tomcat) e retries com jitter
+ * apenas para GETs, limitados por um orçamento global de retries.
+ * Só falhas do backend (5xx, timeout, conexão) contam para o circuit breaker; 4xx não.
+ * As mesmas instâncias protegem as chamadas bloqueantes (RestTemplate) e as reativas (WebClient).
+ */
+@Component
+public class ResilienciaBackend implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(ResilienciaBackend.class);
+
+    @Value("${api.resiliencia.max-concorrentes:20}")
+    private int maxConcorrentes;
+
+    @Value("${api.resiliencia.espera-bulkhead:500ms}")
+    private Duration esperaBulkhead;
+
+    @Value("${api.resiliencia.taxa-falhas:50}")
+    private float taxaFalhas;
+
+    @Value("${api.resiliencia.chamada-lenta:5s}")
+    private Duration chamadaLenta;
+
+    @Value("${api.resiliencia.janela:20}")
+    private int janela;
+
+    @Value("${api.resiliencia.tempo-aberto:30s}")
+    private Duration tempoAberto;
+
+    @Value("${api.resiliencia.tentativas:3}")
+    private int tentativas;
+
+    @Value("${api.resiliencia.espera-retry:200ms}")
+    private Duration esperaRetry;
+
+    @Value("${api.resiliencia.orcamento-retry:0.1}")
+    private double proporcaoRetry;
+
+    private CircuitBreakerRegistry circuitBreakers;
+    private BulkheadRegistry bulkheads;
+    private RetryRegistry retries;
+    private Bulkhead bulkhead;
+    private OrcamentoRetry orcamento;
+
+    @PostConstruct
+    void iniciar() {
+        circuitBreakers = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .slidingWindowSize(janela)
+                .minimumNumberOfCalls(Math.min(janela, 5))
+                .failureRateThreshold(taxaFalhas)
+                .slowCallDurationThreshold(chamadaLenta)
+                .slowCallRateThreshold(80)
+                .waitDurationInOpenState(tempoAberto)
+                .permittedNumberOfCallsInHalfOpenState(2)
+                .recordException(ResilienciaBackend::isFalhaDoBackend)
+                .build());
+        circuitBreakers.getEventPublisher().onEntryAdded(evento -> evento.getAddedEntry().getEventPublisher()
+                .onStateTransition(t -> log.warn("Circuit breaker '{}': {}",
+                        t.getCircuitBreakerName(), t.getStateTransition())));
+
+        bulkheads = BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxConcurrentCalls(maxConcorrentes)
+                .maxWaitDuration(esperaBulkhead)
+                .build());
+        bulkhead = bulkheads.bulkhead("backend");
+
+        orcamento = new OrcamentoRetry(proporcaoRetry);
+        retries = RetryRegistry.of(RetryConfig.custom()
+                .maxAttempts(tentativas)
+                .intervalFunction(IntervalFunction.ofExponentialRandomBackoff(esperaRetry, 2.0, 0.5))
+                .retryOnException(e -> isFalhaDoBackend(e) && orcamento.retirar())
+                .build());
+    }
+
+    // Executa a chamada com circuit breaker do endpoint e bulkhead; se idempotente, também com retry
+    public <T> T executar(String endpoint, boolean idempotente, Supplier<T> chamada) {
+        orcamento.registrarChamada();
+        Supplier<T> protegida = CircuitBreaker.decorateSupplier(circuitBreakers.circuitBreaker(endpoint), chamada);
+        protegida = Bulkhead.decorateSupplier(bulkhead, protegida);
+        if (idempotente) {
+            protegida = Retry.decorateSupplier(retries.retry(endpoint), protegida);
+        }
+        return protegida.get();
+    }
+
+    public void executar(String endpoint, Runnable chamada) {
+        executar(endpoint, false, () -> {
+            chamada.run();
+            return null;
+        });
+    }
+
+    // Leitura longa, no ritmo de quem consome (streaming da página): o circuit breaker e o bulkhead cobrem a
+    // chamada só até a resposta chegar. A chamada recebe o aviso "respondeu" para rodar com status e cabeçalhos
+    // em mãos; dali em diante o corpo é lido sem ocupar o bulkhead, como no fluxo reativo. Sem retry.
+    public <T> T executarAteResposta(String endpoint, Function<Runnable, T> chamada) {
+        orcamento.registrarChamada();
+        CircuitBreaker circuitBreaker = circuitBreakers.circuitBreaker(endpoint);
+        circuitBreaker.acquirePermission();
+        try {
+            bulkhead.acquirePermission();
+        } catch (BulkheadFullException e) {
+            circuitBreaker.releasePermission();
+            throw e;
+        }
+        long inicio = circuitBreaker.getCurrentTimestamp();
+        AtomicBoolean liberado = new AtomicBoolean();
+        Runnable respondeu = () -> {
+            if (liberado.compareAndSet(false, true)) {
+                bulkhead.onComplete();
+                circuitBreaker.onSuccess(circuitBreaker.getCurrentTimestamp() - inicio, circuitBreaker.getTimestampUnit());
+            }
+        };
+        try {
+            T resultado = chamada.apply(respondeu);
+            respondeu.run();
+            return resultado;
+        } catch (RuntimeException e) {
+            if (liberado.compareAndSet(false, true)) { // Falhou antes da resposta: conta para o circuit breaker
+                bulkhead.onComplete();
+                circuitBreaker.onError(circuitBreaker.getCurrentTimestamp() - inicio, circuitBreaker.getTimestampUnit(), e);
+            }
+            throw e;
+        }
+    }
+
+    // Versão reativa: os mesmos operadores aplicados na assinatura, sem bloquear
+    public <T> Mono<T> proteger(String endpoint, boolean idempotente, Mono<T> chamada) {
+        Mono<T> protegida = chamada
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreakers.circuitBreaker(endpoint)))
+                .transformDeferred(BulkheadOperator.of(bulkhead));
+        if (idempotente) {
+            protegida = protegida.transformDeferred(RetryOperator.of(retries.retry(endpoint)));
+        }
+        Mono<T> resultado = protegida;
+        return Mono.defer(() -> {
+            orcamento.registrarChamada();
+            return resultado;
+        });
+    }
+
+    // Fluxos não são repetidos: parte dos itens pode já ter sido entregue
+    public <T> Flux<T> proteger(String endpoint, Flux<T> chamada) {
+        Flux<T> protegida = chamada
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreakers.circuitBreaker(endpoint)))
+                .transformDeferred(BulkheadOperator.of(bulkhead));
+        return Flux.defer(() -> {
+            orcamento.registrarChamada();
+            return protegida;
+        });
+    }
+
+    static boolean isFalhaDoBackend(Throwable e) {
+        return e instanceof ResourceAccessException || e instanceof HttpServerErrorException
+                || e instanceof WebClientRequestException
+                || (e instanceof WebClientResponseException w && w.getStatusCode().is5xxServerError());
+    }
+
+    // Estados dos circuit breakers, ocupação do bulkhead, retries e fichas do orçamento
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitBreakers).bindTo(registry);
+        TaggedBulkheadMetrics.ofBulkheadRegistry(bulkheads).bindTo(registry);
+        TaggedRetryMetrics.ofRetryRegistry(retries).bindTo(registry);
+        Gauge.builder("tarefas.backend.retry.orcamento", orcamento, OrcamentoRetry::fichas)
+                .description("Retries ainda permitidos pelo orçamento global")
+                .register(registry);
+    }
+
+    /**
+     * Orçamento global de retries (token bucket): cada chamada deposita uma fração de ficha
+     * e cada retry gasta uma ficha inteira, então os retries ficam em torno de
+     * {@code proporcao} das chamadas e não multiplicam a carga quando o backend está caído.
+     * Sem locks, para não fixar virtual threads.
+     */
+    static final class OrcamentoRetry {
+
+        private static final long FICHA = 1000;
+        private static final long MAXIMO = 10 * FICHA;
+
+        private final long deposito;
+        private final AtomicLong saldo = new AtomicLong(MAXIMO);
+
+        OrcamentoRetry(double proporcao) {
+            this.deposito = Math.round(proporcao * FICHA);
+        }
+
+        void registrarChamada() {
+            saldo.updateAndGet(atual -> Math.min(MAXIMO, atual + deposito));
+        }
+
+        boolean retirar() {
+            while (true) {
+                long atual = saldo.get();
+                if (atual < FICHA) {
+                    return false;
+                }
+                if (saldo.compareAndSet(atual, atual - FICHA)) {
+                    return true;
+                }
+            }
+        }
+
+        double fichas() {
+            return saldo.get() / (double) FICHA;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.wasc.frontend.service;
+
+/**
+ * Resultado de um GET condicional ao backend: o corpo novo com os seus validadores,
+ * ou, quando o backend respondeu 304, nenhum corpo (a cópia guardada continua valendo).
+ */
+public record RespostaCondicional<T>(T corpo, Validadores validadores) {
+
+    public static <T> RespostaCondicional<T> naoModificada() {
+        return new RespostaCondicional<>(null, null);
+    }
+
+    public boolean isNaoModificada() {
+        return corpo == null;
+    }
+}
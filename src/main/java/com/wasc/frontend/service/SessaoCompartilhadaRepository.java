@@ -0,0 +1,71 @@
+package com.wasc.frontend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.session.SessionRepository;
+
+import java.time.Duration;
+
+/**
+ * Modo tarefas.sessao.modo=compartilhada: a sessão fica num ArmazemSessoes comum a todas as
+ * réplicas, no formato compacto do CodecSessao. O armazenamento só é lido quando a requisição
+ * pede a sessão (páginas estáticas e o formulário de login não o tocam) e só é escrito quando
+ * a sessão muda ou o último acesso gravado fica velho (ver SessaoPortatil).
+ */
+public class SessaoCompartilhadaRepository implements SessionRepository<SessaoPortatil> {
+
+    private static final Logger log = LoggerFactory.getLogger(SessaoCompartilhadaRepository.class);
+
+    private final ArmazemSessoes armazem;
+    private final CodecSessao codec;
+    private final Duration inatividadeMaxima;
+
+    public SessaoCompartilhadaRepository(ArmazemSessoes armazem, CodecSessao codec, Duration inatividadeMaxima) {
+        this.armazem = armazem;
+        this.codec = codec;
+        this.inatividadeMaxima = inatividadeMaxima;
+    }
+
+    @Override
+    public SessaoPortatil createSession() {
+        return new SessaoPortatil(inatividadeMaxima);
+    }
+
+    @Override
+    public void save(SessaoPortatil sessao) {
+        if (!sessao.precisaGravar()) {
+            return;
+        }
+        String idAnterior = sessao.getIdGravado();
+        armazem.gravar(sessao.getId(), codec.codificar(sessao), sessao.getMaxInactiveInterval());
+        if (idAnterior != null && !idAnterior.equals(sessao.getId())) {
+            armazem.remover(idAnterior); // changeSessionId
+        }
+        sessao.gravada();
+    }
+
+    @Override
+    public SessaoPortatil findById(String id) {
+        byte[] dados = armazem.ler(id);
+        if (dados == null) {
+            return null;
+        }
+        try {
+            SessaoPortatil sessao = codec.decodificar(id, dados);
+            if (sessao.isExpired()) {
+                armazem.remover(id);
+                return null;
+            }
+            return sessao;
+        } catch (IllegalArgumentException e) {
+            log.warn("Sessão {} ilegível no armazenamento; descartada: {}", id, e.getMessage());
+            armazem.remover(id);
+            return null;
+        }
+    }
+
+    @Override
+    public void deleteById(String id) {
+        armazem.remover(id);
+    }
+}
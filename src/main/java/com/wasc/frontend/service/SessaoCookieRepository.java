@@ -0,0 +1,111 @@
+package com.wasc.frontend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.session.SessionRepository;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+
+/**
+ * Modo tarefas.sessao.modo=cookie: nenhuma sessão fica no servidor. O "id" da sessão é o próprio
+ * conteúdo selado com AES-GCM (cifrado e autenticado) com a chave derivada de tarefas.sessao.segredo,
+ * que precisa ser igual em todas as réplicas. Ao gravar, o id muda e o SessionRepositoryFilter
+ * reescreve o cookie. Limitação: o logout apaga o cookie do navegador, mas uma cópia dele continua
+ * válida até a inatividade máxima (ou o vencimento do JWT, verificado pelo TokenInterceptor).
+ */
+public class SessaoCookieRepository implements SessionRepository<SessaoPortatil> {
+
+    private static final Logger log = LoggerFactory.getLogger(SessaoCookieRepository.class);
+    private static final int TAMANHO_IV = 12;
+    private static final int TAMANHO_TAG_BITS = 128;
+    private static final int LIMITE_COOKIE = 4000; // Navegadores descartam cookies acima de ~4 KB
+
+    private final CodecSessao codec;
+    private final SecretKeySpec chave;
+    private final Duration inatividadeMaxima;
+    private final SecureRandom aleatorio = new SecureRandom();
+
+    public SessaoCookieRepository(CodecSessao codec, String segredo, Duration inatividadeMaxima) {
+        if (segredo == null || segredo.isBlank()) {
+            throw new IllegalStateException("tarefas.sessao.segredo é obrigatório com tarefas.sessao.modo=cookie");
+        }
+        this.codec = codec;
+        this.chave = new SecretKeySpec(sha256(segredo), "AES");
+        this.inatividadeMaxima = inatividadeMaxima;
+    }
+
+    @Override
+    public SessaoPortatil createSession() {
+        return new SessaoPortatil(inatividadeMaxima);
+    }
+
+    @Override
+    public void save(SessaoPortatil sessao) {
+        if (!sessao.precisaGravar()) {
+            return; // Mesmo id: o filtro não reenvia o cookie
+        }
+        String selada = selar(codec.codificar(sessao));
+        if (selada.length() > LIMITE_COOKIE) {
+            log.warn("Cookie de sessão com {} caracteres; o navegador pode descartá-lo", selada.length());
+        }
+        sessao.setId(selada);
+        sessao.gravada();
+    }
+
+    @Override
+    public SessaoPortatil findById(String id) {
+        try {
+            SessaoPortatil sessao = codec.decodificar(id, abrir(id));
+            return sessao.isExpired() ? null : sessao;
+        } catch (IllegalArgumentException | GeneralSecurityException e) {
+            log.debug("Cookie de sessão recusado: {}", e.getMessage()); // Adulterado, de outra chave ou de outra versão
+            return null;
+        }
+    }
+
+    @Override
+    public void deleteById(String id) {
+        // Nada guardado no servidor; o filtro expira o cookie
+    }
+
+    private String selar(byte[] dados) {
+        try {
+            byte[] iv = new byte[TAMANHO_IV];
+            aleatorio.nextBytes(iv);
+            Cipher cifra = Cipher.getInstance("AES/GCM/NoPadding");
+            cifra.init(Cipher.ENCRYPT_MODE, chave, new GCMParameterSpec(TAMANHO_TAG_BITS, iv));
+            byte[] cifrado = cifra.doFinal(dados);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(
+                    ByteBuffer.allocate(iv.length + cifrado.length).put(iv).put(cifrado).array());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Falha ao selar a sessão", e);
+        }
+    }
+
+    private byte[] abrir(String selada) throws GeneralSecurityException {
+        byte[] bytes = Base64.getUrlDecoder().decode(selada);
+        if (bytes.length <= TAMANHO_IV) {
+            throw new IllegalArgumentException("Cookie de sessão curto demais");
+        }
+        Cipher cifra = Cipher.getInstance("AES/GCM/NoPadding");
+        cifra.init(Cipher.DECRYPT_MODE, chave, new GCMParameterSpec(TAMANHO_TAG_BITS, bytes, 0, TAMANHO_IV));
+        return cifra.doFinal(bytes, TAMANHO_IV, bytes.length - TAMANHO_IV);
+    }
+
+    private static byte[] sha256(String segredo) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(segredo.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
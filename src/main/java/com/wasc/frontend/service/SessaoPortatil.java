@@ -0,0 +1,135 @@
+package com.wasc.frontend.service;
+
+import org.springframework.session.Session;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Sessão guardada fora do Tomcat (cookie selado ou armazenamento compartilhado), de modo que
+ * qualquer réplica do frontend atenda qualquer requisição. Só é regravada quando um atributo
+ * muda ou quando o último acesso gravado ficou para trás mais de 1/4 da inatividade máxima,
+ * para que as leituras do dia a dia não gerem um Set-Cookie ou uma escrita no armazenamento.
+ */
+public class SessaoPortatil implements Session {
+
+    private String id;
+    private String idGravado; // Id com que a sessão foi lida ou gravada pela última vez (null se nova)
+    private final Map<String, Object> atributos;
+    private final Instant criadaEm;
+    private Instant acessadaEm;
+    private Instant acessoGravado;
+    private Duration inatividadeMaxima;
+    private boolean alterada;
+
+    public SessaoPortatil(Duration inatividadeMaxima) {
+        this(UUID.randomUUID().toString(), new HashMap<>(), Instant.now(), Instant.now(), inatividadeMaxima);
+        this.idGravado = null;
+        this.alterada = true;
+    }
+
+    SessaoPortatil(String id, Map<String, Object> atributos, Instant criadaEm, Instant acessadaEm, Duration inatividadeMaxima) {
+        this.id = id;
+        this.idGravado = id;
+        this.atributos = atributos;
+        this.criadaEm = criadaEm;
+        this.acessadaEm = acessadaEm;
+        this.acessoGravado = acessadaEm;
+        this.inatividadeMaxima = inatividadeMaxima;
+    }
+
+    @Override
+    public String getId() {
+        return id;
+    }
+
+    @Override
+    public String changeSessionId() {
+        id = UUID.randomUUID().toString();
+        alterada = true;
+        return id;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T getAttribute(String nome) {
+        return (T) atributos.get(nome);
+    }
+
+    @Override
+    public Set<String> getAttributeNames() {
+        return Set.copyOf(atributos.keySet());
+    }
+
+    @Override
+    public void setAttribute(String nome, Object valor) {
+        if (valor == null) {
+            removeAttribute(nome);
+            return;
+        }
+        atributos.put(nome, valor);
+        alterada = true;
+    }
+
+    @Override
+    public void removeAttribute(String nome) {
+        alterada |= atributos.remove(nome) != null;
+    }
+
+    @Override
+    public Instant getCreationTime() {
+        return criadaEm;
+    }
+
+    @Override
+    public void setLastAccessedTime(Instant acessadaEm) {
+        this.acessadaEm = acessadaEm; // Sozinho não torna a sessão alterada (ver precisaGravar)
+    }
+
+    @Override
+    public Instant getLastAccessedTime() {
+        return acessadaEm;
+    }
+
+    @Override
+    public void setMaxInactiveInterval(Duration inatividadeMaxima) {
+        this.inatividadeMaxima = inatividadeMaxima;
+        alterada = true;
+    }
+
+    @Override
+    public Duration getMaxInactiveInterval() {
+        return inatividadeMaxima;
+    }
+
+    @Override
+    public boolean isExpired() {
+        return !inatividadeMaxima.isNegative() && Instant.now().isAfter(acessadaEm.plus(inatividadeMaxima));
+    }
+
+    Map<String, Object> getAtributos() {
+        return atributos;
+    }
+
+    String getIdGravado() {
+        return idGravado;
+    }
+
+    void setId(String id) {
+        this.id = id;
+    }
+
+    boolean precisaGravar() {
+        return alterada || acessadaEm.isAfter(acessoGravado.plus(inatividadeMaxima.dividedBy(4)));
+    }
+
+    void gravada() {
+        idGravado = id;
+        acessoGravado = acessadaEm;
+        alterada = false;
+    }
+}
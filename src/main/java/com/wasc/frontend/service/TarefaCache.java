@@ -0,0 +1,425 @@
+package com.wasc.frontend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.wasc.frontend.model.ListaTarefas;
+import com.wasc.frontend.model.Tarefa;
+import com.wasc.frontend.model.Usuario;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Cache read-through das listas de tarefas e usuários, por usuário logado (subject do JWT).
+ * Usa Caffeine (W-TinyLFU) com tamanho máximo e TTL. Gravações bem-sucedidas atualizam
+ * a lista em cache no lugar, para que o GET após o redirect não volte ao backend.
+ * Além disso guarda, por mais tempo ({@code api.cache.stale-ttl}), a última lista obtida com
+ * sucesso, servida como desatualizada quando o backend falha.
+ * As estatísticas do Caffeine são publicadas no Micrometer.
+ * <p>
+ * Junto da última lista boa ficam os validadores (ETag / Last-Modified) da resposta que a trouxe.
+ * Quando o TTL vence, a recarga é um GET condicional: num 304 a mesma instância de ListaTarefas
+ * (com índice e ordenações já prontos) volta ao cache, sem baixar nem desserializar nada.
+ * Uma correção local descarta os validadores, pois a lista deixa de ser a representação que eles descrevem.
+ * <p>
+ * As cargas não usam {@code Cache.get(chave, loader)}: o Caffeine executa o loader dentro do
+ * compute do ConcurrentHashMap, segurando um monitor durante toda a chamada HTTP, o que prende
+ * a virtual thread na sua carrier. A carga é feita fora do lock e requisições simultâneas
+ * para a mesma chave aguardam a mesma carga. Cada correção local (ou descarte) incrementa a versão da lista
+ * do usuário; uma carga que começou antes disso traz a lista de antes da escrita e não é guardada.
+ * <p>
+ * Com escritas adiadas (EscritaAdiada), as alterações aceitas e ainda não enviadas ficam registradas por usuário
+ * e são reaplicadas sobre cada lista nova vinda do backend, para que uma recarga não as desfaça antes do envio.
+ */
+@Component
+public class TarefaCache implements MeterBinder {
+
+    private final Cache<String, ListaTarefas> tarefas;
+    private final Cache<String, List<Usuario>> usuarios;
+    private final Cache<String, ListaTarefas> ultimasTarefas;
+    private final Cache<String, List<Usuario>> ultimosUsuarios;
+    private final Cache<String, Validadores> validadores; // "tarefas:<chave>" / "usuarios:<chave>"
+    private final LongAdder naoModificadas = new LongAdder();
+    private final LongAdder modificadas = new LongAdder();
+    private final ConcurrentMap<String, CompletableFuture<Object>> cargas = new ConcurrentHashMap<>();
+    private final Cache<String, AtomicLong> versoes; // Por usuário; uma versão esquecida só faz uma carga não ser guardada
+    // Escritas adiadas ainda não enviadas, por usuário: id -> como a tarefa deve aparecer (vazio = excluída)
+    private final ConcurrentMap<String, Map<Long, Optional<Tarefa>>> pendentes = new ConcurrentHashMap<>();
+
+    private final JwtInspector jwtInspector;
+
+    public TarefaCache(@Value("${api.cache.max-size:1000}") long maxSize,
+                       @Value("${api.cache.ttl:60s}") Duration ttl,
+                       @Value("${api.cache.stale-ttl:24h}") Duration staleTtl,
+                       JwtInspector jwtInspector) {
+        this.jwtInspector = jwtInspector;
+        this.tarefas = Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(ttl).recordStats().build();
+        this.usuarios = Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(ttl).recordStats().build();
+        this.ultimasTarefas = Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(staleTtl).build();
+        this.ultimosUsuarios = Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(staleTtl).build();
+        this.validadores = Caffeine.newBuilder().maximumSize(maxSize * 2).expireAfterWrite(staleTtl).build();
+        this.versoes = Caffeine.newBuilder().maximumSize(maxSize).expireAfterAccess(staleTtl).build();
+    }
+
+    // O loader recebe os validadores da última lista boa (null se não houver) e faz o GET condicional
+    public ListaTarefas getTarefas(String jwtToken, Function<Validadores, RespostaCondicional<List<Tarefa>>> loader) {
+        String chave = chave(jwtToken);
+        return carregar(tarefas, "tarefas:" + chave, chave, () -> {
+            long versao = versao(chave);
+            return aplicarTarefas(chave, loader.apply(validadoresTarefas(chave)), versao);
+        });
+    }
+
+    // Versão a anotar antes de uma leitura feita fora do cache, para entregar com o resultado
+    public long getVersaoTarefas(String jwtToken) {
+        return versao(chave(jwtToken));
+    }
+
+    // Guarda uma lista lida fora do cache (ex.: renderização em streaming)
+    public ListaTarefas guardarTarefas(String jwtToken, List<Tarefa> lista, long versao) {
+        return aplicarTarefas(chave(jwtToken), new RespostaCondicional<>(lista, null), versao);
+    }
+
+    // Para quem faz o GET condicional por conta própria (pilha reativa): validadores a enviar e,
+    // com a resposta, a lista a usar (a nova ou, num 304, a última lista boa)
+    public Validadores getValidadoresTarefas(String jwtToken) {
+        return validadoresTarefas(chave(jwtToken));
+    }
+
+    public ListaTarefas tarefasRecebidas(String jwtToken, RespostaCondicional<List<Tarefa>> resposta, long versao) {
+        return aplicarTarefas(chave(jwtToken), resposta, versao);
+    }
+
+    public Validadores getValidadoresUsuarios(String jwtToken) {
+        return validadoresUsuarios(chave(jwtToken));
+    }
+
+    public List<Usuario> usuariosRecebidos(String jwtToken, RespostaCondicional<List<Usuario>> resposta) {
+        return aplicarUsuarios(chave(jwtToken), resposta);
+    }
+
+    // Consultas e gravações diretas, para quem carrega de forma assíncrona (pilha reativa)
+    public ListaTarefas getTarefasEmCache(String jwtToken) {
+        return tarefas.getIfPresent(chave(jwtToken));
+    }
+
+    public List<Usuario> getUsuariosEmCache(String jwtToken) {
+        return usuarios.getIfPresent(chave(jwtToken));
+    }
+
+    // Última lista obtida com sucesso, marcada como desatualizada; null se não houver
+    public ListaTarefas getTarefasDesatualizadas(String jwtToken) {
+        ListaTarefas ultima = ultimasTarefas.getIfPresent(chave(jwtToken));
+        return ultima != null ? ultima.comoDesatualizada() : null;
+    }
+
+    public List<Usuario> getUsuariosDesatualizados(String jwtToken) {
+        return ultimosUsuarios.getIfPresent(chave(jwtToken));
+    }
+
+    // Busca pelo índice da lista em cache, sem ir ao backend; null se a lista ou a tarefa não estiver lá
+    public Tarefa getTarefa(String jwtToken, Long id) {
+        ListaTarefas lista = tarefas.getIfPresent(chave(jwtToken));
+        return lista != null ? lista.porId(id) : null;
+    }
+
+    public List<Usuario> getUsuarios(String jwtToken, Function<Validadores, RespostaCondicional<List<Usuario>>> loader) {
+        String chave = chave(jwtToken);
+        return carregar(usuarios, "usuarios:" + chave, chave,
+                () -> aplicarUsuarios(chave, loader.apply(validadoresUsuarios(chave))));
+    }
+
+    // Só há o que revalidar se a lista que os validadores descrevem ainda estiver guardada
+    private Validadores validadoresTarefas(String chave) {
+        return ultimasTarefas.getIfPresent(chave) != null ? validadores.getIfPresent("tarefas:" + chave) : null;
+    }
+
+    private Validadores validadoresUsuarios(String chave) {
+        return ultimosUsuarios.getIfPresent(chave) != null ? validadores.getIfPresent("usuarios:" + chave) : null;
+    }
+
+    // Guarda a lista só se nenhuma correção aconteceu desde o início da carga (versao); senão fica a lista
+    // corrigida. A checagem e as gravações ficam no compute da chave, que corrigir também usa.
+    private ListaTarefas aplicarTarefas(String chave, RespostaCondicional<List<Tarefa>> resposta, long versao) {
+        ListaTarefas lista = resposta.isNaoModificada()
+                ? naoModificada(ultimasTarefas.getIfPresent(chave))
+                : new ListaTarefas(comPendentes(chave, resposta.corpo()));
+        ListaTarefas vigente = tarefas.asMap().compute(chave, (k, atual) -> {
+            if (versao(chave) != versao) {
+                return atual;
+            }
+            guardarValidadores("tarefas:" + chave, resposta);
+            ultimasTarefas.put(chave, lista);
+            return lista;
+        });
+        return vigente != null ? vigente : lista;
+    }
+
+    private List<Usuario> aplicarUsuarios(String chave, RespostaCondicional<List<Usuario>> resposta) {
+        List<Usuario> lista = resposta.isNaoModificada()
+                ? naoModificada(ultimosUsuarios.getIfPresent(chave))
+                : resposta.corpo();
+        guardarValidadores("usuarios:" + chave, resposta);
+        usuarios.put(chave, lista);
+        ultimosUsuarios.put(chave, lista);
+        return lista;
+    }
+
+    private <V> V naoModificada(V guardada) {
+        if (guardada == null) {
+            // Só acontece se a cópia expirar entre o envio dos validadores e a resposta
+            throw new IllegalStateException("304 do backend sem cópia guardada");
+        }
+        naoModificadas.increment();
+        return guardada;
+    }
+
+    private void guardarValidadores(String idValidadores, RespostaCondicional<?> resposta) {
+        if (resposta.isNaoModificada()) {
+            return; // Os mesmos validadores continuam valendo
+        }
+        modificadas.increment();
+        if (resposta.validadores() != null) {
+            validadores.put(idValidadores, resposta.validadores());
+        } else {
+            validadores.invalidate(idValidadores);
+        }
+    }
+
+    // Atualiza (ou acrescenta) a tarefa salva na lista em cache
+    public void tarefaSalva(String jwtToken, Tarefa salva) {
+        String chave = chave(jwtToken);
+        if (salva == null || salva.getId() == null) {
+            descartar(chave); // Sem o corpo da resposta não dá para corrigir a lista
+            return;
+        }
+        completarUsuario(chave, salva);
+
+        corrigir(chave, lista -> {
+            List<Tarefa> atualizada = new ArrayList<>(lista.getItens().size() + 1);
+            boolean substituida = false;
+            for (Tarefa t : lista.getItens()) {
+                if (salva.getId().equals(t.getId())) {
+                    atualizada.add(salva);
+                    substituida = true;
+                } else {
+                    atualizada.add(t);
+                }
+            }
+            if (!substituida) {
+                atualizada.add(salva);
+            }
+            return new ListaTarefas(atualizada);
+        });
+    }
+
+    // Remove a tarefa excluída da lista em cache
+    public void tarefaExcluida(String jwtToken, Long id) {
+        corrigir(chave(jwtToken), lista -> {
+            List<Tarefa> atualizada = new ArrayList<>(lista.getItens());
+            atualizada.removeIf(t -> id.equals(t.getId()));
+            return new ListaTarefas(atualizada);
+        });
+    }
+
+    // Resultado de uma ação em lote: substitui as salvas e remove as excluídas numa única passada pela lista
+    public void loteAplicado(String jwtToken, List<Tarefa> salvas, Set<Long> excluidas) {
+        String chave = chave(jwtToken);
+        Map<Long, Tarefa> porId = new HashMap<>(salvas.size() * 2);
+        for (Tarefa salva : salvas) {
+            completarUsuario(chave, salva);
+            porId.put(salva.getId(), salva);
+        }
+
+        corrigir(chave, lista -> {
+            List<Tarefa> atualizada = new ArrayList<>(lista.getItens().size());
+            for (Tarefa t : lista.getItens()) {
+                if (!excluidas.contains(t.getId())) {
+                    atualizada.add(porId.getOrDefault(t.getId(), t));
+                }
+            }
+            return new ListaTarefas(atualizada);
+        });
+    }
+
+    // Escrita aceita mas ainda não enviada ao backend (tarefa null = exclusão): já aparece na lista em cache
+    // e continua aparecendo nas listas recarregadas até escritaConcluida
+    public void escritaPendente(String jwtToken, Long id, Tarefa tarefa) {
+        String chave = chave(jwtToken);
+        pendentes.compute(chave, (k, porId) -> {
+            Map<Long, Optional<Tarefa>> atualizado = porId != null ? porId : new ConcurrentHashMap<>();
+            atualizado.put(id, Optional.ofNullable(tarefa));
+            return atualizado;
+        });
+        if (tarefa != null) {
+            tarefaSalva(jwtToken, tarefa);
+        } else {
+            tarefaExcluida(jwtToken, id);
+        }
+    }
+
+    public boolean temEscritasPendentes(String jwtToken) {
+        Map<Long, Optional<Tarefa>> porId = pendentes.get(chave(jwtToken));
+        return porId != null && !porId.isEmpty();
+    }
+
+    // A escrita pendente da tarefa: vazio se for uma exclusão; null se não houver
+    public Optional<Tarefa> getEscritaPendente(String jwtToken, Long id) {
+        Map<Long, Optional<Tarefa>> porId = pendentes.get(chave(jwtToken));
+        return porId != null ? porId.get(id) : null;
+    }
+
+    // O envio terminou (aplicado ou recusado): a lista volta a ser a que o backend devolver
+    public void escritaConcluida(String jwtToken, Long id) {
+        pendentes.computeIfPresent(chave(jwtToken), (k, porId) -> {
+            porId.remove(id);
+            return porId.isEmpty() ? null : porId;
+        });
+    }
+
+    private List<Tarefa> comPendentes(String chave, List<Tarefa> lidas) {
+        Map<Long, Optional<Tarefa>> porId = pendentes.get(chave);
+        if (porId == null || porId.isEmpty()) {
+            return lidas;
+        }
+        List<Tarefa> resultado = new ArrayList<>(lidas.size() + porId.size());
+        Set<Long> aplicadas = new HashSet<>();
+        for (Tarefa t : lidas) {
+            Optional<Tarefa> pendente = t.getId() != null ? porId.get(t.getId()) : null;
+            if (pendente == null) {
+                resultado.add(t);
+            } else {
+                aplicadas.add(t.getId());
+                pendente.ifPresent(resultado::add);
+            }
+        }
+        porId.forEach((id, pendente) -> {
+            if (!aplicadas.contains(id)) {
+                pendente.ifPresent(resultado::add); // Criadas (id provisório) ou ainda fora da lista lida
+            }
+        });
+        return resultado;
+    }
+
+    // Descarta só a lista de tarefas (a de usuários continua válida); a próxima leitura vai ao backend
+    public void invalidarTarefas(String jwtToken) {
+        descartar(chave(jwtToken));
+    }
+
+    // Read-through com uma única carga em andamento por chave, executada fora de qualquer lock
+    @SuppressWarnings("unchecked")
+    private <V> V carregar(Cache<String, V> cache, String idCarga, String chave, Supplier<V> loader) {
+        V emCache = cache.getIfPresent(chave);
+        if (emCache != null) {
+            return emCache;
+        }
+
+        CompletableFuture<Object> minha = new CompletableFuture<>();
+        CompletableFuture<Object> emAndamento = cargas.putIfAbsent(idCarga, minha);
+        if (emAndamento != null) {
+            try {
+                return (V) emAndamento.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException causa) {
+                    throw causa;
+                }
+                throw e;
+            }
+        }
+
+        try {
+            V valor = loader.get(); // O loader guarda o valor no cache
+            minha.complete(valor);
+            return valor;
+        } catch (RuntimeException e) {
+            minha.completeExceptionally(e);
+            throw e;
+        } finally {
+            cargas.remove(idCarga, minha);
+        }
+    }
+
+    // Aplica a correção tanto na lista vigente quanto na última cópia boa. A versão sobe antes: uma carga em
+    // andamento não guarda mais a lista dela; uma que já guardou fica antes deste compute e é corrigida.
+    private void corrigir(String chave, UnaryOperator<ListaTarefas> correcao) {
+        novaVersao(chave);
+        tarefas.asMap().compute(chave, (k, lista) -> {
+            validadores.invalidate("tarefas:" + chave);
+            ultimasTarefas.asMap().computeIfPresent(chave, (c, ultima) -> correcao.apply(ultima));
+            return lista != null ? correcao.apply(lista) : null;
+        });
+    }
+
+    private void descartar(String chave) {
+        novaVersao(chave);
+        tarefas.invalidate(chave);
+    }
+
+    private long versao(String chave) {
+        return versoes.get(chave, k -> new AtomicLong()).get();
+    }
+
+    private void novaVersao(String chave) {
+        versoes.get(chave, k -> new AtomicLong()).incrementAndGet();
+    }
+
+    public void invalidar(String jwtToken) {
+        String chave = chave(jwtToken);
+        descartar(chave);
+        usuarios.invalidate(chave);
+    }
+
+    // Acertos, faltas e remoções expostos como cache.gets / cache.evictions (tags cache=tarefas|usuarios)
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, tarefas, "tarefas");
+        CaffeineCacheMetrics.monitor(registry, usuarios, "usuarios");
+        // Recargas que o backend respondeu com 304 (lista reaproveitada) ou com um corpo novo
+        FunctionCounter.builder("api.cache.revalidacoes", naoModificadas, LongAdder::sum)
+                .tag("resultado", "nao-modificada").register(registry);
+        FunctionCounter.builder("api.cache.revalidacoes", modificadas, LongAdder::sum)
+                .tag("resultado", "modificada").register(registry);
+    }
+
+    // O formulário envia só o id do usuário; preenche o restante a partir da lista de usuários em cache
+    private void completarUsuario(String chave, Tarefa tarefa) {
+        Usuario usuario = tarefa.getUsuario();
+        if (usuario == null || usuario.getId() == null || usuario.getNome() != null) {
+            return;
+        }
+        List<Usuario> cacheados = usuarios.getIfPresent(chave);
+        if (cacheados == null) {
+            return;
+        }
+        cacheados.stream()
+                .filter(u -> usuario.getId().equals(u.getId()))
+                .findFirst()
+                .ifPresent(tarefa::setUsuario);
+    }
+
+    // Chave do cache: o "sub" do JWT (lido uma vez por token); se o token não puder ser lido, o próprio token
+    private String chave(String jwtToken) {
+        return jwtInspector.usuario(jwtToken);
+    }
+}
@@ -0,0 +1,133 @@
+package com.wasc.frontend.service;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wasc.frontend.model.Tarefa;
+import com.wasc.frontend.model.Usuario;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Leitura incremental (API de tokens do Jackson) da resposta de /tarefas.
+ * Cada tarefa é entregue assim que termina de ser lida, sem montar o array inteiro,
+ * e o usuário aninhado em cada tarefa é compartilhado por id: um único objeto Usuario
+ * por usuário distinto, em vez de uma cópia por tarefa.
+ */
+@Component
+public class TarefaJsonReader {
+
+    private final ObjectMapper objectMapper;
+
+    public TarefaJsonReader(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public List<Tarefa> lerTarefas(InputStream in) throws IOException {
+        List<Tarefa> tarefas = new ArrayList<>();
+        lerTarefas(in, tarefas::add);
+        return tarefas;
+    }
+
+    // Entrega cada tarefa ao consumer conforme o array é lido
+    public void lerTarefas(InputStream in, Consumer<Tarefa> consumer) throws IOException {
+        Map<Long, Usuario> usuarios = new HashMap<>();
+        try (JsonParser parser = objectMapper.getFactory().createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new JsonParseException(parser, "Esperado um array de tarefas");
+            }
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                consumer.accept(lerTarefa(parser, usuarios));
+            }
+        }
+    }
+
+    private Tarefa lerTarefa(JsonParser parser, Map<Long, Usuario> usuarios) throws IOException {
+        Tarefa tarefa = new Tarefa();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String campo = parser.currentName();
+            JsonToken valor = parser.nextToken();
+            if (valor == JsonToken.VALUE_NULL) {
+                continue;
+            }
+            switch (campo) {
+                case "id" -> tarefa.setId(parser.getLongValue());
+                case "titulo" -> tarefa.setTitulo(parser.getText());
+                case "descricao" -> tarefa.setDescricao(parser.getText());
+                case "data" -> tarefa.setData(lerData(parser));
+                case "status" -> tarefa.setStatus(parser.getBooleanValue());
+                case "usuario" -> tarefa.setUsuario(lerUsuario(parser, usuarios));
+                default -> parser.skipChildren(); // Campo desconhecido: ignora (inclusive objetos/arrays)
+            }
+        }
+        return tarefa;
+    }
+
+    private Usuario lerUsuario(JsonParser parser, Map<Long, Usuario> usuarios) throws IOException {
+        Long id = null;
+        String nome = null;
+        LocalDate dataNascimento = null;
+        boolean ativo = false;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String campo = parser.currentName();
+            JsonToken valor = parser.nextToken();
+            if (valor == JsonToken.VALUE_NULL) {
+                continue;
+            }
+            switch (campo) {
+                case "id" -> {
+                    id = parser.getLongValue();
+                    Usuario existente = usuarios.get(id);
+                    if (existente != null) {
+                        pularRestoDoObjeto(parser); // Usuário já visto: não precisa ler o resto
+                        return existente;
+                    }
+                }
+                case "nome" -> nome = parser.getText();
+                case "dataNascimento" -> dataNascimento = lerData(parser);
+                case "ativo" -> ativo = parser.getBooleanValue();
+                default -> parser.skipChildren();
+            }
+        }
+
+        Usuario usuario = new Usuario(id, nome, dataNascimento, ativo);
+        if (id != null) {
+            usuarios.put(id, usuario);
+        }
+        return usuario;
+    }
+
+    // Aceita tanto "2024-01-31" quanto [2024, 1, 31]
+    private static LocalDate lerData(JsonParser parser) throws IOException {
+        if (parser.currentToken() == JsonToken.START_ARRAY) {
+            parser.nextToken();
+            int ano = parser.getIntValue();
+            parser.nextToken();
+            int mes = parser.getIntValue();
+            parser.nextToken();
+            int dia = parser.getIntValue();
+            while (parser.currentToken() != JsonToken.END_ARRAY) {
+                parser.nextToken();
+            }
+            return LocalDate.of(ano, mes, dia);
+        }
+        return LocalDate.parse(parser.getText());
+    }
+
+    private static void pularRestoDoObjeto(JsonParser parser) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            parser.nextToken();
+            parser.skipChildren();
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.wasc.frontend.service;
+
+import com.wasc.frontend.model.Tarefa;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Tarefas que chegam do backend enquanto a página é renderizada.
+ * O ApiService publica cada tarefa lida do JSON numa fila limitada; o th:each de tasks.html
+ * consome a fila pelo iterador. A cada bloco de linhas (e antes da primeira) o callback
+ * aoCompletarBloco é chamado, para o controller descarregar a resposta ao navegador.
+ * Se a leitura falhar ou parar no meio, a iteração termina e {@link #isInterrompido()} passa a valer true,
+ * para a view avisar que a lista está incompleta. Só pode ser iterado uma vez.
+ */
+public class TarefaStream implements Iterable<Tarefa> {
+
+    private static final Tarefa FIM = new Tarefa();
+    private static final long ESPERA_CONSUMIDOR_SEGUNDOS = 30;
+
+    private final BlockingQueue<Tarefa> fila;
+    private final int tamanhoBloco;
+    private final Duration prazoInicio;
+    private final CompletableFuture<Void> iniciado = new CompletableFuture<>();
+    private volatile boolean cancelado;
+    private volatile String erro; // Motivo da interrupção depois que a página já começou a ser enviada
+    private Runnable aoCompletarBloco = () -> { };
+    private boolean iterado;
+
+    TarefaStream(int tamanhoBloco, Duration prazoInicio) {
+        this.tamanhoBloco = Math.max(tamanhoBloco, 1);
+        this.prazoInicio = prazoInicio;
+        this.fila = new ArrayBlockingQueue<>(this.tamanhoBloco * 2);
+    }
+
+    // --- Lado do produtor (thread do apiExecutor) ---
+
+    // O backend respondeu 2xx: a página já pode começar a ser renderizada
+    void iniciar() {
+        iniciado.complete(null);
+    }
+
+    void publicar(Tarefa tarefa) {
+        if (cancelado) {
+            throw new CancellationException("Renderização das tarefas cancelada");
+        }
+        try {
+            // Se a renderização parou de consumir (cliente desconectou), desiste em vez de bloquear para sempre
+            if (!fila.offer(tarefa, ESPERA_CONSUMIDOR_SEGUNDOS, TimeUnit.SECONDS)) {
+                throw new CancellationException("Renderização das tarefas abandonada");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Leitura das tarefas interrompida");
+        }
+    }
+
+    // Fim da leitura; com erro, se a renderização ainda não começou ele é repassado ao controller
+    void terminar(Throwable erro) {
+        if (erro != null) {
+            this.erro = "erro ao ler as tarefas do servidor (" + erro.getMessage() + ")";
+            iniciado.completeExceptionally(erro);
+        }
+        iniciado.complete(null);
+        try {
+            fila.offer(FIM, ESPERA_CONSUMIDOR_SEGUNDOS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // --- Lado do controller ---
+
+    // Espera o status da resposta do backend; 401/403 e outras falhas chegam aqui antes da página ser enviada
+    public void aguardarInicio() {
+        try {
+            iniciado.get(prazoInicio.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            cancelar();
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw new ResourceAccessException("Erro ao buscar tarefas: " + e.getCause().getMessage());
+        } catch (TimeoutException e) {
+            cancelar();
+            throw new ResourceAccessException("Tempo esgotado ao buscar tarefas (" + prazoInicio.toMillis() + " ms)");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancelar();
+            throw new ResourceAccessException("Busca de tarefas interrompida");
+        }
+    }
+
+    public void cancelar() {
+        cancelado = true;
+        fila.clear();
+    }
+
+    // Vale depois da iteração: true se ela parou antes do fim da lista
+    public boolean isInterrompido() {
+        return erro != null;
+    }
+
+    public String getErro() {
+        return erro;
+    }
+
+    public void setAoCompletarBloco(Runnable aoCompletarBloco) {
+        this.aoCompletarBloco = aoCompletarBloco;
+    }
+
+    @Override
+    public Iterator<Tarefa> iterator() {
+        if (iterado) {
+            throw new IllegalStateException("TarefaStream só pode ser iterado uma vez");
+        }
+        iterado = true;
+        aoCompletarBloco.run(); // Envia cabeçalho e formulário antes de esperar a primeira linha
+
+        return new Iterator<>() {
+            private Tarefa proxima;
+            private int entregues;
+
+            @Override
+            public boolean hasNext() {
+                if (proxima == null) {
+                    proxima = aguardarProxima();
+                }
+                return proxima != FIM;
+            }
+
+            @Override
+            public Tarefa next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Tarefa atual = proxima;
+                proxima = null;
+                if (++entregues % tamanhoBloco == 0) {
+                    aoCompletarBloco.run();
+                }
+                return atual;
+            }
+        };
+    }
+
+    private Tarefa aguardarProxima() {
+        try {
+            Tarefa tarefa = fila.poll(ESPERA_CONSUMIDOR_SEGUNDOS, TimeUnit.SECONDS);
+            if (tarefa == null) {
+                interromper("tempo esgotado esperando o servidor de tarefas");
+                return FIM;
+            }
+            return tarefa;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            interromper("leitura interrompida");
+            return FIM;
+        }
+    }
+
+    private void interromper(String motivo) {
+        if (erro == null) {
+            erro = motivo;
+        }
+        cancelar(); // O produtor desiste na próxima tarefa em vez de esperar a fila
+    }
+}
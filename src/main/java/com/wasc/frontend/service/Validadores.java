@@ -0,0 +1,26 @@
+package com.wasc.frontend.service;
+
+import org.springframework.http.HttpHeaders;
+
+/**
+ * ETag e Last-Modified da última resposta 200 de um endpoint do backend. São reenviados
+ * exatamente como vieram, em If-None-Match e If-Modified-Since, na próxima busca da mesma lista.
+ */
+public record Validadores(String etag, String ultimaModificacao) {
+
+    // Null quando o backend não mandou nenhum dos dois cabeçalhos
+    public static Validadores de(HttpHeaders headers) {
+        String etag = headers.getFirst(HttpHeaders.ETAG);
+        String ultimaModificacao = headers.getFirst(HttpHeaders.LAST_MODIFIED);
+        return etag != null || ultimaModificacao != null ? new Validadores(etag, ultimaModificacao) : null;
+    }
+
+    public void aplicar(HttpHeaders headers) {
+        if (etag != null) {
+            headers.set(HttpHeaders.IF_NONE_MATCH, etag);
+        }
+        if (ultimaModificacao != null) {
+            headers.set(HttpHeaders.IF_MODIFIED_SINCE, ultimaModificacao);
+        }
+    }
+}
@@ -0,0 +1,180 @@
+// Página de tarefas sem recarregar: editar, salvar, concluir/reabrir e excluir trocam só a linha afetada
+// (ou o formulário) pelo fragmento vindo de /tasks/fragmentos. Sem este script, ou se uma resposta vier
+// diferente do esperado, os links e formulários seguem o caminho de sempre (ação completa + página inteira).
+(function () {
+    'use strict';
+
+    const BASE = '/tasks/fragmentos';
+
+    // Resultado: { ok, html }. Respostas JSON trazem a mensagem a exibir ou a página para onde ir.
+    // Erros de rede e respostas inesperadas rejeitam a promessa, e a ação é refeita sem JavaScript.
+    async function requisitar(url, opcoes) {
+        const resposta = await fetch(url, Object.assign({
+            credentials: 'same-origin',
+            headers: { 'Accept': 'text/html, application/json' }
+        }, opcoes));
+        if (resposta.redirected) { // Token vencido: o servidor mandou para o login
+            window.location.assign(resposta.url);
+            return { ok: false };
+        }
+        const tipo = resposta.headers.get('Content-Type') || '';
+        if (tipo.includes('application/json')) {
+            const json = await resposta.json();
+            if (json.destino) {
+                window.location.assign(json.destino);
+                return { ok: false };
+            }
+            avisar(json.mensagem, resposta.ok);
+            return { ok: resposta.ok };
+        }
+        if (!resposta.ok || !tipo.includes('text/html')) {
+            throw new Error('Resposta inesperada: ' + resposta.status);
+        }
+        return { ok: true, html: await resposta.text() };
+    }
+
+    function postar(url, form) {
+        return requisitar(url, { method: 'POST', body: new URLSearchParams(new FormData(form)) });
+    }
+
+    function elemento(html) {
+        const template = document.createElement('template');
+        template.innerHTML = html.trim();
+        return template.content.firstElementChild;
+    }
+
+    function avisar(mensagem, sucesso) {
+        const aviso = document.getElementById('avisoParcial');
+        if (!aviso || !mensagem) {
+            return;
+        }
+        aviso.className = 'message ' + (sucesso ? 'success' : 'error');
+        aviso.firstElementChild.textContent = mensagem;
+        aviso.hidden = false;
+    }
+
+    function linhaDaTarefa(id) {
+        return document.querySelector('#tasksTable tbody tr[data-id="' + id + '"]');
+    }
+
+    // Insere a linha nova no topo ou substitui a que tem o mesmo data-id
+    function colocarLinha(html) {
+        const nova = elemento(html);
+        if (!nova || !nova.dataset.id) { // A ação já foi feita: não refaz, só mostra a página atualizada
+            window.location.reload();
+            return;
+        }
+        const atual = linhaDaTarefa(nova.dataset.id);
+        if (atual) {
+            atual.replaceWith(nova);
+        } else {
+            const corpo = document.querySelector('#tasksTable tbody');
+            corpo.querySelectorAll('tr:not([data-id])').forEach(function (vazia) { vazia.remove(); });
+            corpo.prepend(nova);
+        }
+        nova.classList.add('atualizada');
+    }
+
+    async function carregarFormulario(id) {
+        const resultado = await requisitar(BASE + '/formulario' + (id ? '/' + id : ''));
+        if (resultado.ok) {
+            document.getElementById('formularioTarefa').replaceWith(elemento(resultado.html));
+        }
+        return resultado;
+    }
+
+    // Refaz a ação pelo caminho sem JavaScript se algo inesperado acontecer
+    function interceptar(evento, executar, semScript) {
+        evento.preventDefault();
+        executar().catch(function (erro) {
+            console.warn('Ação parcial falhou, recarregando a página inteira', erro);
+            semScript();
+        });
+    }
+
+    document.addEventListener('click', function (evento) {
+        const link = evento.target.closest('a');
+        if (!link) {
+            return;
+        }
+        const linha = link.closest('tr[data-id]');
+        if (linha && link.classList.contains('acao-editar')) {
+            interceptar(evento, async function () {
+                const resultado = await carregarFormulario(linha.dataset.id);
+                if (resultado.ok) {
+                    document.getElementById('formularioTarefa').scrollIntoView({ behavior: 'smooth' });
+                }
+            }, function () { window.location.assign(link.href); });
+        } else if (linha && link.classList.contains('acao-excluir')) {
+            interceptar(evento, async function () {
+                const resultado = await requisitar(BASE + '/linha/' + linha.dataset.id, { method: 'DELETE' });
+                if (resultado.ok) {
+                    linha.remove();
+                }
+            }, function () { window.location.assign(link.href); });
+        } else if (link.closest('#formularioTarefa') && link.getAttribute('href') === '/tasks') { // Cancelar Edição
+            interceptar(evento, function () { return carregarFormulario(null); },
+                function () { window.location.assign(link.href); });
+        }
+    });
+
+    document.addEventListener('submit', function (evento) {
+        const form = evento.target;
+        if (form.closest('#formularioTarefa')) {
+            interceptar(evento, async function () {
+                const resultado = await postar(BASE + '/linha', form);
+                if (resultado.ok && resultado.html) {
+                    colocarLinha(resultado.html);
+                    avisar('Tarefa salva com sucesso!', true);
+                    // Já salva: se o formulário em branco não vier, só limpa este (sem reenviar)
+                    carregarFormulario(null).catch(function () { form.reset(); });
+                }
+            }, function () { form.submit(); });
+        } else if (form.classList.contains('acao-status')) {
+            const linha = form.closest('tr[data-id]');
+            interceptar(evento, async function () {
+                const resultado = await postar(BASE + '/linha/' + linha.dataset.id + '/acao', form);
+                if (resultado.ok && resultado.html) {
+                    colocarLinha(resultado.html);
+                }
+            }, function () { form.submit(); });
+        }
+    });
+
+    // Atualizações ao vivo (/tasks/eventos): o servidor lê a lista uma vez por usuário, compara e manda só o
+    // que mudou. Linhas alteradas são buscadas já renderizadas; tarefas novas só são avisadas, porque a posição
+    // delas depende da ordenação, dos filtros e da página em exibição.
+    function aplicarDiferenca(diff) {
+        diff.removidas.forEach(function (id) {
+            const linha = linhaDaTarefa(id);
+            if (linha) {
+                linha.remove();
+            }
+        });
+        const naPagina = diff.alteradas.concat(diff.novas).filter(function (t) { return linhaDaTarefa(t.id); });
+        naPagina.forEach(function (tarefa) {
+            requisitar(BASE + '/linha/' + tarefa.id).then(function (resultado) {
+                if (resultado.ok && resultado.html) {
+                    linhaDaTarefa(tarefa.id).replaceWith(elemento(resultado.html));
+                    linhaDaTarefa(tarefa.id).classList.add('atualizada');
+                }
+            }).catch(function (erro) { console.warn('Não foi possível atualizar a linha ' + tarefa.id, erro); });
+        });
+        const novas = diff.novas.filter(function (t) { return naPagina.indexOf(t) < 0; }).length;
+        if (novas > 0) {
+            avisar(novas + ' tarefa(s) nova(s). Recarregue a página para vê-las.', true);
+        }
+    }
+
+    if (window.EventSource && document.getElementById('tasksTable')) {
+        const eventos = new EventSource('/tasks/eventos');
+        eventos.addEventListener('tarefas', function (evento) { aplicarDiferenca(JSON.parse(evento.data)); });
+        eventos.addEventListener('ressincronizar', function (evento) { avisar(JSON.parse(evento.data).mensagem, false); });
+        eventos.addEventListener('sessao', function (evento) {
+            eventos.close();
+            window.location.assign(JSON.parse(evento.data).destino);
+        });
+        // Fecha ao sair, para o servidor liberar a conexão (e o poller, se for a última aba) sem esperar o keep-alive
+        window.addEventListener('pagehide', function () { eventos.close(); });
+    }
+})();
@@ -0,0 +1,40 @@
+package com.wasc.frontend.config;
+
+import com.wasc.frontend.com.tarefasonline.Application;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Perfil prod: os três templates já estão no cache quando o contexto termina de subir
+@SpringBootTest(classes = Application.class)
+@ActiveProfiles("prod")
+@AutoConfigureMockMvc
+class AquecimentoTemplatesTest {
+
+	@Autowired
+	private AquecimentoTemplates aquecimento;
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Test
+	void templatesParseadosAntesDaPrimeiraRequisicao() throws Exception {
+		assertTrue(aquecimento.emCache("login"));
+		assertTrue(aquecimento.emCache("register"));
+		assertTrue(aquecimento.emCache("tasks"));
+
+		// O parse guardado é o mesmo usado na renderização de uma requisição de verdade
+		mvc.perform(get("/login"))
+				.andExpect(status().isOk())
+				.andExpect(content().string(containsString("/style-")));
+	}
+}
@@ -0,0 +1,127 @@
+package com.wasc.frontend.config;
+
+import com.wasc.frontend.com.tarefasonline.Application;
+import com.wasc.frontend.support.StubBackend;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Bytes que de fato trafegam (Tomcat de verdade, sem descompressão automática no cliente)
+class CompressaoRecursosTest {
+
+	private static final Logger log = LoggerFactory.getLogger(CompressaoRecursosTest.class);
+
+	@RegisterExtension
+	static final StubBackend backend = StubBackend.iniciar(1000);
+	private static ConfigurableApplicationContext app;
+	private static String cookie;
+
+	private final HttpClient http = HttpClient.newHttpClient();
+
+	// Streaming: sem parâmetros na URL, /tasks traz as 1000 linhas de uma vez (sem cache, que serviria a página paginada)
+	@BeforeAll
+	static void iniciar() throws Exception {
+		app = new SpringApplicationBuilder(Application.class).run("--server.port=0", "--management.server.port=0",
+				"--api.base.url=" + backend.getUrl(),
+				"--tarefas.render.streaming=true", "--api.cache.ttl=0s");
+		HttpResponse<String> login = HttpClient.newHttpClient().send(HttpRequest.newBuilder(uri("/login"))
+						.header("Content-Type", "application/x-www-form-urlencoded")
+						.POST(HttpRequest.BodyPublishers.ofString("username=usuario1&password=x"))
+						.build(),
+				HttpResponse.BodyHandlers.ofString());
+		cookie = login.headers().firstValue("Set-Cookie").orElseThrow().split(";", 2)[0];
+	}
+
+	@AfterAll
+	static void parar() {
+		app.close();
+	}
+
+	@Test
+	void paginaComMilLinhasTrafegaComprimida() throws Exception {
+		HttpResponse<byte[]> semCompressao = get("/tasks", "identity");
+		HttpResponse<byte[]> comGzip = get("/tasks", "gzip");
+		log.info("/tasks com 1000 linhas: {} bytes sem compressão, {} bytes com gzip",
+				semCompressao.body().length, comGzip.body().length);
+
+		assertEquals("gzip", comGzip.headers().firstValue("Content-Encoding").orElse(null));
+		assertEquals(new String(semCompressao.body(), StandardCharsets.UTF_8), gunzip(comGzip.body()));
+		assertTrue(comGzip.body().length * 8 < semCompressao.body().length);
+	}
+
+	@Test
+	void cssComHashEImutavelEPreComprimido() throws Exception {
+		String html = gunzip(get("/tasks", "gzip").body());
+		Matcher link = Pattern.compile("href=\"(/style-[0-9a-f]{32}\\.css)\"").matcher(html);
+		assertTrue(link.find(), "link do CSS sem hash");
+
+		HttpResponse<byte[]> css = get(link.group(1), "gzip");
+		HttpResponse<byte[]> cssOriginal = get(link.group(1), "identity");
+		log.info("{}: {} bytes sem compressão, {} bytes pré-comprimidos", link.group(1),
+				cssOriginal.body().length, css.body().length);
+		assertEquals(200, css.statusCode());
+		assertEquals("gzip", css.headers().firstValue("Content-Encoding").orElse(null));
+		assertEquals("max-age=31536000, public, immutable", css.headers().firstValue("Cache-Control").orElse(null));
+		assertTrue(css.headers().firstValue("Vary").orElse("").contains("Accept-Encoding"));
+		assertEquals(new String(cssOriginal.body(), StandardCharsets.UTF_8), gunzip(css.body()));
+
+		// Sem hash na URL o conteúdo pode mudar: revalida a cada uso
+		assertEquals("no-cache", get("/style.css", "identity").headers().firstValue("Cache-Control").orElse(null));
+	}
+
+	@Test
+	void etagFracoPermiteComprimirERevalidar() throws Exception {
+		HttpResponse<byte[]> pagina = get("/tasks?size=500", "gzip");
+		String etag = pagina.headers().firstValue("ETag").orElseThrow();
+		assertTrue(etag.startsWith("W/\""), etag);
+		assertEquals("gzip", pagina.headers().firstValue("Content-Encoding").orElse(null));
+
+		HttpResponse<byte[]> revalidada = http.send(HttpRequest.newBuilder(uri("/tasks?size=500"))
+						.header("Cookie", cookie)
+						.header("Accept-Encoding", "gzip")
+						.header("If-None-Match", etag)
+						.build(),
+				HttpResponse.BodyHandlers.ofByteArray());
+		assertEquals(304, revalidada.statusCode());
+		assertEquals(0, revalidada.body().length);
+	}
+
+	private HttpResponse<byte[]> get(String caminho, String codificacao) throws Exception {
+		return http.send(HttpRequest.newBuilder(uri(caminho))
+						.header("Cookie", cookie)
+						.header("Accept-Encoding", codificacao)
+						.build(),
+				HttpResponse.BodyHandlers.ofByteArray());
+	}
+
+	private static String gunzip(byte[] comprimido) throws IOException {
+		try (GZIPInputStream entrada = new GZIPInputStream(new ByteArrayInputStream(comprimido))) {
+			return new String(entrada.readAllBytes(), StandardCharsets.UTF_8);
+		}
+	}
+
+	private static URI uri(String caminho) {
+		int porta = ((WebServerApplicationContext) app).getWebServer().getPort();
+		return URI.create("http://127.0.0.1:" + porta + caminho);
+	}
+}
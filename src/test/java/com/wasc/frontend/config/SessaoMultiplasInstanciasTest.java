@@ -0,0 +1,106 @@
+package com.wasc.frontend.config;
+
+import com.wasc.frontend.com.tarefasonline.Application;
+import com.wasc.frontend.service.ArmazemSessoes;
+import com.wasc.frontend.service.ArmazemSessoesLocal;
+import com.wasc.frontend.support.StubBackend;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Duas réplicas do frontend atrás de um balanceador sem afinidade: login numa, listagem na outra
+class SessaoMultiplasInstanciasTest {
+
+	@RegisterExtension
+	static final StubBackend backend = StubBackend.iniciar(10);
+
+	private final HttpClient http = HttpClient.newHttpClient(); // Não segue redirecionamentos
+
+	@Test
+	void modoMemoriaPerdeALoginNaOutraInstancia() throws Exception {
+		try (ConfigurableApplicationContext a = iniciar("memoria", null);
+			 ConfigurableApplicationContext b = iniciar("memoria", null)) {
+			String cookie = login(a);
+
+			HttpResponse<String> resposta = get(b, "/tasks", cookie);
+			assertEquals(302, resposta.statusCode());
+			assertTrue(resposta.headers().firstValue("Location").orElseThrow().endsWith("/login"));
+		}
+	}
+
+	@Test
+	void modoCookieNaoGuardaNadaNoServidor() throws Exception {
+		try (ConfigurableApplicationContext a = iniciar("cookie", null);
+			 ConfigurableApplicationContext b = iniciar("cookie", null)) {
+			String cookie = login(a);
+
+			HttpResponse<String> resposta = get(b, "/tasks", cookie);
+			assertEquals(200, resposta.statusCode());
+			assertTrue(resposta.body().contains(">Tarefa 1<"));
+			assertTrue(resposta.headers().firstValue("Set-Cookie").isEmpty()); // Leitura não regrava o cookie
+
+			String adulterado = cookie.substring(0, cookie.length() - 2) + (cookie.endsWith("A") ? "BB" : "AA");
+			assertEquals(302, get(b, "/tasks", adulterado).statusCode());
+		}
+	}
+
+	@Test
+	void modoCompartilhadoVeOLoginEOLogoutEmQualquerInstancia() throws Exception {
+		ArmazemSessoesLocal armazem = new ArmazemSessoesLocal();
+		try (ConfigurableApplicationContext a = iniciar("compartilhada", armazem);
+			 ConfigurableApplicationContext b = iniciar("compartilhada", armazem)) {
+			String cookie = login(a);
+			assertEquals(1, armazem.getQuantidade());
+
+			HttpResponse<String> resposta = get(b, "/tasks", cookie);
+			assertEquals(200, resposta.statusCode());
+			assertTrue(resposta.body().contains(">Tarefa 1<"));
+
+			get(b, "/logout", cookie);
+			assertEquals(302, get(a, "/tasks", cookie).statusCode());
+		}
+	}
+
+	private ConfigurableApplicationContext iniciar(String modo, ArmazemSessoes armazem) {
+		SpringApplicationBuilder builder = new SpringApplicationBuilder(Application.class);
+		if (armazem != null) {
+			builder.initializers(contexto -> contexto.getBeanFactory().registerSingleton("armazemSessoes", armazem));
+		}
+		return builder.run("--server.port=0", "--management.server.port=0",
+				"--api.base.url=" + backend.getUrl(),
+				"--tarefas.sessao.modo=" + modo,
+				"--tarefas.sessao.segredo=segredo-de-teste");
+	}
+
+	// Devolve o cookie de sessão ("nome=valor") emitido pelo login
+	private String login(ConfigurableApplicationContext instancia) throws Exception {
+		HttpResponse<String> resposta = http.send(HttpRequest.newBuilder(uri(instancia, "/login"))
+						.header("Content-Type", "application/x-www-form-urlencoded")
+						.POST(HttpRequest.BodyPublishers.ofString("username=usuario1&password=x"))
+						.build(),
+				HttpResponse.BodyHandlers.ofString());
+		assertEquals(302, resposta.statusCode());
+		assertTrue(resposta.headers().firstValue("Location").orElseThrow().contains("/tasks")); // Tomcat pode anexar ;jsessionid
+		return resposta.headers().firstValue("Set-Cookie").orElseThrow().split(";", 2)[0];
+	}
+
+	private HttpResponse<String> get(ConfigurableApplicationContext instancia, String caminho, String cookie) throws Exception {
+		return http.send(HttpRequest.newBuilder(uri(instancia, caminho)).header("Cookie", cookie).GET().build(),
+				HttpResponse.BodyHandlers.ofString());
+	}
+
+	private static URI uri(ConfigurableApplicationContext instancia, String caminho) {
+		int porta = ((WebServerApplicationContext) instancia).getWebServer().getPort();
+		return URI.create("http://127.0.0.1:" + porta + caminho);
+	}
+}
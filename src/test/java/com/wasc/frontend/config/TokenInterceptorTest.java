@@ -0,0 +1,79 @@
+package com.wasc.frontend.config;
+
+import com.wasc.frontend.com.tarefasonline.Application;
+import com.wasc.frontend.support.StubBackend;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrl;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(classes = Application.class, properties = "api.auth.renovacao.habilitada=true")
+@AutoConfigureMockMvc
+class TokenInterceptorTest {
+
+	@RegisterExtension
+	static final StubBackend backend = StubBackend.iniciar(10);
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@BeforeEach
+	void zerarChamadas() {
+		backend.zerarChamadas();
+	}
+
+	@Test
+	void tokenVencidoVoltaAoLoginSemChamarBackend() throws Exception {
+		double evitadasAntes = meterRegistry.counter("tarefas.backend.evitadas", "motivo", "token-expirado").count();
+		MockHttpSession session = sessao(StubBackend.jwt("usuario1", agora() - 60));
+
+		mvc.perform(get("/tasks").session(session))
+				.andExpect(status().is3xxRedirection())
+				.andExpect(redirectedUrl("/login?expirado"));
+
+		assertTrue(session.isInvalid());
+		assertEquals(0, backend.getChamadas("GET /tarefas") + backend.getChamadas("GET /usuarios"));
+		assertEquals(evitadasAntes + 1, meterRegistry.counter("tarefas.backend.evitadas", "motivo", "token-expirado").count());
+	}
+
+	@Test
+	void tokenPertoDoVencimentoERenovadoEmSegundoPlano() throws Exception {
+		String token = StubBackend.jwt("usuario1", agora() + 120);
+		MockHttpSession session = sessao(token);
+
+		mvc.perform(get("/tasks").session(session)).andExpect(status().isOk());
+
+		for (int i = 0; i < 50 && token.equals(session.getAttribute("jwtToken")); i++) {
+			Thread.sleep(100);
+		}
+		assertNotEquals(token, session.getAttribute("jwtToken"));
+		assertEquals(1, backend.getChamadas("POST /auth/refresh"));
+		assertEquals(1, backend.getChamadas("GET /tarefas"));
+	}
+
+	private static MockHttpSession sessao(String token) {
+		MockHttpSession session = new MockHttpSession();
+		session.setAttribute("jwtToken", token);
+		session.setAttribute("loggedInUser", "usuario1");
+		return session;
+	}
+
+	private static long agora() {
+		return System.currentTimeMillis() / 1000;
+	}
+}
@@ -0,0 +1,195 @@
+package com.wasc.frontend.controller;
+
+import com.wasc.frontend.com.tarefasonline.Application;
+import com.wasc.frontend.model.ListaTarefas;
+import com.wasc.frontend.service.ReactiveApiService;
+import com.wasc.frontend.service.TarefaCache;
+import com.wasc.frontend.support.StubBackend;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseCookie;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.BodyInserters;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Perfil "reactive": WebFlux + Netty contra o StubBackend, com a renderização data-driven ligada
+@SpringBootTest(classes = Application.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+		properties = {"tarefas.render.streaming=true", "tarefas.ao-vivo.intervalo=200ms"})
+@ActiveProfiles("reactive")
+class ReactiveStackTest {
+
+	@RegisterExtension
+	static final StubBackend backend = StubBackend.iniciar(120);
+
+	@Autowired
+	private WebTestClient client;
+
+	@Autowired
+	private TarefaCache tarefaCache;
+
+	@Autowired
+	private ReactiveApiService apiService;
+
+	private ResponseCookie sessao;
+
+	@BeforeEach
+	void login() {
+		sessao = client.post().uri("/login")
+				.body(BodyInserters.fromFormData("username", "usuario1").with("password", "x"))
+				.exchange()
+				.expectStatus().is3xxRedirection()
+				.expectHeader().location("/tasks")
+				.returnResult(Void.class)
+				.getResponseCookies().getFirst("SESSION");
+		assertNotNull(sessao);
+	}
+
+	@Test
+	void renderizaTodasAsLinhasEmStreamingSemParametros() {
+		// Com a lista em cache (deixada por outro teste) a página sairia dela, paginada
+		tarefaCache.invalidarTarefas(StubBackend.jwt("usuario1", System.currentTimeMillis() / 1000 + 3600));
+		String html = client.get().uri("/tasks").cookie(sessao.getName(), sessao.getValue())
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody(String.class).returnResult().getResponseBody();
+
+		assertTrue(html.contains(">Tarefa 1<"));
+		assertTrue(html.contains(">Tarefa 120<"));
+		assertFalse(html.contains("class=\"pagination\""));
+	}
+
+	@Test
+	void faltasSimultaneasNoCacheFazemUmaChamadaSo() {
+		String jwt = StubBackend.jwt("carga-" + System.nanoTime(), System.currentTimeMillis() / 1000 + 3600);
+		backend.setAtraso(Duration.ofMillis(200)); // Todas chegam com a primeira carga a caminho
+		try {
+			int antes = backend.getChamadas("GET /tarefas");
+			List<ListaTarefas> listas = Flux.range(0, 10)
+					.flatMap(i -> apiService.getListaTarefas(jwt))
+					.collectList()
+					.block(Duration.ofSeconds(5));
+
+			assertEquals(10, listas.size());
+			assertEquals(1, backend.getChamadas("GET /tarefas") - antes);
+		} finally {
+			backend.setAtraso(Duration.ZERO);
+		}
+	}
+
+	@Test
+	void paginaComParametros() {
+		String html = client.get().uri("/tasks?size=10&sort=id&dir=desc").cookie(sessao.getName(), sessao.getValue())
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody(String.class).returnResult().getResponseBody();
+
+		assertTrue(html.contains(">Tarefa 120<"));
+		assertFalse(html.contains(">Tarefa 1<"));
+		assertTrue(html.contains("Página 1 de 12"));
+	}
+
+	@Test
+	void acaoEmLoteReportaCadaItem() {
+		String html = client.post().uri("/tasks/lote").cookie(sessao.getName(), sessao.getValue())
+				.body(BodyInserters.fromFormData("acao", "CONCLUIR").with("ids", "1").with("ids", "2").with("ids", "999"))
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody(String.class).returnResult().getResponseBody();
+
+		assertTrue(html.contains("2 de 3 tarefa(s) concluídas."));
+		assertTrue(html.contains("Tarefa 999: Tarefa não encontrada"));
+	}
+
+	@Test
+	void loteComParametroInvalidoDevolve400() {
+		client.post().uri("/tasks/lote").cookie(sessao.getName(), sessao.getValue())
+				.body(BodyInserters.fromFormData("acao", "APAGAR_TUDO").with("ids", "1"))
+				.exchange()
+				.expectStatus().isBadRequest();
+		client.post().uri("/tasks/lote").cookie(sessao.getName(), sessao.getValue())
+				.body(BodyInserters.fromFormData("acao", "CONCLUIR").with("ids", "um"))
+				.exchange()
+				.expectStatus().isBadRequest();
+	}
+
+	@Test
+	void acaoDeUmaLinhaDevolveSoALinha() {
+		String linha = client.post().uri("/tasks/fragmentos/linha/7/acao").cookie(sessao.getName(), sessao.getValue())
+				.body(BodyInserters.fromFormData("acao", "CONCLUIR"))
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody(String.class).returnResult().getResponseBody();
+		assertTrue(linha.trim().startsWith("<tr data-id=\"7\">"), linha);
+		assertTrue(linha.contains(">Concluída<"));
+
+		client.delete().uri("/tasks/fragmentos/linha/8").cookie(sessao.getName(), sessao.getValue())
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody().jsonPath("$.mensagem").isEqualTo("Tarefa excluída com sucesso!");
+	}
+
+	@Test
+	void eventosAoVivoTrazemAAlteracaoFeitaEmOutraAba() throws InterruptedException {
+		Flux<ServerSentEvent<String>> eventos = client.get().uri("/tasks/eventos").cookie(sessao.getName(), sessao.getValue())
+				.accept(MediaType.TEXT_EVENT_STREAM)
+				.exchange()
+				.expectStatus().isOk()
+				.returnResult(new ParameterizedTypeReference<ServerSentEvent<String>>() {})
+				.getResponseBody();
+		Thread.sleep(500); // Primeira leitura do poller, a base da comparação
+
+		client.post().uri("/tasks/fragmentos/linha/10/acao").cookie(sessao.getName(), sessao.getValue())
+				.body(BodyInserters.fromFormData("acao", "CONCLUIR"))
+				.exchange()
+				.expectStatus().isOk();
+
+		ServerSentEvent<String> diff = eventos.filter(e -> "tarefas".equals(e.event())).blockFirst(Duration.ofSeconds(5));
+		assertNotNull(diff);
+		assertTrue(diff.data().contains("\"alteradas\":[{\"id\":10,"), diff.data());
+		client.get().uri("/tasks/fragmentos/linha/10").cookie(sessao.getName(), sessao.getValue())
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody(String.class).value(linha -> assertTrue(linha.contains(">Concluída<"), linha));
+	}
+
+	@Test
+	void cssLinkadoComHashEImutavel() {
+		String html = client.get().uri("/login").exchange()
+				.expectBody(String.class).returnResult().getResponseBody();
+		Matcher link = Pattern.compile("href=\"(/style-[0-9a-f]{32}\\.css)\"").matcher(html);
+		assertTrue(link.find(), "link do CSS sem hash");
+
+		// O cliente de teste (Reactor Netty) não repassa Accept-Encoding; a variante .gz é verificada no CompressaoRecursosTest
+		client.get().uri(link.group(1))
+				.exchange()
+				.expectStatus().isOk()
+				.expectHeader().valueEquals("Cache-Control", "max-age=31536000, public, immutable")
+				.expectHeader().valueEquals("Vary", "Accept-Encoding");
+		client.get().uri("/style.css").exchange().expectHeader().valueEquals("Cache-Control", "no-cache");
+	}
+
+	@Test
+	void semSessaoRedirecionaParaLogin() {
+		client.get().uri("/tasks")
+				.exchange()
+				.expectStatus().is3xxRedirection()
+				.expectHeader().location("/login");
+	}
+}
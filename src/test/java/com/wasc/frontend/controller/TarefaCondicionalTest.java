@@ -0,0 +1,91 @@
+package com.wasc.frontend.controller;
+
+import com.wasc.frontend.com.tarefasonline.Application;
+import com.wasc.frontend.model.PaginaTarefas;
+import com.wasc.frontend.support.StubBackend;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// TTL zero: toda visita a /tasks recarrega as listas, e a recarga é um GET condicional ao backend.
+// Sem compressão o ETag da página é forte (com ela, fraco; ver CompressaoRecursosTest)
+@SpringBootTest(classes = Application.class, properties = {"api.cache.ttl=0s", "server.compression.enabled=false"})
+@AutoConfigureMockMvc
+class TarefaCondicionalTest {
+
+	@RegisterExtension
+	static final StubBackend backend = StubBackend.iniciar(30);
+
+	@Autowired
+	private MockMvc mvc;
+
+	private MockHttpSession session;
+
+	@BeforeEach
+	void login() {
+		session = new MockHttpSession();
+		session.setAttribute("jwtToken", StubBackend.jwt("condicional-" + System.nanoTime(), Long.MAX_VALUE / 1000));
+		session.setAttribute("loggedInUser", "usuario1");
+	}
+
+	@Test
+	void recargaSemMudancasReaproveitaAListaEmCache() throws Exception {
+		MvcResult primeira = mvc.perform(get("/tasks").session(session)).andExpect(status().isOk()).andReturn();
+		backend.zerarChamadas();
+
+		MvcResult segunda = mvc.perform(get("/tasks").session(session)).andExpect(status().isOk()).andReturn();
+		assertEquals(1, backend.getChamadas("GET /tarefas"));
+		assertEquals(2, backend.getNaoModificadas()); // Tarefas e usuários
+		assertSame(pagina(primeira).getItens().get(0), pagina(segunda).getItens().get(0)); // Nada desserializado de novo
+
+		backend.alterarTarefa(1, "Tarefa 1 revisada");
+		backend.zerarChamadas();
+		String html = mvc.perform(get("/tasks").session(session)).andReturn().getResponse().getContentAsString();
+		assertTrue(html.contains(">Tarefa 1 revisada<"));
+		assertEquals(1, backend.getNaoModificadas()); // Só a lista de usuários continuou igual
+	}
+
+	@Test
+	void paginaRespondeNaoModificadaEnquantoAsListasNaoMudam() throws Exception {
+		MvcResult primeira = mvc.perform(get("/tasks").session(session))
+				.andExpect(status().isOk())
+				.andExpect(header().string("Cache-Control", "private, no-cache"))
+				.andReturn();
+		String etag = primeira.getResponse().getHeader("ETag");
+		assertNotNull(etag);
+		assertTrue(etag.startsWith("\""), etag); // Forte: sem o prefixo W/
+
+		MvcResult repetida = mvc.perform(get("/tasks").session(session).header("If-None-Match", etag))
+				.andExpect(status().isNotModified())
+				.andReturn();
+		assertEquals(0, repetida.getResponse().getContentLength());
+
+		mvc.perform(get("/tasks?page=1").session(session).header("If-None-Match", etag))
+				.andExpect(status().isOk()); // Outra página, outro ETag
+
+		backend.alterarTarefa(2, "Tarefa 2 revisada");
+		MvcResult alterada = mvc.perform(get("/tasks").session(session).header("If-None-Match", etag))
+				.andExpect(status().isOk())
+				.andReturn();
+		assertNotEquals(etag, alterada.getResponse().getHeader("ETag"));
+	}
+
+	private static PaginaTarefas pagina(MvcResult resultado) {
+		return (PaginaTarefas) resultado.getModelAndView().getModel().get("pagina");
+	}
+}
@@ -0,0 +1,110 @@
+package com.wasc.frontend.controller;
+
+import com.wasc.frontend.com.tarefasonline.Application;
+import com.wasc.frontend.service.MonitorTarefas;
+import com.wasc.frontend.support.StubBackend;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Sem cache (ttl 0) cada ciclo do poller vai ao backend: o número de chamadas mostra quantos pollers existem
+@SpringBootTest(classes = Application.class, properties = {
+		"api.cache.ttl=0s",
+		"tarefas.ao-vivo.intervalo=100ms"
+})
+@AutoConfigureMockMvc
+class TarefaEventosTest {
+
+	@RegisterExtension
+	static final StubBackend backend = StubBackend.iniciar(50);
+	private static final long JANELA_MS = 1500;
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Autowired
+	private MonitorTarefas monitorTarefas;
+
+	@Test
+	void chamadasAoBackendNaoCrescemComAsAbas() throws Exception {
+		List<MvcResult> abas = new ArrayList<>();
+		abas.add(abrirAba());
+		int comUmaAba = chamadasNaJanela();
+
+		for (int i = 0; i < 9; i++) {
+			abas.add(abrirAba()); // Mesmo usuário, sessões e tokens diferentes
+		}
+		int comDezAbas = chamadasNaJanela();
+
+		assertTrue(comUmaAba > 0);
+		assertTrue(comDezAbas <= comUmaAba + 3, comDezAbas + " chamadas com 10 abas, " + comUmaAba + " com uma");
+		assertEquals(1, monitorTarefas.getPollersAtivos());
+
+		backend.alterarTarefa(7, "Tarefa 7 alterada em outra aba");
+		for (MvcResult aba : abas) {
+			esperar(() -> conteudo(aba).contains("\"titulo\":\"Tarefa 7 alterada em outra aba\""));
+			assertTrue(conteudo(aba).contains("event:tarefas\ndata:{\"novas\":[],\"alteradas\":[{\"id\":7,"), conteudo(aba));
+		}
+
+		abas.forEach(aba -> aba.getRequest().getAsyncContext().complete());
+		esperar(() -> monitorTarefas.getPollersAtivos() == 0);
+		backend.zerarChamadas();
+		Thread.sleep(300);
+		assertEquals(0, backend.getChamadas("GET /tarefas")); // Sem abas, sem poller
+	}
+
+	@Test
+	void semSessaoRecusaAConexao() throws Exception {
+		mvc.perform(get("/tasks/eventos").session(new MockHttpSession()))
+				.andExpect(status().isUnauthorized());
+	}
+
+	private MvcResult abrirAba() throws Exception {
+		MockHttpSession session = new MockHttpSession();
+		session.setAttribute("jwtToken", StubBackend.jwt("ao-vivo", Long.MAX_VALUE / 1000 - System.nanoTime() % 1000));
+		session.setAttribute("loggedInUser", "usuario1");
+		return mvc.perform(get("/tasks/eventos").session(session))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+	}
+
+	private static int chamadasNaJanela() throws InterruptedException {
+		Thread.sleep(300); // Deixa o poller estabilizar depois das aberturas
+		backend.zerarChamadas();
+		Thread.sleep(JANELA_MS);
+		return backend.getChamadas("GET /tarefas");
+	}
+
+	private static String conteudo(MvcResult aba) {
+		try {
+			return aba.getResponse().getContentAsString();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private static void esperar(BooleanSupplier condicao) throws InterruptedException {
+		long limite = System.currentTimeMillis() + 5000;
+		while (!condicao.getAsBoolean() && System.currentTimeMillis() < limite) {
+			Thread.sleep(20);
+		}
+		assertTrue(condicao.getAsBoolean(), "Condição não atingida em 5s");
+	}
+}
@@ -0,0 +1,106 @@
+package com.wasc.frontend.controller;
+
+import com.wasc.frontend.com.tarefasonline.Application;
+import com.wasc.frontend.support.StubBackend;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Cada ação devolve só a linha (ou o formulário) e faz no máximo uma chamada ao backend, na tarefa afetada
+@SpringBootTest(classes = Application.class)
+@AutoConfigureMockMvc
+class TarefaFragmentoTest {
+
+	@RegisterExtension
+	static final StubBackend backend = StubBackend.iniciar(300);
+
+	@Autowired
+	private MockMvc mvc;
+
+	private MockHttpSession session;
+	private int tamanhoPagina;
+
+	@BeforeEach
+	void abrirPagina() throws Exception {
+		session = new MockHttpSession();
+		session.setAttribute("jwtToken", StubBackend.jwt("fragmento-" + System.nanoTime(), Long.MAX_VALUE / 1000));
+		session.setAttribute("loggedInUser", "usuario1");
+		String pagina = mvc.perform(get("/tasks?size=500").session(session)).andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		assertTrue(pagina.contains("<tr data-id=\"4\">"));
+		assertTrue(Pattern.compile("<script src=\"/tarefas-[0-9a-f]{32}\\.js\" defer>").matcher(pagina).find());
+		tamanhoPagina = pagina.length();
+		backend.zerarChamadas();
+	}
+
+	@Test
+	void editarESalvarTrocamSoOFormularioEALinha() throws Exception {
+		String formulario = mvc.perform(get("/tasks/fragmentos/formulario/4").session(session))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		assertTrue(formulario.trim().startsWith("<div class=\"form-section\" id=\"formularioTarefa\">"));
+		assertTrue(formulario.contains("value=\"Tarefa 4\""));
+		assertFalse(formulario.contains("<table"));
+
+		String linha = mvc.perform(post("/tasks/fragmentos/linha").session(session)
+						.param("id", "4").param("titulo", "Tarefa 4 editada").param("descricao", "Nova descrição")
+						.param("data", "2024-06-01").param("usuarioId", "2"))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		assertTrue(linha.trim().startsWith("<tr data-id=\"4\">"), linha);
+		assertTrue(linha.contains(">Tarefa 4 editada<"));
+		assertTrue(linha.contains(">usuario2<")); // Nome completado pela lista de usuários em cache
+		assertTrue(linha.length() * 100 < tamanhoPagina, linha.length() + " de " + tamanhoPagina);
+
+		assertEquals(1, backend.getChamadas("PUT /tarefas/4"));
+		assertEquals(0, backend.getChamadas("GET /tarefas"));
+		assertEquals(0, backend.getChamadas("GET /usuarios"));
+		assertTrue(mvc.perform(get("/tasks?size=500").session(session)).andReturn().getResponse()
+				.getContentAsString().contains(">Tarefa 4 editada<")); // A lista em cache já tem a alteração
+	}
+
+	@Test
+	void concluirEExcluirUmaLinha() throws Exception {
+		String linha = mvc.perform(post("/tasks/fragmentos/linha/4/acao").session(session).param("acao", "CONCLUIR"))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		assertTrue(linha.contains(">Concluída<"));
+		assertTrue(linha.contains("value=\"REABRIR\""));
+
+		mvc.perform(delete("/tasks/fragmentos/linha/5").session(session))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.mensagem").value("Tarefa excluída com sucesso!"));
+		mvc.perform(delete("/tasks/fragmentos/linha/999").session(session))
+				.andExpect(status().isBadGateway())
+				.andExpect(jsonPath("$.mensagem").value("Erro ao excluir tarefa."));
+
+		assertEquals(1, backend.getChamadas("PUT /tarefas/4"));
+		assertEquals(1, backend.getChamadas("DELETE /tarefas/5"));
+		assertEquals(0, backend.getChamadas("GET /tarefas"));
+		assertFalse(mvc.perform(get("/tasks?size=500").session(session)).andReturn().getResponse()
+				.getContentAsString().contains("<tr data-id=\"5\">"));
+	}
+
+	@Test
+	void semSessaoRespondeComODestino() throws Exception {
+		mvc.perform(get("/tasks/fragmentos/formulario").session(new MockHttpSession()))
+				.andExpect(status().isUnauthorized())
+				.andExpect(jsonPath("$.destino").value("/login"));
+	}
+}
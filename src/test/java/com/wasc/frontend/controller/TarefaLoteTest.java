@@ -0,0 +1,97 @@
+package com.wasc.frontend.controller;
+
+import com.wasc.frontend.com.tarefasonline.Application;
+import com.wasc.frontend.model.ResultadoLote;
+import com.wasc.frontend.support.StubBackend;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.time.Duration;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(classes = Application.class, properties = "api.lote.concorrencia=4")
+@AutoConfigureMockMvc
+class TarefaLoteTest {
+
+	@RegisterExtension
+	static final StubBackend backend = StubBackend.iniciar(30);
+
+	@Autowired
+	private MockMvc mvc;
+
+	private MockHttpSession session;
+
+	// Cada teste usa um usuário próprio, para não dividir o cache com os outros
+	@BeforeEach
+	void abrirPagina() throws Exception {
+		session = new MockHttpSession();
+		session.setAttribute("jwtToken", StubBackend.jwt("lote-" + System.nanoTime(), Long.MAX_VALUE / 1000));
+		session.setAttribute("loggedInUser", "usuario1");
+		mvc.perform(get("/tasks").session(session)).andExpect(status().isOk());
+		backend.zerarChamadas();
+	}
+
+	@Test
+	void concluiEmParaleloLimitadoEReportaCadaItemSemRecarregarALista() throws Exception {
+		backend.setAtraso(Duration.ofMillis(50));
+		try {
+			MockHttpServletRequestBuilder lote = post("/tasks/lote").session(session).param("acao", "CONCLUIR").param("ids", "999");
+			LongStream.rangeClosed(1, 20).forEach(id -> lote.param("ids", String.valueOf(id)));
+
+			MvcResult resultado = mvc.perform(lote).andExpect(status().is3xxRedirection()).andReturn();
+
+			ResultadoLote resultadoLote = (ResultadoLote) resultado.getFlashMap().get("resultadoLote");
+			assertEquals(21, resultadoLote.getItens().size());
+			assertEquals(20, resultadoLote.getSucessos());
+			assertEquals(999L, resultadoLote.getFalhas().get(0).getId());
+			String html = mvc.perform(get(resultado.getResponse().getRedirectedUrl()).session(session)
+					.flashAttrs(resultado.getFlashMap())).andReturn().getResponse().getContentAsString();
+			assertTrue(html.contains("20 de 21 tarefa(s) concluídas."));
+
+			assertEquals(20, backend.getChamadasComPrefixo("PUT /tarefas/"));
+			assertEquals(0, backend.getChamadas("GET /tarefas")); // Lista corrigida no cache, sem nova busca
+			assertTrue(backend.getPicoSimultaneas() <= 4, "pico de " + backend.getPicoSimultaneas());
+			assertTrue(backend.getPicoSimultaneas() > 1, "escritas não foram paralelas");
+		} finally {
+			backend.setAtraso(Duration.ZERO);
+		}
+	}
+
+	@Test
+	void excluiSemRecarregarEDescartaAListaSeOBackendFalhar() throws Exception {
+		mvc.perform(post("/tasks/lote").session(session).param("acao", "EXCLUIR").param("ids", "1", "2", "3"))
+				.andExpect(status().is3xxRedirection());
+		String html = mvc.perform(get("/tasks").session(session)).andReturn().getResponse().getContentAsString();
+		assertFalse(html.contains(">Tarefa 1<"));
+		assertTrue(html.contains(">Tarefa 4<"));
+		assertEquals(3, backend.getChamadasComPrefixo("DELETE /tarefas/"));
+		assertEquals(0, backend.getChamadas("GET /tarefas"));
+
+		backend.setFalhando(true);
+		try {
+			mvc.perform(post("/tasks/lote").session(session).param("acao", "EXCLUIR").param("ids", "4", "5"))
+					.andExpect(status().is3xxRedirection());
+		} finally {
+			backend.setFalhando(false);
+		}
+		backend.zerarChamadas();
+		mvc.perform(get("/tasks").session(session)).andExpect(status().isOk());
+		mvc.perform(get("/tasks").session(session)).andExpect(status().isOk());
+		assertEquals(1, backend.getChamadas("GET /tarefas")); // Estado incerto: uma única recarga
+	}
+}
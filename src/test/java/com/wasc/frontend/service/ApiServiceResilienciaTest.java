@@ -0,0 +1,139 @@
+package com.wasc.frontend.service;
+
+import com.wasc.frontend.com.tarefasonline.Application;
+import com.wasc.frontend.model.ListaTarefas;
+import com.wasc.frontend.model.Tarefa;
+import com.wasc.frontend.support.StubBackend;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Cada teste sobe um contexto novo para começar com os circuit breakers fechados e o orçamento cheio
+@SpringBootTest(classes = Application.class, properties = {
+		"tarefas.render.streaming=true",
+		"api.cache.ttl=0s", // Toda leitura vai ao backend
+		"api.resiliencia.espera-retry=1ms",
+		"api.resiliencia.tempo-aberto=60s",
+		"api.http.read-timeout=300ms",
+		"api.resiliencia.max-concorrentes=1"})
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class ApiServiceResilienciaTest {
+
+	@RegisterExtension
+	static final StubBackend backend = StubBackend.iniciar(10);
+	private static final String JWT = StubBackend.jwt("usuario1", Long.MAX_VALUE / 1000);
+
+	@Autowired
+	private ApiService apiService;
+
+	@Autowired
+	private MockMvc mvc;
+
+	@BeforeEach
+	void reiniciarBackend() {
+		backend.setFalhando(false);
+		backend.setAtraso(Duration.ZERO);
+		backend.zerarChamadas();
+	}
+
+	@Test
+	void serveUltimaListaBoaMarcadaComoDesatualizadaQuandoBackendFalha() {
+		ListaTarefas atual = apiService.getListaTarefas(JWT);
+		assertFalse(atual.isDesatualizada());
+
+		backend.setFalhando(true);
+		ListaTarefas desatualizada = apiService.getListaTarefas(JWT);
+
+		assertTrue(desatualizada.isDesatualizada());
+		assertEquals(atual.getItens(), desatualizada.getItens());
+		assertEquals(atual.getCarregadaEm(), desatualizada.getCarregadaEm());
+	}
+
+	@Test
+	void backendLentoCaiNoTimeoutEServeUltimaListaBoa() {
+		ListaTarefas atual = apiService.getListaTarefas(JWT);
+
+		backend.setAtraso(Duration.ofSeconds(2));
+		long inicio = System.nanoTime();
+		ListaTarefas desatualizada = apiService.getListaTarefas(JWT);
+		Duration decorrido = Duration.ofNanos(System.nanoTime() - inicio);
+
+		assertTrue(desatualizada.isDesatualizada());
+		assertEquals(atual.getItens(), desatualizada.getItens());
+		// Três tentativas de 300ms, sem esperar pelo backend lento
+		assertTrue(decorrido.compareTo(Duration.ofMillis(1900)) < 0, "demorou " + decorrido);
+	}
+
+	@Test
+	void falhaNoStreamingServeUltimaListaBoaSemNovaChamada() throws Exception {
+		apiService.getListaTarefas(JWT);
+		MockHttpSession session = new MockHttpSession();
+		session.setAttribute("jwtToken", JWT);
+		session.setAttribute("loggedInUser", "usuario1");
+
+		backend.setFalhando(true);
+		backend.zerarChamadas();
+		String html = mvc.perform(get("/tasks").session(session))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+
+		assertTrue(html.contains("Servidor de tarefas indisponível"));
+		// Só a leitura em streaming; nada de repetir a lista pelo circuito "tarefas"
+		assertEquals(1, backend.getChamadas("GET /tarefas"));
+	}
+
+	@Test
+	void streamingEsperandoAPaginaNaoOcupaOBulkhead() {
+		TarefaStream stream = apiService.streamTarefas(JWT, 1); // Fila de 2 tarefas: o resto espera a página consumir
+		stream.aguardarInicio();
+
+		ListaTarefas lista = apiService.getListaTarefas(JWT);
+		stream.cancelar();
+
+		assertFalse(lista.isDesatualizada());
+		assertEquals(10, lista.getItens().size());
+	}
+
+	@Test
+	void circuitoAbertoParaDeChamarBackend() {
+		backend.setFalhando(true);
+		for (int i = 0; i < 5; i++) {
+			apiService.getListaTarefas(JWT);
+		}
+		int chamadas = backend.getChamadas("GET /tarefas");
+
+		for (int i = 0; i < 20; i++) {
+			assertTrue(apiService.getListaTarefas(JWT).getItens().isEmpty());
+		}
+
+		assertEquals(chamadas, backend.getChamadas("GET /tarefas"));
+	}
+
+	@Test
+	void repeteApenasChamadasIdempotentes() {
+		backend.setFalhando(true);
+
+		apiService.getListaTarefas(JWT);
+		Tarefa nova = new Tarefa();
+		nova.setTitulo("Nova");
+		assertFalse(apiService.saveTarefa(nova, JWT));
+
+		assertEquals(3, backend.getChamadas("GET /tarefas"));
+		assertEquals(1, backend.getChamadas("POST /tarefas"));
+	}
+}
@@ -0,0 +1,255 @@
+package com.wasc.frontend.service;
+
+import com.wasc.frontend.com.tarefasonline.Application;
+import com.wasc.frontend.model.AcaoLote;
+import com.wasc.frontend.model.ResultadoLote;
+import com.wasc.frontend.model.Tarefa;
+import com.wasc.frontend.model.Usuario;
+import com.wasc.frontend.support.StubBackend;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// tarefas.escrita.modo=adiada: a página volta sem esperar o backend, as escritas saem em ordem por tarefa
+// e as que ficaram sem desfecho numa parada são reenviadas pela próxima instância, a partir do diário
+class EscritaAdiadaTest {
+
+	@RegisterExtension
+	static final StubBackend backend = StubBackend.iniciar(10);
+
+	private final HttpClient http = HttpClient.newHttpClient();
+
+	@TempDir
+	Path diretorio;
+
+	@BeforeEach
+	void limparBackend() {
+		backend.setFalhando(false);
+		backend.setRecusandoCriacao(false);
+		backend.setAtraso(Duration.ZERO);
+		backend.zerarChamadas();
+	}
+
+	@Test
+	void salvarNaoEsperaOBackendEAsEscritasSaemEmOrdem() throws Exception {
+		try (ConfigurableApplicationContext instancia = iniciar()) {
+			String cookie = login(instancia);
+			assertEquals(200, get(instancia, "/tasks", cookie).statusCode()); // Lista e usuários em cache
+
+			backend.setAtraso(Duration.ofMillis(400));
+			long inicio = System.nanoTime();
+			HttpResponse<String> resposta = salvar(instancia, cookie, "id=4&titulo=Primeira");
+			assertEquals(302, resposta.statusCode()); // Post/Redirect/Get: F5 não reenvia a escrita
+			HttpResponse<String> pagina = get(instancia, "/tasks", cookie);
+			long duracaoMs = (System.nanoTime() - inicio) / 1_000_000;
+
+			assertEquals(200, pagina.statusCode());
+			assertTrue(pagina.body().contains(">Primeira<"), "A lista já traz a tarefa alterada");
+			assertTrue(pagina.body().contains("segundo plano"), "Mensagem levada pelo redirect");
+			assertTrue(duracaoMs < 400, "Respondeu em " + duracaoMs + " ms, esperando o backend");
+
+			salvar(instancia, cookie, "id=4&titulo=Segunda");
+			salvar(instancia, cookie, "id=4&titulo=Terceira");
+			salvar(instancia, cookie, "id=999&titulo=Inexistente"); // O backend responde 404
+
+			EscritaAdiada escritaAdiada = instancia.getBean(EscritaAdiada.class);
+			esperar(() -> escritaAdiada.getPendentes() == 0);
+			assertEquals(List.of("PUT /tarefas/4 Primeira", "PUT /tarefas/4 Segunda", "PUT /tarefas/4 Terceira"),
+					backend.getEscritas().stream().filter(e -> e.startsWith("PUT /tarefas/4 ")).toList());
+
+			backend.setAtraso(Duration.ZERO);
+			String seguinte = get(instancia, "/tasks", cookie).body();
+			assertTrue(seguinte.contains("recusada pelo backend (404)"), "O conflito aparece na próxima página");
+			assertFalse(seguinte.contains(">Inexistente<"));
+			assertFalse(get(instancia, "/tasks", cookie).body().contains("recusada pelo backend"), "Exibido uma vez só");
+		}
+	}
+
+	@Test
+	void escritasSemDesfechoSaoReenviadasAoReiniciar() throws Exception {
+		String jwt = StubBackend.jwt("usuario1", System.currentTimeMillis() / 1000 + 3600);
+		backend.setFalhando(true);
+		try (ConfigurableApplicationContext instancia = iniciar()) {
+			EscritaAdiada escritaAdiada = instancia.getBean(EscritaAdiada.class);
+			Tarefa nova = escritaAdiada.salvar(tarefa(null, "Nova"), jwt);
+			escritaAdiada.salvar(tarefa(2L, "Dois"), jwt);
+			escritaAdiada.excluir(3L, jwt);
+			escritaAdiada.salvar(tarefa(2L, "Dois de novo"), jwt);
+
+			assertTrue(nova.getId() < 0, "Id provisório até o backend devolver o definitivo");
+			assertEquals(4, escritaAdiada.getPendentes());
+		} // Parada com o backend fora: nenhuma das quatro saiu
+
+		Path diario = diretorio.resolve("escritas.jsonl");
+		Files.writeString(diario, "{\"seq\":99,\"tipo\":\"SAL", StandardCharsets.UTF_8, StandardOpenOption.APPEND); // Queda no meio de uma linha
+		assertTrue(backend.getEscritas().isEmpty());
+
+		backend.setFalhando(false);
+		try (ConfigurableApplicationContext instancia = iniciar()) {
+			EscritaAdiada escritaAdiada = instancia.getBean(EscritaAdiada.class);
+			esperar(() -> escritaAdiada.getPendentes() == 0 && tamanho(diario) == 0);
+
+			List<String> escritas = backend.getEscritas();
+			assertEquals(4, escritas.size(), escritas.toString());
+			assertTrue(escritas.containsAll(List.of("POST /tarefas Nova", "DELETE /tarefas/3")), escritas.toString());
+			assertEquals(List.of("PUT /tarefas/2 Dois", "PUT /tarefas/2 Dois de novo"),
+					escritas.stream().filter(e -> e.startsWith("PUT /tarefas/2 ")).toList());
+		}
+	}
+
+	@Test
+	void alteracaoDeTarefaCujaCriacaoFoiRecusadaNaoCriaOutra() throws Exception {
+		String jwt = StubBackend.jwt("usuario1", System.currentTimeMillis() / 1000 + 3600);
+		backend.setRecusandoCriacao(true);
+		try (ConfigurableApplicationContext instancia = iniciar()) {
+			EscritaAdiada escritaAdiada = instancia.getBean(EscritaAdiada.class);
+			Tarefa nova = escritaAdiada.salvar(tarefa(null, "Nova"), jwt);
+			escritaAdiada.salvar(tarefa(nova.getId(), "Nova editada"), jwt);
+			esperar(() -> escritaAdiada.getPendentes() == 0);
+
+			assertEquals(1, backend.getChamadas("POST /tarefas"), "Só a criação vai ao backend");
+			assertTrue(backend.getEscritas().isEmpty(), backend.getEscritas().toString());
+			List<String> conflitos = escritaAdiada.conflitos(jwt);
+			assertEquals(2, conflitos.size(), conflitos.toString());
+			assertTrue(conflitos.get(1).contains("Nova editada"));
+		}
+	}
+
+	@Test
+	void acaoEmLoteEntraNaFilaDaTarefa() throws Exception {
+		String jwt = StubBackend.jwt("usuario1", System.currentTimeMillis() / 1000 + 3600);
+		try (ConfigurableApplicationContext instancia = iniciar()) {
+			EscritaAdiada escritaAdiada = instancia.getBean(EscritaAdiada.class);
+			backend.setAtraso(Duration.ofMillis(200));
+			escritaAdiada.salvar(tarefa(4L, "Alterada"), jwt);
+			ResultadoLote lote = escritaAdiada.executarLote(AcaoLote.REABRIR, List.of(4L), null, jwt);
+			assertEquals(1, lote.getSucessos());
+			assertEquals(0, backend.getChamadas("GET /tarefas/4"), "Parte da escrita pendente, não do backend");
+
+			esperar(() -> escritaAdiada.getPendentes() == 0);
+			// O lote parte da tarefa já alterada e sai depois dela: nada a sobrescrever
+			assertEquals(List.of("PUT /tarefas/4 Alterada", "PUT /tarefas/4 Alterada"), backend.getEscritas());
+		}
+	}
+
+	@Test
+	void escritasDeDoisUsuariosNaMesmaTarefaLiberamAsDuasListas() throws Exception {
+		String jwt1 = StubBackend.jwt("usuario1", System.currentTimeMillis() / 1000 + 3600);
+		String jwt2 = StubBackend.jwt("usuario2", System.currentTimeMillis() / 1000 + 3600);
+		try (ConfigurableApplicationContext instancia = iniciar()) {
+			EscritaAdiada escritaAdiada = instancia.getBean(EscritaAdiada.class);
+			backend.setAtraso(Duration.ofMillis(200)); // A segunda escrita entra na fila enquanto a primeira sai
+			escritaAdiada.salvar(tarefa(4L, "Do usuário 1"), jwt1);
+			escritaAdiada.salvar(tarefa(4L, "Do usuário 2"), jwt2);
+			assertTrue(escritaAdiada.temPendentes(jwt1) && escritaAdiada.temPendentes(jwt2));
+
+			esperar(() -> escritaAdiada.getPendentes() == 0);
+			assertFalse(escritaAdiada.temPendentes(jwt1), "A escrita do primeiro usuário não fica pendente para sempre");
+			assertFalse(escritaAdiada.temPendentes(jwt2));
+			assertEquals(List.of("PUT /tarefas/4 Do usuário 1", "PUT /tarefas/4 Do usuário 2"), backend.getEscritas());
+		}
+	}
+
+	@Test
+	void comStreamingAListaAindaMostraAsEscritasPendentes() throws Exception {
+		try (ConfigurableApplicationContext instancia = iniciar("--tarefas.render.streaming=true")) {
+			String cookie = login(instancia);
+			assertTrue(get(instancia, "/tasks", cookie).body().contains(">Tarefa 3<"));
+
+			backend.setAtraso(Duration.ofMillis(500)); // A exclusão fica pendente durante a próxima página
+			assertEquals(302, get(instancia, "/tasks/delete/3", cookie).statusCode());
+			String pagina = get(instancia, "/tasks", cookie).body();
+			assertFalse(pagina.contains(">Tarefa 3<"), "A tarefa excluída não volta com a lista do backend");
+			assertTrue(pagina.contains("segundo plano"));
+		}
+	}
+
+	private ConfigurableApplicationContext iniciar(String... extras) {
+		List<String> argumentos = new ArrayList<>(List.of("--server.port=0", "--management.server.port=0",
+				"--api.base.url=" + backend.getUrl(),
+				"--tarefas.escrita.modo=adiada",
+				"--tarefas.escrita.diretorio=" + diretorio,
+				"--tarefas.escrita.tentativas=1000",
+				"--tarefas.escrita.espera-retry=20ms",
+				"--tarefas.escrita.espera-maxima=100ms",
+				"--tarefas.escrita.compactar-acima=0B"));
+		argumentos.addAll(List.of(extras));
+		return new SpringApplicationBuilder(Application.class).run(argumentos.toArray(String[]::new));
+	}
+
+	private static Tarefa tarefa(Long id, String titulo) {
+		Usuario usuario = new Usuario();
+		usuario.setId(1L);
+		return new Tarefa(id, titulo, "Descrição", LocalDate.of(2025, 1, 1), false, usuario);
+	}
+
+	private static long tamanho(Path arquivo) {
+		try {
+			return Files.size(arquivo);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private HttpResponse<String> salvar(ConfigurableApplicationContext instancia, String cookie, String campos) throws Exception {
+		return http.send(HttpRequest.newBuilder(uri(instancia, "/tasks"))
+						.header("Cookie", cookie)
+						.header("Content-Type", "application/x-www-form-urlencoded")
+						.POST(HttpRequest.BodyPublishers.ofString(campos + "&descricao=x&data=2025-01-01&usuarioId=1"))
+						.build(),
+				HttpResponse.BodyHandlers.ofString());
+	}
+
+	// Devolve o cookie de sessão ("nome=valor") emitido pelo login
+	private String login(ConfigurableApplicationContext instancia) throws Exception {
+		HttpResponse<String> resposta = http.send(HttpRequest.newBuilder(uri(instancia, "/login"))
+						.header("Content-Type", "application/x-www-form-urlencoded")
+						.POST(HttpRequest.BodyPublishers.ofString("username=usuario1&password=x"))
+						.build(),
+				HttpResponse.BodyHandlers.ofString());
+		assertEquals(302, resposta.statusCode());
+		return resposta.headers().firstValue("Set-Cookie").orElseThrow().split(";", 2)[0];
+	}
+
+	private HttpResponse<String> get(ConfigurableApplicationContext instancia, String caminho, String cookie) throws Exception {
+		return http.send(HttpRequest.newBuilder(uri(instancia, caminho)).header("Cookie", cookie).GET().build(),
+				HttpResponse.BodyHandlers.ofString());
+	}
+
+	private static URI uri(ConfigurableApplicationContext instancia, String caminho) {
+		int porta = ((WebServerApplicationContext) instancia).getWebServer().getPort();
+		return URI.create("http://127.0.0.1:" + porta + caminho);
+	}
+
+	private static void esperar(BooleanSupplier condicao) throws InterruptedException {
+		long limite = System.currentTimeMillis() + 5000;
+		while (!condicao.getAsBoolean() && System.currentTimeMillis() < limite) {
+			Thread.sleep(20);
+		}
+		assertTrue(condicao.getAsBoolean(), "Condição não atingida em 5s");
+	}
+}
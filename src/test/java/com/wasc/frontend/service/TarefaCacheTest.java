@@ -0,0 +1,48 @@
+package com.wasc.frontend.service;
+
+import com.wasc.frontend.model.ListaTarefas;
+import com.wasc.frontend.model.Tarefa;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class TarefaCacheTest {
+
+	private static final String TOKEN = "token";
+
+	private final TarefaCache cache = new TarefaCache(100, Duration.ofMinutes(1), Duration.ofHours(1), new JwtInspector());
+
+	@Test
+	void cargaIniciadaAntesDeUmaCorrecaoNaoADesfaz() {
+		cache.getTarefas(TOKEN, v -> new RespostaCondicional<>(List.of(tarefa(1L, "A"), tarefa(2L, "B")), null));
+
+		// Outra requisição recarrega a lista enquanto a tarefa 2 é excluída: a resposta ainda a traz
+		long versao = cache.getVersaoTarefas(TOKEN);
+		cache.tarefaExcluida(TOKEN, 2L);
+		ListaTarefas lida = cache.guardarTarefas(TOKEN, List.of(tarefa(1L, "A"), tarefa(2L, "B")), versao);
+
+		assertEquals(1, lida.getItens().size());
+		assertEquals(1, cache.getTarefasEmCache(TOKEN).getItens().size());
+		assertNull(cache.getTarefa(TOKEN, 2L));
+	}
+
+	@Test
+	void cargaIniciadaAntesDeUmDescarteNaoVoltaAoCache() {
+		long versao = cache.getVersaoTarefas(TOKEN);
+		cache.invalidarTarefas(TOKEN);
+		cache.guardarTarefas(TOKEN, List.of(tarefa(1L, "A")), versao);
+
+		assertNull(cache.getTarefasEmCache(TOKEN));
+	}
+
+	private static Tarefa tarefa(Long id, String titulo) {
+		Tarefa tarefa = new Tarefa();
+		tarefa.setId(id);
+		tarefa.setTitulo(titulo);
+		return tarefa;
+	}
+}
@@ -0,0 +1,45 @@
+package com.wasc.frontend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.wasc.frontend.model.Tarefa;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TarefaJsonReaderTest {
+
+	private final TarefaJsonReader reader = new TarefaJsonReader(new ObjectMapper().registerModule(new JavaTimeModule()));
+
+	@Test
+	void compartilhaUsuarioRepetidoEntreTarefas() throws Exception {
+		String json = """
+				[
+				  {"id": 1, "titulo": "A", "data": "2024-01-31", "status": true,
+				   "usuario": {"id": 7, "nome": "ana", "dataNascimento": [1990, 5, 2], "ativo": true}},
+				  {"id": 2, "titulo": "B", "extra": {"x": [1, 2]}, "data": null,
+				   "usuario": {"id": 7, "nome": "ana", "dataNascimento": "1990-05-02", "ativo": true}},
+				  {"id": 3, "titulo": "C", "usuario": null}
+				]
+				""";
+
+		List<Tarefa> tarefas = reader.lerTarefas(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+
+		assertEquals(3, tarefas.size());
+		assertEquals(LocalDate.of(2024, 1, 31), tarefas.get(0).getData());
+		assertTrue(tarefas.get(0).isStatus());
+		assertEquals(LocalDate.of(1990, 5, 2), tarefas.get(0).getUsuario().getDataNascimento());
+		assertSame(tarefas.get(0).getUsuario(), tarefas.get(1).getUsuario());
+		assertNull(tarefas.get(1).getData());
+		assertEquals("B", tarefas.get(1).getTitulo());
+		assertNull(tarefas.get(2).getUsuario());
+	}
+}
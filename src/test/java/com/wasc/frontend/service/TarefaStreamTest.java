@@ -0,0 +1,43 @@
+package com.wasc.frontend.service;
+
+import com.wasc.frontend.model.Tarefa;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TarefaStreamTest {
+
+	@Test
+	void erroNoMeioDaLeituraMarcaAListaComoIncompleta() {
+		TarefaStream stream = new TarefaStream(10, Duration.ofSeconds(1));
+		stream.iniciar();
+		stream.publicar(new Tarefa());
+		stream.terminar(new IOException("conexão encerrada"));
+
+		List<Tarefa> lidas = new ArrayList<>();
+		stream.forEach(lidas::add);
+
+		assertEquals(1, lidas.size());
+		assertTrue(stream.isInterrompido());
+		assertTrue(stream.getErro().contains("conexão encerrada"));
+	}
+
+	@Test
+	void leituraCompletaNaoEhInterrompida() {
+		TarefaStream stream = new TarefaStream(10, Duration.ofSeconds(1));
+		stream.iniciar();
+		stream.publicar(new Tarefa());
+		stream.terminar(null);
+
+		stream.forEach(t -> { });
+
+		assertFalse(stream.isInterrompido());
+	}
+}
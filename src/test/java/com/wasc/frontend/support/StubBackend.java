@@ -0,0 +1,334 @@
+package com.wasc.frontend.support;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.wasc.frontend.model.Tarefa;
+import com.wasc.frontend.model.Usuario;
+import org.junit.jupiter.api.extension.AfterAllCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Backend de tarefas falso para testes e benchmarks: um HttpServer do JDK numa porta livre
+ * servindo respostas prontas de /auth/login, /auth/refresh, /usuarios, /tarefas e /tarefas/{id}
+ * (GET, PUT e DELETE; as escritas não alteram os dados servidos).
+ * As listas /usuarios e /tarefas levam ETag e Last-Modified e respondem 304 a um GET condicional
+ * que ainda corresponda aos dados ({@link #alterarTarefa} muda a versão da lista de tarefas).
+ * Pode ser colocado em modo lento ({@link #setAtraso}) ou falhando com 503 ({@link #setFalhando})
+ * para exercitar a camada de resiliência.
+ * <p>
+ * Nos testes, registrado como extensão, é parado ao fim da classe; num teste com contexto Spring, o api.base.url
+ * já aponta para ele (StubBackendContextCustomizerFactory):
+ * {@code @RegisterExtension static final StubBackend backend = StubBackend.iniciar(10);}
+ */
+public class StubBackend implements AutoCloseable, AfterAllCallback {
+
+    private static final ObjectMapper JSON = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final Map<String, AtomicInteger> chamadas = new ConcurrentHashMap<>();
+    private final AtomicInteger emAndamento = new AtomicInteger();
+    private final AtomicInteger pico = new AtomicInteger();
+    private final AtomicInteger naoModificadas = new AtomicInteger();
+    private final List<String> escritas = new CopyOnWriteArrayList<>();
+    private volatile List<Tarefa> tarefas;
+    private volatile List<Usuario> usuarios;
+    private volatile byte[] tarefasJson;
+    private volatile byte[] usuariosJson;
+    private volatile Versao versaoTarefas;
+    private volatile Versao versaoUsuarios;
+    private volatile boolean falhando;
+    private volatile boolean recusandoCriacao;
+    private volatile Duration atraso = Duration.ZERO;
+
+    public StubBackend(int quantidadeTarefas) throws IOException {
+        setDados(gerarUsuarios(10), quantidadeTarefas);
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(executor);
+        server.createContext("/", this::atender);
+        server.start();
+    }
+
+    public static StubBackend iniciar(int quantidadeTarefas) {
+        try {
+            return new StubBackend(quantidadeTarefas);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public String getUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public int getChamadas(String metodoECaminho) {
+        AtomicInteger contador = chamadas.get(metodoECaminho);
+        return contador != null ? contador.get() : 0;
+    }
+
+    // Soma das chamadas cujo "MÉTODO caminho" começa com o prefixo (ex.: "PUT /tarefas/")
+    public int getChamadasComPrefixo(String prefixo) {
+        return chamadas.entrySet().stream()
+                .filter(e -> e.getKey().startsWith(prefixo))
+                .mapToInt(e -> e.getValue().get())
+                .sum();
+    }
+
+    // Maior número de requisições atendidas ao mesmo tempo desde o último zerarChamadas()
+    public int getPicoSimultaneas() {
+        return pico.get();
+    }
+
+    // Respostas 304 dadas a GETs condicionais desde o último zerarChamadas()
+    public int getNaoModificadas() {
+        return naoModificadas.get();
+    }
+
+    public void zerarChamadas() {
+        chamadas.clear();
+        escritas.clear();
+        pico.set(0);
+        naoModificadas.set(0);
+    }
+
+    // Todas as rotas, exceto o login, passam a responder 503
+    public void setFalhando(boolean falhando) {
+        this.falhando = falhando;
+    }
+
+    // POST /tarefas passa a responder 400
+    public void setRecusandoCriacao(boolean recusandoCriacao) {
+        this.recusandoCriacao = recusandoCriacao;
+    }
+
+    // Atraso aplicado antes de cada resposta
+    public void setAtraso(Duration atraso) {
+        this.atraso = atraso;
+    }
+
+    // Escritas aceitas, na ordem de chegada: "PUT /tarefas/4 título", "POST /tarefas título", "DELETE /tarefas/4"
+    public List<String> getEscritas() {
+        return escritas;
+    }
+
+    public List<Tarefa> getTarefas() {
+        return tarefas;
+    }
+
+    // Troca o título de uma tarefa, gerando uma nova versão (ETag e Last-Modified) da lista
+    public void alterarTarefa(long id, String titulo) {
+        List<Tarefa> alteradas = new ArrayList<>(tarefas.size());
+        for (Tarefa t : tarefas) {
+            alteradas.add(t.getId() == id
+                    ? new Tarefa(t.getId(), titulo, t.getDescricao(), t.getData(), t.isStatus(), t.getUsuario())
+                    : t);
+        }
+        this.tarefas = alteradas;
+        this.tarefasJson = toJson(alteradas);
+        this.versaoTarefas = Versao.de(tarefasJson, versaoTarefas);
+    }
+
+    public static String jwt(String subject, long expiraEmEpochSegundos) {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        String cabecalho = encoder.encodeToString("{\"alg\":\"HS256\"}".getBytes(StandardCharsets.UTF_8));
+        String corpo = encoder.encodeToString(("{\"sub\":\"" + subject + "\",\"exp\":" + expiraEmEpochSegundos
+                + ",\"roles\":[\"ROLE_USER\"]}").getBytes(StandardCharsets.UTF_8));
+        return cabecalho + "." + corpo + ".assinatura";
+    }
+
+    public static List<Usuario> gerarUsuarios(int quantidade) {
+        List<Usuario> lista = new ArrayList<>(quantidade);
+        for (long i = 1; i <= quantidade; i++) {
+            lista.add(new Usuario(i, "usuario" + i, LocalDate.of(1990, 1, 1).plusDays(i), true));
+        }
+        return lista;
+    }
+
+    public static List<Tarefa> gerarTarefas(int quantidade, List<Usuario> usuarios) {
+        List<Tarefa> lista = new ArrayList<>(quantidade);
+        for (long i = 1; i <= quantidade; i++) {
+            Usuario dono = usuarios.get((int) (i % usuarios.size()));
+            // Cópia por tarefa, como o backend real serializa
+            Usuario copia = new Usuario(dono.getId(), dono.getNome(), dono.getDataNascimento(), dono.isAtivo());
+            lista.add(new Tarefa(i, "Tarefa " + i, "Descrição da tarefa " + i,
+                    LocalDate.of(2024, 1, 1).plusDays(i % 365), i % 3 == 0, copia));
+        }
+        return lista;
+    }
+
+    public static byte[] toJson(Object valor) {
+        try {
+            return JSON.writeValueAsBytes(valor);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void setDados(List<Usuario> usuarios, int quantidadeTarefas) {
+        this.usuarios = usuarios;
+        this.tarefas = gerarTarefas(quantidadeTarefas, usuarios);
+        this.usuariosJson = toJson(usuarios);
+        this.tarefasJson = toJson(tarefas);
+        this.versaoUsuarios = Versao.de(usuariosJson, null);
+        this.versaoTarefas = Versao.de(tarefasJson, null);
+    }
+
+    // ETag (hash do JSON) e Last-Modified (em segundos, sempre posterior ao da versão anterior)
+    private record Versao(String etag, Instant modificadaEm) {
+
+        static Versao de(byte[] json, Versao anterior) {
+            Instant agora = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+            if (anterior != null && !agora.isAfter(anterior.modificadaEm())) {
+                agora = anterior.modificadaEm().plusSeconds(1);
+            }
+            return new Versao("\"" + Integer.toHexString(Arrays.hashCode(json)) + "\"", agora);
+        }
+    }
+
+    private void atender(HttpExchange exchange) throws IOException {
+        String metodo = exchange.getRequestMethod();
+        String caminho = exchange.getRequestURI().getPath();
+        chamadas.computeIfAbsent(metodo + " " + caminho, k -> new AtomicInteger()).incrementAndGet();
+        pico.accumulateAndGet(emAndamento.incrementAndGet(), Math::max);
+        try {
+            atender(exchange, metodo, caminho);
+        } finally {
+            emAndamento.decrementAndGet();
+        }
+    }
+
+    private void atender(HttpExchange exchange, String metodo, String caminho) throws IOException {
+        byte[] corpo = exchange.getRequestBody().readAllBytes();
+        esperar();
+
+        if ("POST".equals(metodo) && "/auth/login".equals(caminho)) {
+            long expira = System.currentTimeMillis() / 1000 + 3600;
+            responder(exchange, 200, toJson(Map.of("jwt", jwt("usuario1", expira))));
+        } else if ("POST".equals(metodo) && "/auth/refresh".equals(caminho)) {
+            long expira = System.currentTimeMillis() / 1000 + 3600;
+            responder(exchange, 200, toJson(Map.of("jwt", jwt("usuario1", expira))));
+        } else if (falhando) {
+            responder(exchange, 503, new byte[0]);
+        } else if ("POST".equals(metodo) && "/tarefas".equals(caminho) && recusandoCriacao) {
+            responder(exchange, 400, new byte[0]);
+        } else if ("POST".equals(metodo) && "/tarefas".equals(caminho)) {
+            Tarefa nova = JSON.readValue(corpo, Tarefa.class);
+            nova.setId((long) tarefas.size() + 1);
+            escritas.add(metodo + " " + caminho + " " + nova.getTitulo());
+            responder(exchange, 201, toJson(nova));
+        } else if (("PUT".equals(metodo) || "DELETE".equals(metodo)) && caminho.startsWith("/tarefas/")) {
+            long id = Long.parseLong(caminho.substring("/tarefas/".length()));
+            if (tarefas.stream().noneMatch(t -> t.getId() == id)) {
+                responder(exchange, 404, new byte[0]);
+            } else if ("PUT".equals(metodo)) {
+                Tarefa alterada = JSON.readValue(corpo, Tarefa.class);
+                alterada.setId(id);
+                escritas.add(metodo + " " + caminho + " " + alterada.getTitulo());
+                responder(exchange, 200, toJson(alterada));
+            } else {
+                escritas.add(metodo + " " + caminho);
+                responder(exchange, 204, new byte[0]);
+            }
+        } else if ("GET".equals(metodo) && "/usuarios".equals(caminho)) {
+            responderCondicional(exchange, usuariosJson, versaoUsuarios);
+        } else if ("GET".equals(metodo) && "/tarefas".equals(caminho)) {
+            responderCondicional(exchange, tarefasJson, versaoTarefas);
+        } else if ("GET".equals(metodo) && caminho.startsWith("/tarefas/")) {
+            long id = Long.parseLong(caminho.substring("/tarefas/".length()));
+            Tarefa tarefa = tarefas.stream().filter(t -> t.getId() == id).findFirst().orElse(null);
+            if (tarefa != null) {
+                responder(exchange, 200, toJson(tarefa));
+            } else {
+                responder(exchange, 404, new byte[0]);
+            }
+        } else {
+            responder(exchange, 404, new byte[0]);
+        }
+    }
+
+    private void esperar() {
+        try {
+            Thread.sleep(atraso.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // If-None-Match tem precedência; If-Modified-Since só é avaliado sem ele
+    private void responderCondicional(HttpExchange exchange, byte[] corpo, Versao versao) throws IOException {
+        exchange.getResponseHeaders().set("ETag", versao.etag());
+        exchange.getResponseHeaders().set("Last-Modified",
+                DateTimeFormatter.RFC_1123_DATE_TIME.format(versao.modificadaEm().atZone(ZoneOffset.UTC)));
+        String seNenhum = exchange.getRequestHeaders().getFirst("If-None-Match");
+        String seModificado = exchange.getRequestHeaders().getFirst("If-Modified-Since");
+        boolean naoModificada = seNenhum != null
+                ? List.of(seNenhum.split("\\s*,\\s*")).contains(versao.etag())
+                : seModificado != null && !versao.modificadaEm().isAfter(data(seModificado));
+        if (naoModificada) {
+            naoModificadas.incrementAndGet();
+            // O HttpServer do JDK derruba a conexão depois de um 304; sem isto o cliente a reutilizaria e repetiria o GET
+            exchange.getResponseHeaders().set("Connection", "close");
+            responder(exchange, 304, new byte[0]);
+        } else {
+            responder(exchange, 200, corpo);
+        }
+    }
+
+    private static Instant data(String http) {
+        try {
+            return ZonedDateTime.parse(http, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+        } catch (DateTimeParseException e) {
+            return Instant.EPOCH;
+        }
+    }
+
+    private static void responder(HttpExchange exchange, int status, byte[] corpo) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, corpo.length == 0 ? -1 : corpo.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            if (corpo.length > 0) { // Sem corpo o HttpServer já fecha o stream; escrever nele derruba a conexão
+                out.write(corpo);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    @Override
+    public void afterAll(ExtensionContext context) {
+        close();
+    }
+}
@@ -0,0 +1,42 @@
+package com.wasc.frontend.support;
+
+import org.springframework.boot.test.util.TestPropertyValues;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.context.ContextConfigurationAttributes;
+import org.springframework.test.context.ContextCustomizer;
+import org.springframework.test.context.ContextCustomizerFactory;
+import org.springframework.test.context.MergedContextConfiguration;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.List;
+
+/**
+ * Aponta o api.base.url do contexto para o StubBackend estático da classe de teste, se houver um.
+ * A classe entra na chave do contexto: cada teste com backend próprio tem o seu (uma porta reaproveitada
+ * não faz um contexto antigo, com caches de outro teste, ser reutilizado).
+ */
+public class StubBackendContextCustomizerFactory implements ContextCustomizerFactory {
+
+    @Override
+    public ContextCustomizer createContextCustomizer(Class<?> testClass,
+                                                     List<ContextConfigurationAttributes> configAttributes) {
+        for (Field campo : testClass.getDeclaredFields()) {
+            if (Modifier.isStatic(campo.getModifiers()) && StubBackend.class.isAssignableFrom(campo.getType())) {
+                ReflectionUtils.makeAccessible(campo);
+                StubBackend backend = (StubBackend) ReflectionUtils.getField(campo, null);
+                return new BackendDoTeste(testClass, backend.getUrl());
+            }
+        }
+        return null;
+    }
+
+    private record BackendDoTeste(Class<?> testClass, String url) implements ContextCustomizer {
+
+        @Override
+        public void customizeContext(ConfigurableApplicationContext context, MergedContextConfiguration mergedConfig) {
+            TestPropertyValues.of("api.base.url=" + url).applyTo(context);
+        }
+    }
+}